@@ -141,6 +141,7 @@ public class AssetDirectory extends AssetManager {
         setLoader( Music.class, new MusicLoader( resolver ) );
         setLoader( SoundEffect.class, new SoundBufferLoader( resolver ) );
         setLoader( MusicQueue.class, new MusicBufferLoader( resolver ) );
+        setLoader( SoundGroup.class, new SoundGroupLoader( resolver ) );
 
         setLoader( Pixmap.class, new PixmapLoader( resolver ) );
         setLoader( Texture.class, new TextureLoader( resolver ) );
@@ -159,6 +160,7 @@ public class AssetDirectory extends AssetManager {
         topLoader.addParser( new TextureRegionParser() );
         topLoader.addParser( new SoundBufferParser() );
         topLoader.addParser( new MusicBufferParser() );
+        topLoader.addParser( new SoundGroupParser() );
     }
     
     /**
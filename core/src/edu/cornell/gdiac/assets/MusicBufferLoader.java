@@ -18,6 +18,8 @@ import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
 import com.badlogic.gdx.files.FileHandle;
 import edu.cornell.gdiac.audio.*;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.LongArray;
 
 /**
  * This class is an {@link AssetLoader} to load {@link SoundEffect} assets.
@@ -39,6 +41,12 @@ public class MusicBufferLoader extends AsynchronousAssetLoader<MusicQueue, Music
     public static  class MusicBufferParameters extends AssetLoaderParameters<MusicQueue> {
         /** The sources pre-attached to this music buffer (may be empty) */
         public Array<String> sources;
+        /** The loop start (in sample frames) for each source, or -1 for no loop region */
+        public LongArray loopStarts;
+        /** The loop end (in sample frames) for each source, or -1 for the source end */
+        public LongArray loopEnds;
+        /** The crossfade length (in seconds) out of each source, or 0 for none */
+        public FloatArray crossfades;
         /** 
          * Whether the audio sources in this buffer are required to be mono.
          * 
@@ -63,6 +71,12 @@ public class MusicBufferLoader extends AsynchronousAssetLoader<MusicQueue, Music
         public boolean looping;
         /** Whether to use a local loop behavior (loop one source only) */
         public boolean shortLoop;
+        /** Whether to register the sources with the engine preroll cache */
+        public boolean preroll;
+        /** The minimum number of buffers queued ahead of playback (lower latency) */
+        public int minBuffers;
+        /** The maximum number of buffers queued ahead of playback (fewer underruns) */
+        public int maxBuffers;
 
         /**
          * Creates music buffer parameters for stereo CD sound.
@@ -95,11 +109,17 @@ public class MusicBufferLoader extends AsynchronousAssetLoader<MusicQueue, Music
             this.isMono = isMono;
             this.sampleRate = sampleRate;
             sources = new Array<String>();
+            loopStarts = new LongArray();
+            loopEnds = new LongArray();
+            crossfades = new FloatArray();
             volume = 1.0f;
             pitch = 1.0f;
             panning = 0.0f;
             looping = false;
             shortLoop = false;
+            preroll = false;
+            minBuffers = 3;
+            maxBuffers = 8;
         }
 
     }
@@ -159,8 +179,20 @@ public class MusicBufferLoader extends AsynchronousAssetLoader<MusicQueue, Music
         cachedBuffer.setPan( params.panning );
         cachedBuffer.setLooping( params.looping );
         cachedBuffer.setLoopBehavior( params.shortLoop );
-        for(String deps : manager.getDependencies(fileName)) {
-            cachedBuffer.addSource( manager.get(deps,AudioSource.class) );
+        cachedBuffer.setBufferDepth( params.minBuffers, params.maxBuffers );
+        for(int ii = 0; ii < params.sources.size; ii++) {
+            AudioSource source = manager.get(params.sources.get(ii),AudioSource.class);
+            if (params.preroll) {
+                ((AudioEngine)Gdx.audio).prerollSource( source );
+            }
+            cachedBuffer.addSource( source );
+            if (ii < params.loopStarts.size && params.loopStarts.get(ii) >= 0) {
+                long end = ii < params.loopEnds.size ? params.loopEnds.get(ii) : -1;
+                cachedBuffer.setLoopRegion( ii, params.loopStarts.get(ii), end );
+            }
+            if (ii < params.crossfades.size) {
+                cachedBuffer.setCrossfade( ii, params.crossfades.get(ii) );
+            }
         }
     }
 
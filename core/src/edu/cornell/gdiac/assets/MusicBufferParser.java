@@ -19,6 +19,10 @@ import edu.cornell.gdiac.audio.MusicQueue;
  *
  * The music buffer created does not need to contain any {@link AudioSource} objects.
  * However, you can initialize sources in the sources tag with an array of file names. 
+ * An entry in this array may also be an object with a "file" attribute, together with
+ * optional "loopStart" and "loopEnd" attributes (in sample frames) for a loop region,
+ * and an optional "crossfade" attribute (in seconds) for the transition to the next
+ * entry.
  */
 public class MusicBufferParser implements AssetParser<MusicQueue> {
     /** The current font entry in the JSON directory */
@@ -76,10 +80,24 @@ public class MusicBufferParser implements AssetParser<MusicQueue> {
         params.panning = root.getFloat( "panning", 0.0f );
         params.looping = root.getBoolean( "looping", false );
         params.shortLoop = root.getBoolean( "shortLoop", false );
+        params.preroll = root.getBoolean( "preroll", false );
+        params.minBuffers = root.getInt( "minBuffers", 3 );
+        params.maxBuffers = root.getInt( "maxBuffers", Math.max( 8, params.minBuffers ) );
         JsonValue sources = root.get("sources");
         if (sources != null) {
             for (int ii = 0; ii < sources.size; ii++) {
-                params.sources.add( sources.getString(ii));
+                JsonValue entry = sources.get(ii);
+                if (entry.isObject()) {
+                    params.sources.add( entry.getString( "file" ) );
+                    params.loopStarts.add( entry.getLong( "loopStart", -1 ) );
+                    params.loopEnds.add( entry.getLong( "loopEnd", -1 ) );
+                    params.crossfades.add( entry.getFloat( "crossfade", 0 ) );
+                } else {
+                    params.sources.add( entry.asString() );
+                    params.loopStarts.add( -1 );
+                    params.loopEnds.add( -1 );
+                    params.crossfades.add( 0 );
+                }
             }
         }
         keymap.put(root.name(), root.name());
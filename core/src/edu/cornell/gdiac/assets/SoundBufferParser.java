@@ -19,7 +19,8 @@ import edu.cornell.gdiac.audio.SoundEffect;
  * This class parses a JSON entry into a {@link SoundEffect}.
  *
  * SoundBuffer assets do not have any properties other than the file name (because 
- * all properties) are stored in the file.
+ * all properties) are stored in the file. Entries in the sounds section that are
+ * objects are sound groups, and are skipped by this parser (see {@link SoundGroupParser}).
  */
 public class SoundBufferParser implements AssetParser<SoundEffect> {
     /** The current font entry in the JSON directory */
@@ -45,6 +46,7 @@ public class SoundBufferParser implements AssetParser<SoundEffect> {
     public void reset(JsonValue directory) {
         root = directory;
         root = root.getChild( "sounds" );
+        advance();
     }
 
     /**
@@ -68,11 +70,24 @@ public class SoundBufferParser implements AssetParser<SoundEffect> {
      * @param keymap    The mapping of JSON keys to asset file names
      */
     public void processNext(AssetManager manager, ObjectMap<String,String> keymap) {
+        if (root == null) {
+            return;
+        }
         String file = root.asString();
         String asset = file+":"+root.name();
         keymap.put(root.name(), asset);
         manager.load( asset, SoundEffect.class, null );
         root = root.next();
+        advance();
+    }
+
+    /**
+     * Skips over entries in the sounds section that are sound groups
+     */
+    private void advance() {
+        while (root != null && root.isObject()) {
+            root = root.next();
+        }
     }
 
     /**
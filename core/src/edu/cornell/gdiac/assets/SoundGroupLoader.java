@@ -0,0 +1,163 @@
+/*
+ * SoundGroupLoader.java
+ *
+ * This is a simple loader for processing sound groups (and making them assets managed
+ * by the asset manager).  The variants of a group are loaded as sound buffers.
+ *
+ * This code is based on the template for SoundLoader by mzechner.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.assets.*;
+import com.badlogic.gdx.assets.loaders.*;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import edu.cornell.gdiac.audio.*;
+
+/**
+ * This class is an {@link AssetLoader} to load {@link SoundGroup} assets.
+ *
+ * All sound groups are named symbolically, since they span multiple sound files.
+ * They are fully defined by their loader parameters. Each variant is loaded as a
+ * {@link SoundEffect} asset named filename:filename, so groups that share a file
+ * also share the sound buffer.
+ */
+public class SoundGroupLoader extends AsynchronousAssetLoader<SoundGroup, SoundGroupLoader.SoundGroupParameters> {
+    /** The asynchronously created SoundGroup */
+    private SoundGroup cachedGroup;
+
+    /**
+     * The definable parameters for a {@link SoundGroup}.
+     *
+     * The variants are specified by file name.
+     */
+    public static class SoundGroupParameters extends AssetLoaderParameters<SoundGroup> {
+        /** The file names of the variants */
+        public Array<String> variants;
+        /** Whether to choose variants with a shuffle bag (instead of at random) */
+        public boolean shuffle;
+        /** The maximum number of simultaneous instances (0 for no limit) */
+        public int maxInstances;
+        /** The minimum time between plays in seconds */
+        public float cooldown;
+
+        /**
+         * Creates sound group parameters with no variants and no limits.
+         */
+        public SoundGroupParameters() {
+            variants = new Array<String>();
+            shuffle = false;
+            maxInstances = 0;
+            cooldown = 0;
+        }
+    }
+
+    /**
+     * Creates a new SoundGroupLoader with an internal file resolver
+     */
+    public SoundGroupLoader() {
+        this(new InternalFileHandleResolver());
+    }
+
+    /**
+     * Creates a new SoundGroupLoader with the given file resolver
+     *
+     * @param resolver    The file resolver
+     */
+    public SoundGroupLoader (FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+    /**
+     * Returns the sound buffer asset name for the given variant file
+     *
+     * @param file  The variant file name
+     *
+     * @return the sound buffer asset name for the given variant file
+     */
+    protected static String variantAsset(String file) {
+        return file+":"+file;
+    }
+
+    /** 
+     * Loads thread-safe part of the asset and injects any dependencies into the AssetManager.
+     *
+     * This is used to load non-OpenGL parts of the asset that do not require the context
+     * of the main thread.
+     *
+     * @param manager   The asset manager
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params    The parameters to use for loading the asset 
+     */
+    @Override
+    public void loadAsync (AssetManager manager, String fileName, FileHandle file, SoundGroupParameters params) {
+        if (params == null) {
+            params = new SoundGroupParameters();
+        }
+        cachedGroup = new SoundGroup();
+        for(String variant : params.variants) {
+            cachedGroup.addVariant( manager.get( variantAsset( variant ), SoundEffect.class ) );
+        }
+        cachedGroup.setSelection( params.shuffle ? SoundGroup.Selection.SHUFFLE : SoundGroup.Selection.RANDOM );
+        cachedGroup.setMaxInstances( params.maxInstances );
+        cachedGroup.setCooldown( params.cooldown );
+    }
+
+    /** 
+     * Loads the main thread part of the asset.
+     *
+     * This is used to load OpenGL parts of the asset that require the context of the
+     * main thread.
+     *
+     * @param manager   The asset manager
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params    The parameters to use for loading the asset 
+     */
+    @Override
+    public SoundGroup loadSync (AssetManager manager, String fileName, FileHandle file, SoundGroupParameters params) {
+        SoundGroup group = cachedGroup;
+        cachedGroup = null;
+        return group;
+    }
+
+    /**
+     * Eliminate the file resolution as all file names are logical.
+     *
+     * @param fileName    Pointless
+     */
+    @Override
+    public FileHandle resolve (String fileName) {
+        return null;
+    }
+
+    /** 
+     * Returns the other assets this asset requires to be loaded first. 
+     * 
+     * This method may be called on a thread other than the GL thread. It may return
+     * null if there are no dependencies.
+     *
+     * @param fileName  The name of the asset to load
+     * @param file      The resolved file to load
+     * @param params parameters for loading the asset
+     *
+     * @return the other assets this asset requires to be loaded first. 
+     */
+    @Override
+    public Array<AssetDescriptor> getDependencies (String fileName, FileHandle file, SoundGroupParameters params) {
+        if (params == null) {
+            params = new SoundGroupParameters();
+        }
+        Array<AssetDescriptor> deps = new Array<AssetDescriptor>(params.variants.size);
+        for(String name : params.variants) {
+            deps.add( new AssetDescriptor<SoundEffect>( variantAsset( name ), SoundEffect.class ) );
+        }
+        return deps;
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * SoundGroupParser.java
+ *
+ * This is an interface for parsing a JSON entry into a SoundGroup asset. Sound groups
+ * share the sounds section with sound buffers, but are specified by objects instead
+ * of file names.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.assets;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.utils.JsonValue;
+import com.badlogic.gdx.utils.ObjectMap;
+import edu.cornell.gdiac.audio.SoundGroup;
+
+/**
+ * This class parses a JSON entry into a {@link SoundGroup}.
+ *
+ * Sound groups are defined in the sounds section of the asset directory. Any entry
+ * in that section that is an object (as opposed to a file name) is a sound group.
+ * The object must have a "variants" attribute, which is an array of file names. It
+ * may also have a "selection" attribute ("random" or "shuffle"), a "maxInstances"
+ * attribute for the concurrency cap, and a "cooldown" attribute (in seconds).
+ */
+public class SoundGroupParser implements AssetParser<SoundGroup> {
+    /** The current sound group entry in the JSON directory */
+    private JsonValue root;
+
+    /**
+     * Returns the asset type generated by this parser
+     *
+     * @return the asset type generated by this parser
+     */
+    public Class<SoundGroup> getType() {
+        return SoundGroup.class;
+    }
+
+    /**
+     * Resets the parser iterator for the given directory.
+     *
+     * The value directory is assumed to be the root of a larger JSON structure.
+     * The individual assets are defined by subtrees in this structure.
+     *
+     * @param directory    The JSON representation of the asset directory
+     */
+    public void reset(JsonValue directory) {
+        root = directory;
+        root = root.getChild( "sounds" );
+        advance();
+    }
+
+    /**
+     * Returns true if there are still assets left to generate
+     *
+     * @return true if there are still assets left to generate
+     */
+    public boolean hasNext() {
+        return root != null;
+    }
+
+    /**
+     * Processes the next available sound group, loading it into the asset manager
+     *
+     * The parser converts JSON entries into {@link SoundGroupLoader.SoundGroupParameters}
+     * values of the same name. The key will be the name of the group object.
+     *
+     * This method fails silently if there are no available assets to process.
+     *
+     * @param manager    The asset manager to load an asset
+     * @param keymap    The mapping of JSON keys to asset file names
+     */
+    public void processNext(AssetManager manager, ObjectMap<String,String> keymap) {
+        if (root == null) {
+            return;
+        }
+        SoundGroupLoader.SoundGroupParameters params = new SoundGroupLoader.SoundGroupParameters();
+        String selection = root.getString( "selection", "random" );
+        params.shuffle = selection.equalsIgnoreCase( "shuffle" );
+        params.maxInstances = root.getInt( "maxInstances", 0 );
+        params.cooldown = root.getFloat( "cooldown", 0 );
+        JsonValue variants = root.get( "variants" );
+        if (variants != null) {
+            for (int ii = 0; ii < variants.size; ii++) {
+                params.variants.add( variants.getString( ii ) );
+            }
+        }
+        keymap.put(root.name(), root.name());
+        manager.load( root.name(), SoundGroup.class, params );
+        root = root.next();
+        advance();
+    }
+
+    /**
+     * Skips over entries in the sounds section that are not sound groups
+     */
+    private void advance() {
+        while (root != null && !root.isObject()) {
+            root = root.next();
+        }
+    }
+
+    /**
+     * Returns true if o is another SoundGroupParser
+     *
+     * @return true if o is another SoundGroupParser
+     */
+    public boolean equals(Object o) {
+        return o instanceof SoundGroupParser;
+    }
+
+}
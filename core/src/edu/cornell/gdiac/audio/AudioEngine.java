@@ -58,6 +58,24 @@ public interface AudioEngine extends Audio {
      * @return a new {#link Sample} from the given file.
      */
     public AudioSource newSource(FileHandle file);
+
+    /**
+     * Creates a new {@link LayeredSource} from the given audio sources.
+     *
+     * A layered source decodes its layers (stems) in lockstep and mixes them in
+     * software with independent volumes. You can append it to a {@link MusicQueue}
+     * like any other source, so all layers play through a single OpenAL source and
+     * never drift out of sync.
+     *
+     * All layers must have the same sample rate and audio channels.  Disposing the
+     * layered source does not dispose the layers.
+     *
+     * @param layers    The audio source for each layer
+     *
+     * @throws IllegalArgumentException if the layers do not have the same format
+     * @return a new {@link LayeredSource} from the given audio sources.
+     */
+    public LayeredSource newLayeredSource(AudioSource... layers);
     
     /**
      * Creates a new {@link SoundEffect} which to play back audio effects.
@@ -146,6 +164,37 @@ public interface AudioEngine extends Audio {
      * @return a new {#link MusicBuffer} with the given properties.
      */
     public MusicQueue newMusicBuffer(boolean isMono, int sampleRate);
+
+    /**
+     * Creates a new {@link AudioDevice} tuned for low latency.
+     *
+     * A low-latency device queues small buffers, and only a few of them at first.
+     * Every underrun adds another buffer to the queue (up to a limit), and the queue
+     * shrinks again after playing for a while without underruns.
+     *
+     * @param sampleRate    The sample rate
+     * @param isMono        Whether the device is mono or stereo
+     *
+     * @return a new {@link AudioDevice} tuned for low latency.
+     */
+    public AudioDevice newLowLatencyDevice(int sampleRate, boolean isMono);
+
+    /**
+     * Creates a new {@link AudioDevice} that pulls its samples from the given producer.
+     *
+     * Unlike a device created by {@link #newAudioDevice(int, boolean)}, this device is
+     * not written to. Instead, the engine asks the producer for more samples whenever
+     * a device buffer is free, as part of its update. The device starts playing
+     * immediately. Pausing the device stops the calls to the producer until it is
+     * resumed. Calling any of the write methods of this device is an error.
+     *
+     * @param sampleRate    The sample rate
+     * @param isMono        Whether the device is mono or stereo
+     * @param producer      The producer to generate the samples
+     *
+     * @return a new {@link AudioDevice} that pulls its samples from the given producer.
+     */
+    public AudioDevice newAudioDevice(int sampleRate, boolean isMono, AudioProducer producer);
     
     /**
      * Pauses all sound instances associated with this audio engine.
@@ -164,6 +213,305 @@ public interface AudioEngine extends Audio {
      */
     public void resume();
 
+    /**
+     * Sets the properties of the music preroll cache.
+     *
+     * The preroll cache keeps the first milliseconds of a registered {@link AudioSource}
+     * decoded in memory. When a {@link MusicQueue} starts playing at the beginning of a
+     * cached source, it queues the cached audio immediately and lets the stream catch
+     * up in later updates. This removes the decoding delay from {@link Music#play()},
+     * which is important for stingers and menu music.
+     *
+     * The cache is shared by all music buffers and will never exceed the given capacity.
+     * If it is full, the least recently used sources are discarded. Changing these
+     * settings discards all cached data. Setting either value to 0 disables the cache,
+     * which is the default.
+     *
+     * @param millis    The amount of audio to cache for each source in milliseconds
+     * @param capacity  The maximum size of the cache in bytes
+     */
+    public void setPrerollCache(int millis, int capacity);
+
+    /**
+     * Registers an audio source with the music preroll cache.
+     *
+     * This method decodes the head of the source on the calling thread, so it should
+     * be called when assets are loaded, and not when music is played. It returns false
+     * if the cache is disabled or the source could not be cached.
+     *
+     * @param source    The audio source to cache
+     *
+     * @return true if the source is now in the preroll cache
+     */
+    public boolean prerollSource(AudioSource source);
+
+    /**
+     * Removes an audio source from the music preroll cache.
+     *
+     * This method has no effect if the source is not cached.
+     *
+     * @param source    The audio source to remove
+     */
+    public void evictPreroll(AudioSource source);
+
+    /**
+     * Sets the memory budget for sound effect data.
+     *
+     * Sound effects are decoded into OpenAL memory when they are created. If the total
+     * size of this data exceeds the budget, the engine evicts the sound effects that
+     * have not been played recently. An evicted sound effect is decoded again the next
+     * time it is played, which adds latency to that call (see {@link #prewarmSound}).
+     * Sound effects that are currently playing are never evicted. The budget is
+     * enforced once per update. A budget of 0 disables eviction, which is the default.
+     *
+     * @param bytes The maximum size of resident sound data in bytes
+     */
+    public void setSoundBudget(int bytes);
+
+    /**
+     * Returns the memory budget for sound effect data (0 for no limit).
+     *
+     * @return the memory budget for sound effect data (0 for no limit).
+     */
+    public int getSoundBudget();
+
+    /**
+     * Hints that the given sound effect will be played soon.
+     *
+     * If the sound effect was evicted to stay within the sound budget, it is decoded
+     * again on a background thread, and made resident at a later update. This method
+     * returns false if the sound is already resident (or is already being decoded).
+     *
+     * @param sound The sound effect to pre-warm
+     *
+     * @return true if the sound effect will be decoded
+     */
+    public boolean prewarmSound(SoundEffect sound);
+
+    /**
+     * Starts a batch of parameter changes.
+     *
+     * Between this call and the matching call to {@link #endBatch}, parameter changes
+     * (such as volume, pitch, and pan) are held back and applied together, so they
+     * are never heard half-applied. Batches may be nested; the changes are applied
+     * when the outermost batch ends.
+     */
+    public void beginBatch();
+
+    /**
+     * Ends a batch of parameter changes.
+     *
+     * If this is the outermost batch, all of the changes made since {@link #beginBatch}
+     * are applied at once. This method has no effect if there is no open batch.
+     */
+    public void endBatch();
+
+    /**
+     * Runs the given changes as a single batch.
+     *
+     * This is the same as calling {@link #beginBatch} and {@link #endBatch} around
+     * the changes, except that the batch is ended even if the changes throw an
+     * exception.
+     *
+     * @param changes   The parameter changes to apply together
+     */
+    public void batch(Runnable changes);
+
+    /**
+     * Sets whether to defer parameter changes between engine updates.
+     *
+     * If this is true, every parameter change made in a frame is applied at once when
+     * the engine next updates. This also delays newly played sounds until that update.
+     * The default is false.
+     *
+     * @param defer Whether to defer parameter changes between engine updates
+     */
+    public void setDeferredUpdates(boolean defer);
+
+    /**
+     * Returns true if parameter changes are deferred between engine updates.
+     *
+     * @return true if parameter changes are deferred between engine updates.
+     */
+    public boolean getDeferredUpdates();
+
+    /**
+     * Returns the current time (in seconds) of the audio clock.
+     *
+     * The audio clock measures the time that the audio device has been playing. It is
+     * not synchronized with the game clock, and may drift from it. Use this clock for
+     * scheduled playback, such as {@link SoundEffect#playAt}, and convert between the
+     * clocks with {@link #toAudioTime} and {@link #toGameTime}.
+     *
+     * @return the current time (in seconds) of the audio clock.
+     */
+    public double getAudioTime();
+
+    /**
+     * Returns the audio clock time for the given game time.
+     *
+     * Game time is measured in nanoseconds, as by {@link com.badlogic.gdx.utils.TimeUtils#nanoTime}.
+     * The conversion uses the current offset between the two clocks.
+     *
+     * @param nanoTime  The game time in nanoseconds
+     *
+     * @return the audio clock time (in seconds) for the given game time.
+     */
+    public double toAudioTime(long nanoTime);
+
+    /**
+     * Returns the game time for the given audio clock time.
+     *
+     * Game time is measured in nanoseconds, as by {@link com.badlogic.gdx.utils.TimeUtils#nanoTime}.
+     * The conversion uses the current offset between the two clocks.
+     *
+     * @param audioTime The audio clock time in seconds
+     *
+     * @return the game time (in nanoseconds) for the given audio clock time.
+     */
+    public long toGameTime(double audioTime);
+
+    /**
+     * Returns the runtime statistics for this audio engine.
+     *
+     * The object returned is live, and is updated by the engine as it runs. It is
+     * intended for profiling and debugging, such as detecting assets that are never
+     * disposed.
+     *
+     * @return the runtime statistics for this audio engine.
+     */
+    public AudioStats getStats();
+
+    /**
+     * Ramps an attribute of the given effect to a target value.
+     *
+     * The ramp is performed by the engine on each update, starting from the current
+     * value of the attribute. The attribute is one of the EFX effect parameters (such
+     * as {@code EXTEfx.AL_REVERB_GAIN}) for the type of the effect. Starting another
+     * ramp (or automation) on the same attribute cancels this one. The ramp ends early (without
+     * completing) if the effect is disposed.
+     *
+     * @param effect    The effect to modify
+     * @param attribute The EFX attribute to ramp
+     * @param value     The target value of the attribute
+     * @param seconds   The length of the ramp in seconds
+     * @param curve     The shape of the ramp (null for linear)
+     * @param listener  The listener to notify when the ramp ends (may be null)
+     *
+     * @return the active ramp
+     */
+    public AudioRamp rampEffect(EffectFilter effect, int attribute, float value, float seconds,
+                                AudioRamp.Curve curve, AudioRamp.Listener listener);
+
+    /**
+     * Attaches a low frequency oscillator to an attribute of the given effect.
+     *
+     * The attribute oscillates between center-depth and center+depth. It is one of
+     * the float EFX effect parameters (such as {@code EXTEfx.AL_REVERB_GAIN}) for the
+     * type of the effect. Attaching automation (or a ramp) to the same attribute
+     * cancels this one.
+     *
+     * @param effect    The effect to modify
+     * @param attribute The EFX attribute to automate
+     * @param center    The center value of the attribute
+     * @param depth     The distance from the center to either extreme
+     * @param frequency The number of cycles per second
+     * @param waveform  The shape of the oscillation (null for sine)
+     *
+     * @return the active automation
+     */
+    public EffectAutomation automateLFO(EffectFilter effect, int attribute, float center, float depth,
+                                        float frequency, EffectAutomation.Waveform waveform);
+
+    /**
+     * Attaches an ADSR envelope to an attribute of the given effect.
+     *
+     * The envelope starts immediately. The attribute rises from the base value to the
+     * peak over the attack time, and then falls to the sustain level over the decay
+     * time. It stays at the sustain level until {@link EffectAutomation#release} is
+     * called, when it falls to the base value over the release time. Attaching
+     * automation (or a ramp) to the same attribute cancels this one.
+     *
+     * @param effect    The effect to modify
+     * @param attribute The EFX attribute to automate
+     * @param base      The value of the attribute at rest
+     * @param peak      The value of the attribute at the end of the attack
+     * @param attack    The attack time in seconds
+     * @param decay     The decay time in seconds
+     * @param sustain   The sustain level, as a fraction [0,1] from base to peak
+     * @param release   The release time in seconds
+     *
+     * @return the active automation
+     */
+    public EffectAutomation automateEnvelope(EffectFilter effect, int attribute, float base, float peak,
+                                             float attack, float decay, float sustain, float release);
+
+    /**
+     * Sets the rate at which effect automation is evaluated.
+     *
+     * Automation is evaluated on the update of the engine, but no more often than
+     * this many times a second. A value of 0 evaluates automation on every update.
+     *
+     * @param hertz The evaluations per second (0 for every update)
+     */
+    public void setControlRate(float hertz);
+
+    /**
+     * Returns the rate at which effect automation is evaluated.
+     *
+     * A value of 0 means that automation is evaluated on every update.
+     *
+     * @return the rate at which effect automation is evaluated.
+     */
+    public float getControlRate();
+
+    /**
+     * Returns the master bus of this engine.
+     *
+     * @return the master bus of this engine.
+     */
+    public MixBus getMasterBus();
+
+    /**
+     * Returns the bus with the given name (or null if there is none).
+     *
+     * The names of the built-in buses are the constants of {@link MixBus}.
+     *
+     * @param name  The bus name
+     *
+     * @return the bus with the given name (or null if there is none).
+     */
+    public MixBus getBus(String name);
+
+    /**
+     * Returns a new bus with the given name and parent.
+     *
+     * @param name      The bus name (which must be unique)
+     * @param parent    The parent bus (null for the master bus)
+     *
+     * @return a new bus with the given name and parent.
+     */
+    public MixBus newBus(String name, MixBus parent);
+
+    /**
+     * Adds a rule ducking the target bus while the trigger bus is playing.
+     *
+     * The target is lowered to the ducked volume over the attack time whenever any
+     * sound below the trigger bus is playing. After the trigger falls silent, the
+     * target is held for the hold time and then restored over the release time.
+     *
+     * @param trigger   The bus that triggers the rule
+     * @param target    The bus to duck
+     * @param volume    The volume multiplier of the target when fully ducked
+     * @param attack    The time to duck the target in seconds
+     * @param hold      The time to keep the target ducked in seconds
+     * @param release   The time to restore the target in seconds
+     *
+     * @return the new ducking rule
+     */
+    public DuckingRule addDucking(MixBus trigger, MixBus target, float volume,
+                                  float attack, float hold, float release);
+
     /**
      * Gets the EffectFactory for creating {@link EffectFilter}
      *
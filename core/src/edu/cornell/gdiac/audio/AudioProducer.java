@@ -0,0 +1,46 @@
+/*
+ * AudioProducer.java
+ *
+ * This interface is a callback that generates audio on demand. It allows procedural
+ * audio to be played through an audio device without a blocking writer thread.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.audio;
+
+import com.badlogic.gdx.audio.AudioDevice;
+
+/**
+ * This interface generates PCM samples for an {@link AudioDevice}.
+ *
+ * A producer is attached to a device with {@link AudioEngine#newAudioDevice(int, boolean, AudioProducer)}.
+ * Instead of writing samples to the device (which blocks until the device has room
+ * for them), the device asks the producer for exactly the samples it needs whenever
+ * one of its buffers is free. This happens when the audio engine updates (once per
+ * animation frame), so the producer is called on the main thread, and must not block.
+ * The device buffers should hold at least a frame of audio to avoid gaps.
+ *
+ * The samples are floats in the range [-1,1]. Stereo samples are interleaved.
+ */
+public interface AudioProducer {
+
+    /**
+     * Writes the next PCM samples to the given array.
+     *
+     * The producer should write up to numSamples values to the array, starting at the
+     * offset, and return the number of values written. If it writes fewer than were
+     * requested, the rest are filled with silence. If it returns a negative value, the
+     * producer is finished, and the device stops once the queued audio has played.
+     *
+     * The number of samples is NOT per channel. For a stereo device, it is always even.
+     *
+     * @param samples       The array to fill
+     * @param offset        The offset into the samples array
+     * @param numSamples    The number of samples requested
+     *
+     * @return the number of samples written, or a negative value if finished.
+     */
+    public int produce(float[] samples, int offset, int numSamples);
+
+}
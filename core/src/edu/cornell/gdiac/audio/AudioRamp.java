@@ -0,0 +1,122 @@
+/*
+ * AudioRamp.java
+ *
+ * This interface is a handle to a parameter ramp (such as a fade) that is performed
+ * by the audio engine. Ramps are evaluated on the update of the engine, so game code
+ * does not need to change the parameter every frame.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.audio;
+
+/**
+ * This interface represents an active parameter ramp.
+ *
+ * A ramp changes a parameter (volume, pitch, pan, or an effect attribute) from its
+ * current value to a target value over a period of time. Ramps are created by the
+ * methods {@link SoundEffect#rampVolume}, {@link MusicQueue#rampVolume}, and so on.
+ * Starting a new ramp on the same parameter cancels the previous one.
+ *
+ * A ramp ends when it reaches its target, when it is cancelled, or when its sound
+ * instance (or music) stops or is disposed. Pausing music also ends its ramps. The
+ * optional {@link Listener} is notified in all of these cases.
+ */
+public interface AudioRamp {
+
+    /**
+     * The shape of a parameter ramp
+     */
+    public enum Curve {
+        /** A straight line from the start value to the target */
+        LINEAR,
+        /**
+         * A constant ratio per unit time (linear in decibels).
+         *
+         * This is the natural curve for volume. Values of 0 are treated as -60 dB.
+         * If either end is negative (such as for pan), this curve is linear.
+         */
+        EXPONENTIAL,
+        /** A smooth step that starts and ends slowly */
+        SCURVE;
+
+        /** The smallest value used for an exponential curve (-60 dB) */
+        private static final float FLOOR = 0.001f;
+
+        /**
+         * Returns the value of this curve between two values
+         *
+         * @param from      The start value
+         * @param to        The target value
+         * @param progress  The ramp progress in the range [0,1]
+         *
+         * @return the value of this curve between two values
+         */
+        public float interpolate(float from, float to, float progress) {
+            if (progress <= 0) {
+                return from;
+            } else if (progress >= 1) {
+                return to;
+            }
+            switch (this) {
+                case EXPONENTIAL:
+                    if (from < 0 || to < 0) {
+                        return from+(to-from)*progress;
+                    }
+                    float a = Math.max( from, FLOOR );
+                    float b = Math.max( to, FLOOR );
+                    return (float)(a*Math.pow( b/a, progress ));
+                case SCURVE:
+                    return from+(to-from)*progress*progress*(3-2*progress);
+                case LINEAR:
+                default:
+                    return from+(to-from)*progress;
+            }
+        }
+    }
+
+    /**
+     * The interface for a callback invoked when a ramp ends
+     */
+    public interface Listener {
+        /**
+         * Called when the ramp ends.
+         *
+         * The ramp is completed if it reached its target value.  It is not completed
+         * if it was cancelled (possibly by a newer ramp) or if its sound stopped.
+         *
+         * @param ramp      The ramp that ended
+         * @param completed Whether the ramp reached its target value
+         */
+        public void onRampEnd(AudioRamp ramp, boolean completed);
+    }
+
+    /**
+     * Cancels this ramp, leaving the parameter at its current value.
+     *
+     * This method has no effect if the ramp has already ended.
+     */
+    public void cancel();
+
+    /**
+     * Returns true if this ramp has not yet ended.
+     *
+     * @return true if this ramp has not yet ended.
+     */
+    public boolean isActive();
+
+    /**
+     * Returns the progress of this ramp in the range [0,1].
+     *
+     * @return the progress of this ramp in the range [0,1].
+     */
+    public float getProgress();
+
+    /**
+     * Returns the target value of this ramp.
+     *
+     * @return the target value of this ramp.
+     */
+    public float getTarget();
+
+}
@@ -0,0 +1,77 @@
+/*
+ * AudioStats.java
+ *
+ * This class collects runtime statistics for an audio engine.  It is intended for
+ * profiling and debugging, much like the GL profiler in LibGDX.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.audio;
+
+/**
+ * This class is a collection of counters maintained by an {@link AudioEngine}.
+ *
+ * The engine updates these counters as it runs. The object returned by
+ * {@link AudioEngine#getStats} is live, so you should treat the fields as read-only
+ * (apart from calling {@link #clear}).  All counters are cumulative since the engine
+ * was created or the stats were last cleared.
+ */
+public class AudioStats {
+    /** The number of OpenAL buffers reclaimed from assets that were never disposed */
+    public long leakedBuffers;
+    /** The number of OpenAL sources reclaimed from assets that were never disposed */
+    public long leakedSources;
+    /** The number of effects and filters reclaimed from objects that were never disposed */
+    public long leakedEffects;
+
+    /** The number of sound plays whose buffer was resident in OpenAL memory */
+    public long soundHits;
+    /** The number of sound plays that had to decode their buffer again */
+    public long soundMisses;
+    /** The number of sound buffers evicted to stay within the memory budget */
+    public long soundEvictions;
+    /** The number of sound buffers decoded ahead of time by a pre-warm hint */
+    public long soundPrewarms;
+    /** The number of bytes of sound data currently resident (not reset by {@link #clear}) */
+    public long residentBytes;
+
+    /** The number of effects loaded into an aux slot */
+    public long effectSlotLoads;
+    /** The number of effects evicted from an aux slot because all slots were in use */
+    public long effectSlotEvictions;
+    /** The number of aux slots currently holding an effect (not reset by {@link #clear}) */
+    public long effectSlots;
+
+    /**
+     * Resets all counters to zero.
+     *
+     * Values that describe the current state of the engine, such as the resident
+     * bytes or the effect slots in use, are not affected.
+     */
+    public void clear() {
+        leakedBuffers = 0;
+        leakedSources = 0;
+        leakedEffects = 0;
+        soundHits = 0;
+        soundMisses = 0;
+        soundEvictions = 0;
+        soundPrewarms = 0;
+        effectSlotLoads = 0;
+        effectSlotEvictions = 0;
+    }
+
+    /**
+     * Returns a string representation of these statistics (for debugging)
+     *
+     * @return a string representation of these statistics (for debugging)
+     */
+    @Override
+    public String toString() {
+        return "AudioStats[leaked buffers="+leakedBuffers+", sources="+leakedSources+
+               ", effects="+leakedEffects+"; sound hits="+soundHits+", misses="+soundMisses+
+               ", evictions="+soundEvictions+", prewarms="+soundPrewarms+
+               ", resident="+residentBytes+"; effect slots="+effectSlots+
+               ", loads="+effectSlotLoads+", evictions="+effectSlotEvictions+"]";
+    }
+}
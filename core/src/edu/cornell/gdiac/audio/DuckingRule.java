@@ -0,0 +1,121 @@
+/*
+ * DuckingRule.java
+ *
+ * This interface is a handle to a sidechain ducking rule. A ducking rule lowers the
+ * volume of one bus whenever another bus is playing, such as lowering the music
+ * during dialogue.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.audio;
+
+/**
+ * This interface represents an active ducking rule.
+ *
+ * A ducking rule watches a trigger {@link MixBus}. Whenever any sound or music below
+ * the trigger bus is playing, the rule lowers the volume of the target bus to its
+ * ducked volume over the attack time. Once the trigger bus is silent, the target stays
+ * ducked for the hold time, and then returns to full volume over the release time.
+ * Rules are created with {@link AudioEngine#addDucking}.
+ *
+ * The rule is evaluated on the update of the engine. The attenuation multiplies the
+ * volume of the target bus (and so everything below it) without changing the volume
+ * set by the user. If several rules duck the same bus, their attenuations multiply.
+ * The target should not be a parent of the trigger, as that would duck the trigger
+ * as well.
+ */
+public interface DuckingRule {
+
+    /**
+     * Returns the bus that triggers this rule.
+     *
+     * @return the bus that triggers this rule.
+     */
+    public MixBus getTrigger();
+
+    /**
+     * Returns the bus ducked by this rule.
+     *
+     * @return the bus ducked by this rule.
+     */
+    public MixBus getTarget();
+
+    /**
+     * Returns the volume multiplier of the target when fully ducked.
+     *
+     * @return the volume multiplier of the target when fully ducked.
+     */
+    public float getDuckedVolume();
+
+    /**
+     * Sets the volume multiplier of the target when fully ducked.
+     *
+     * @param volume    The volume multiplier in the range [0,1]
+     */
+    public void setDuckedVolume(float volume);
+
+    /**
+     * Returns the time to duck the target in seconds.
+     *
+     * @return the time to duck the target in seconds.
+     */
+    public float getAttack();
+
+    /**
+     * Sets the time to duck the target in seconds.
+     *
+     * @param seconds   The time to duck the target in seconds.
+     */
+    public void setAttack(float seconds);
+
+    /**
+     * Returns the time to keep the target ducked after the trigger is silent.
+     *
+     * @return the time to keep the target ducked after the trigger is silent.
+     */
+    public float getHold();
+
+    /**
+     * Sets the time to keep the target ducked after the trigger is silent.
+     *
+     * @param seconds   The hold time in seconds.
+     */
+    public void setHold(float seconds);
+
+    /**
+     * Returns the time to restore the target in seconds.
+     *
+     * @return the time to restore the target in seconds.
+     */
+    public float getRelease();
+
+    /**
+     * Sets the time to restore the target in seconds.
+     *
+     * @param seconds   The time to restore the target in seconds.
+     */
+    public void setRelease(float seconds);
+
+    /**
+     * Returns how far the target is ducked, from 0 (not at all) to 1 (fully).
+     *
+     * @return how far the target is ducked, from 0 (not at all) to 1 (fully).
+     */
+    public float getLevel();
+
+    /**
+     * Removes this rule, restoring the target on the next update.
+     *
+     * This method has no effect if the rule was already removed.
+     */
+    public void cancel();
+
+    /**
+     * Returns true if this rule has not been removed.
+     *
+     * @return true if this rule has not been removed.
+     */
+    public boolean isActive();
+
+}
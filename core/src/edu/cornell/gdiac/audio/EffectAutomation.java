@@ -0,0 +1,112 @@
+/*
+ * EffectAutomation.java
+ *
+ * This interface is a handle to an automation source (an LFO or an envelope) driving
+ * an effect parameter. Automation is evaluated by the audio engine, so game code does
+ * not need to update the effect every frame.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.audio;
+
+/**
+ * This interface represents an automation source attached to an effect parameter.
+ *
+ * An automation source changes a float attribute of an {@link EffectFilter} over time.
+ * A low frequency oscillator (LFO) moves the attribute around a center value, while an
+ * envelope (ADSR) swells the attribute from a base value to a peak and back. Automation
+ * is created by {@link AudioEngine#automateLFO} and {@link AudioEngine#automateEnvelope}.
+ * To move an attribute to a target once, use {@link AudioEngine#rampEffect} instead.
+ *
+ * Automation is evaluated on the update of the engine, at the rate set by
+ * {@link AudioEngine#setControlRate}. Only one automation source (or ramp) controls an
+ * attribute at a time. Attaching a new one cancels the previous one. The automation
+ * ends when it is cancelled, when its envelope is fully released, or when its effect
+ * is disposed.
+ */
+public interface EffectAutomation {
+
+    /**
+     * The shape of a low frequency oscillator
+     */
+    public enum Waveform {
+        /** A sine wave */
+        SINE,
+        /** A triangle wave, rising and falling linearly */
+        TRIANGLE,
+        /** A square wave, alternating between the extremes */
+        SQUARE,
+        /** A sawtooth wave, rising linearly before dropping sharply */
+        SAWTOOTH;
+
+        /**
+         * Returns the value of this waveform at the given phase
+         *
+         * The value is in the range [-1,1]. Every waveform except the square wave is 0
+         * and rising at a phase of 0.
+         *
+         * @param phase The phase in cycles, in the range [0,1)
+         *
+         * @return the value of this waveform at the given phase
+         */
+        public float evaluate(float phase) {
+            switch (this) {
+                case TRIANGLE:
+                    if (phase < 0.25f) {
+                        return 4*phase;
+                    } else if (phase < 0.75f) {
+                        return 2-4*phase;
+                    }
+                    return 4*phase-4;
+                case SQUARE:
+                    return phase < 0.5f ? 1 : -1;
+                case SAWTOOTH:
+                    return phase < 0.5f ? 2*phase : 2*phase-2;
+                case SINE:
+                default:
+                    return (float)Math.sin( 2*Math.PI*phase );
+            }
+        }
+    }
+
+    /**
+     * Cancels this automation, leaving the parameter at its current value.
+     *
+     * This method has no effect if the automation has already ended.
+     */
+    public void cancel();
+
+    /**
+     * Returns true if this automation has not yet ended.
+     *
+     * @return true if this automation has not yet ended.
+     */
+    public boolean isActive();
+
+    /**
+     * Restarts this automation from the beginning.
+     *
+     * For an envelope, this starts the attack again from the current value. For an
+     * LFO, this resets the phase. This method has no effect if the automation has
+     * already ended.
+     */
+    public void trigger();
+
+    /**
+     * Releases this automation.
+     *
+     * For an envelope, this starts the release from the current value, and the
+     * automation ends when the release reaches the base value. For an LFO, this
+     * returns the parameter to the center value and ends the automation.
+     */
+    public void release();
+
+    /**
+     * Returns the value most recently applied to the parameter.
+     *
+     * @return the value most recently applied to the parameter.
+     */
+    public float getValue();
+
+}
@@ -20,6 +20,12 @@ package edu.cornell.gdiac.audio;
  *  AL_EFFECT_EQUALIZER
  *  AL_EFFECT_EAXREVERB
  *
+ * It also creates {@link FrequencyFilter} objects for the following openAL filters,
+ *
+ *  AL_FILTER_LOWPASS
+ *  AL_FILTER_HIGHPASS
+ *  AL_FILTER_BANDPASS
+ *
  * */
 public interface EffectFactory {
     /**
@@ -1140,4 +1146,152 @@ public interface EffectFactory {
      * @param def the EqualizerDef object to create from
      */
     public void updateEqualizer(EffectFilter Equalizer, EqualizerDef def);
+
+    /**
+     * This class contains definitions for constructing a low-pass filter
+     *
+     * A low-pass filter attenuates the high frequencies of a sound, which muffles it.
+     * This is the cheapest way to simulate an occluded or underwater sound.
+     *
+     * Edit properties of a LowPassDef object then use {@link #createLowPass()} or {@link #updateLowPass(FrequencyFilter, LowPassDef)}
+     * to transfer properties from LowPassDef to the filter object.
+     */
+    public class LowPassDef {
+        /**
+         * This property controls the overall gain of the filter.
+         *
+         * MAX: 1.0f
+         * MIN: 0.0f
+         */
+        public float LOWPASS_GAIN = 1.0f,
+
+        /**
+         * This property controls the gain of the high frequencies (above 5 kHz).
+         *
+         * MAX: 1.0f
+         * MIN: 0.0f
+         */
+        LOWPASS_GAINHF = 1.0f;
+    }
+
+    /**
+     * Create a low-pass filter object based on the LowPassDef object
+     *
+     * @param def the LowPassDef object to create from
+     */
+    public FrequencyFilter createLowPass(LowPassDef def);
+
+    /**
+     * Create default low-pass filter object
+     */
+    public FrequencyFilter createLowPass();
+
+    /**
+     * Update an existing low-pass filter based on the LowPassDef
+     *
+     * @param lowPass the low-pass filter to edit
+     * @param def the LowPassDef object to create from
+     */
+    public void updateLowPass(FrequencyFilter lowPass, LowPassDef def);
+
+    /**
+     * This class contains definitions for constructing a high-pass filter
+     *
+     * A high-pass filter attenuates the low frequencies of a sound, which thins it
+     * (such as for a radio or telephone).
+     *
+     * Edit properties of a HighPassDef object then use {@link #createHighPass()} or {@link #updateHighPass(FrequencyFilter, HighPassDef)}
+     * to transfer properties from HighPassDef to the filter object.
+     */
+    public class HighPassDef {
+        /**
+         * This property controls the overall gain of the filter.
+         *
+         * MAX: 1.0f
+         * MIN: 0.0f
+         */
+        public float HIGHPASS_GAIN = 1.0f,
+
+        /**
+         * This property controls the gain of the low frequencies (below 250 Hz).
+         *
+         * MAX: 1.0f
+         * MIN: 0.0f
+         */
+        HIGHPASS_GAINLF = 1.0f;
+    }
+
+    /**
+     * Create a high-pass filter object based on the HighPassDef object
+     *
+     * @param def the HighPassDef object to create from
+     */
+    public FrequencyFilter createHighPass(HighPassDef def);
+
+    /**
+     * Create default high-pass filter object
+     */
+    public FrequencyFilter createHighPass();
+
+    /**
+     * Update an existing high-pass filter based on the HighPassDef
+     *
+     * @param highPass the high-pass filter to edit
+     * @param def the HighPassDef object to create from
+     */
+    public void updateHighPass(FrequencyFilter highPass, HighPassDef def);
+
+    /**
+     * This class contains definitions for constructing a band-pass filter
+     *
+     * A band-pass filter attenuates both the low and the high frequencies of a sound.
+     *
+     * Edit properties of a BandPassDef object then use {@link #createBandPass()} or {@link #updateBandPass(FrequencyFilter, BandPassDef)}
+     * to transfer properties from BandPassDef to the filter object.
+     */
+    public class BandPassDef {
+        /**
+         * This property controls the overall gain of the filter.
+         *
+         * MAX: 1.0f
+         * MIN: 0.0f
+         */
+        public float BANDPASS_GAIN = 1.0f,
+
+        /**
+         * This property controls the gain of the low frequencies (below 250 Hz).
+         *
+         * MAX: 1.0f
+         * MIN: 0.0f
+         */
+        BANDPASS_GAINLF = 1.0f,
+
+        /**
+         * This property controls the gain of the high frequencies (above 5 kHz).
+         *
+         * MAX: 1.0f
+         * MIN: 0.0f
+         */
+        BANDPASS_GAINHF = 1.0f;
+    }
+
+    /**
+     * Create a band-pass filter object based on the BandPassDef object
+     *
+     * @param def the BandPassDef object to create from
+     */
+    public FrequencyFilter createBandPass(BandPassDef def);
+
+    /**
+     * Create default band-pass filter object
+     */
+    public FrequencyFilter createBandPass();
+
+    /**
+     * Update an existing band-pass filter based on the BandPassDef
+     *
+     * @param bandPass the band-pass filter to edit
+     * @param def the BandPassDef object to create from
+     */
+    public void updateBandPass(FrequencyFilter bandPass, BandPassDef def);
 }
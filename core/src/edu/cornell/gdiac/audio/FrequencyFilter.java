@@ -0,0 +1,30 @@
+/*
+ * FrequencyFilter.java
+ *
+ * This interface is a handle to a frequency filter. Filters shape the tone of a sound
+ * (such as muffling it) without using an auxiliary effect slot.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.audio;
+
+/**
+ * This class represents a frequency filter (low-pass, high-pass, or band-pass) in OpenAL.
+ *
+ * Unlike an {@link EffectFilter}, a filter does not need an auxiliary effect slot,
+ * and costs almost nothing per sound. A filter may be applied to the direct path of a
+ * sound or music instance (such as to muffle an occluded sound), or to the send that
+ * carries one of its effects. Filters are created with an {@link EffectFactory}.
+ *
+ * Filters need to be disposed with {@link #dispose()}
+ *
+ **/
+public interface FrequencyFilter {
+    /**
+     * Dispose the filter and release its resources
+     *
+     * The filter is removed from any sound or music that still uses it.
+     * */
+    void dispose();
+}
@@ -0,0 +1,80 @@
+/*
+ * LayeredSource.java
+ *
+ * This interface is for interactive music built from several synchronized stems (such
+ * as drums, bass, and pads).  The stems are decoded together and mixed in software, so
+ * that they can be played by a single music buffer.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.audio;
+
+/**
+ * This class is an audio source made up of several synchronized layers.
+ *
+ * Adaptive soundtracks are often authored as stems, which are meant to be played at
+ * the same time and faded in and out as the game state changes. Playing each stem in
+ * its own {@link MusicQueue} uses an OpenAL source for each stem, and the stems will
+ * drift out of sync.  Instead, this source decodes all of its layers in lockstep and
+ * mixes them into a single stream.  It can be added to a {@link MusicQueue} like any
+ * other {@link AudioSource}, so the layers are sample-locked at the cost of one voice.
+ *
+ * Each layer has its own volume, which can be changed immediately or ramped over time.
+ * The layers are mixed as they are decoded, so a volume change is heard after the
+ * audio already queued by the music buffer (see {@link MusicQueue#getLatency}).
+ *
+ * All layers must have the same number of channels and sample rate.  The duration of
+ * this source is that of the longest layer; shorter layers are padded with silence.
+ * Disposing this source does not dispose its layers.
+ */
+public interface LayeredSource extends AudioSource {
+
+    /**
+     * Returns the number of layers in this source.
+     *
+     * @return the number of layers in this source.
+     */
+    public int getLayerCount();
+
+    /**
+     * Returns the audio source for the given layer.
+     *
+     * @param layer The layer index
+     *
+     * @return the audio source for the given layer.
+     */
+    public AudioSource getLayer(int layer);
+
+    /**
+     * Sets the volume of the given layer immediately.
+     *
+     * @param layer     The layer index
+     * @param volume    The layer volume in the range [0,1]
+     */
+    public void setLayerVolume(int layer, float volume);
+
+    /**
+     * Ramps the volume of the given layer over the given amount of time.
+     *
+     * The ramp is linear and starts from the volume of the layer at the time the
+     * ramp begins to be mixed.  A ramp of 0 seconds sets the volume immediately.
+     *
+     * @param layer     The layer index
+     * @param volume    The layer volume in the range [0,1]
+     * @param seconds   The length of the ramp in seconds
+     */
+    public void setLayerVolume(int layer, float volume, float seconds);
+
+    /**
+     * Returns the target volume of the given layer.
+     *
+     * If the layer is ramping, this is the volume at the end of the ramp.
+     *
+     * @param layer The layer index
+     *
+     * @return the target volume of the given layer.
+     */
+    public float getLayerVolume(int layer);
+
+}
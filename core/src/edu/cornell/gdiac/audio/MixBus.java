@@ -0,0 +1,152 @@
+/*
+ * MixBus.java
+ *
+ * This interface is a node in the mixing hierarchy of the audio engine. A bus groups
+ * sounds and music so that their volume and effects can be controlled together.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.audio;
+
+/**
+ * This interface represents a mix bus.
+ *
+ * Every {@link SoundEffect} and {@link MusicQueue} is assigned to a bus. Buses form a
+ * tree rooted at the {@link #MASTER} bus. The engine creates the buses {@link #MUSIC},
+ * {@link #SFX}, {@link #UI} and {@link #VOICE} as children of the master bus, and more
+ * buses may be added with {@link AudioEngine#newBus}. By default, sound effects are
+ * assigned to the SFX bus and music to the music bus.
+ *
+ * The volume of a bus multiplies the volume of every bus below it, and of every sound
+ * assigned to them. A bus may also have effects, which are shared by every sound below
+ * the bus. Each effect occupies a single aux slot, no matter how many sounds use it.
+ * Sounds use their own effects first, and bus effects fill the remaining sends (from
+ * the nearest bus up to the master bus).
+ *
+ * Changes to a bus are applied on the next update of the engine, however many changes
+ * are made. This class is not thread-safe, and should only be used in the main
+ * application thread.
+ */
+public interface MixBus {
+    /** The name of the root bus */
+    public static final String MASTER = "master";
+    /** The name of the default bus for music */
+    public static final String MUSIC  = "music";
+    /** The name of the default bus for sound effects */
+    public static final String SFX    = "sfx";
+    /** The name of the bus for interface sounds */
+    public static final String UI     = "ui";
+    /** The name of the bus for dialogue */
+    public static final String VOICE  = "voice";
+
+    /**
+     * Returns the name of this bus.
+     *
+     * @return the name of this bus.
+     */
+    public String getName();
+
+    /**
+     * Returns the parent of this bus (null for the master bus).
+     *
+     * @return the parent of this bus (null for the master bus).
+     */
+    public MixBus getParent();
+
+    /**
+     * Returns the number of buses directly below this one.
+     *
+     * @return the number of buses directly below this one.
+     */
+    public int getChildCount();
+
+    /**
+     * Returns the child bus at the given index.
+     *
+     * @param index The child index
+     *
+     * @return the child bus at the given index.
+     */
+    public MixBus getChild(int index);
+
+    /**
+     * Returns the volume of this bus.
+     *
+     * @return the volume of this bus.
+     */
+    public float getVolume();
+
+    /**
+     * Sets the volume of this bus.
+     *
+     * The volume multiplies the volume of every bus and sound below this one.
+     *
+     * @param volume    The volume of this bus (must be non-negative)
+     */
+    public void setVolume(float volume);
+
+    /**
+     * Returns true if this bus is muted.
+     *
+     * @return true if this bus is muted.
+     */
+    public boolean isMuted();
+
+    /**
+     * Sets whether this bus is muted.
+     *
+     * Muting a bus silences it without changing its volume.
+     *
+     * @param muted Whether this bus is muted
+     */
+    public void setMuted(boolean muted);
+
+    /**
+     * Returns the volume of this bus after the volumes of its parents are applied.
+     *
+     * This value includes any attenuation by a {@link DuckingRule}. It is updated on
+     * the update of the engine.
+     *
+     * @return the volume of this bus after the volumes of its parents are applied.
+     */
+    public float getEffectiveVolume();
+
+    /**
+     * Adds an effect shared by every sound below this bus.
+     *
+     * This method has no effect if the effect is already on this bus.
+     *
+     * @param effect    The effect to add
+     */
+    public void addEffect(EffectFilter effect);
+
+    /**
+     * Removes an effect from this bus.
+     *
+     * @param effect    The effect to remove
+     */
+    public void removeEffect(EffectFilter effect);
+
+    /**
+     * Removes all effects from this bus.
+     */
+    public void clearEffects();
+
+    /**
+     * Returns the number of effects on this bus.
+     *
+     * @return the number of effects on this bus.
+     */
+    public int getEffectCount();
+
+    /**
+     * Returns the effect at the given index.
+     *
+     * @param index The effect index
+     *
+     * @return the effect at the given index.
+     */
+    public EffectFilter getEffect(int index);
+
+}
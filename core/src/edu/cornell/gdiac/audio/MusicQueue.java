@@ -216,6 +216,41 @@ public interface MusicQueue extends Music {
      * Clear all effects on the music playback
      * */
     public void clearAllEffect();
+
+    /**
+     * Sets the filter on the direct path of the music playback
+     *
+     * The direct path is the music heard without any effects.
+     *
+     * @param filter    The filter to apply (null to remove)
+     * */
+    public void setFilter(FrequencyFilter filter);
+
+    /**
+     * Sets the filter on the send carrying the given effect
+     *
+     * The filter only changes the music sent to the effect, not the direct path. This
+     * method has no effect if the music is not played through the effect. The filter is
+     * removed along with the effect.
+     *
+     * @param effect    The effect receiving the send
+     * @param filter    The filter to apply (null to remove)
+     * */
+    public void setFilter(EffectFilter effect, FrequencyFilter filter);
+
+    /**
+     * Returns the mix bus of this music.
+     *
+     * @return the mix bus of this music.
+     */
+    public MixBus getBus();
+
+    /**
+     * Sets the mix bus of this music.
+     *
+     * @param bus   The mix bus of this music (null for the music bus)
+     */
+    public void setBus(MixBus bus);
      
     // #mark Queue Management
     /**
@@ -351,4 +386,248 @@ public interface MusicQueue extends Music {
      */
     public void reset();
 
+    // #mark Loop Regions
+    /**
+     * Sets the loop region for the source at the given queue position.
+     *
+     * A loop region is defined by a start and end marker, measured in sample frames
+     * (samples per channel). When the source loops in place, playback wraps from the
+     * end marker to the start marker instead of from the end of the source to its
+     * beginning. Any audio before the start marker is played only once, so this can
+     * be used for music with an intro. A negative end marker loops at the end of the
+     * source.
+     *
+     * A source loops in place when this buffer is looping and either the loop behavior
+     * is local or the buffer has only one source.  The audio at the start marker is
+     * cached, so wrapping around never needs to reopen the file.
+     *
+     * @param pos   The position in the source queue
+     * @param start The loop start in sample frames
+     * @param end   The loop end in sample frames (or -1 for the end of the source)
+     *
+     * @throws IllegalArgumentException if the markers do not define a valid region
+     */
+    public void setLoopRegion(int pos, long start, long end);
+
+    /**
+     * Removes the loop region for the source at the given queue position.
+     *
+     * The source will loop from the end of the source to its beginning.
+     *
+     * @param pos   The position in the source queue
+     */
+    public void clearLoopRegion(int pos);
+
+    /**
+     * Returns the loop start (in sample frames) for the given queue position.
+     *
+     * This method returns -1 if the source has no loop region.
+     *
+     * @param pos   The position in the source queue
+     *
+     * @return the loop start (in sample frames) for the given queue position.
+     */
+    public long getLoopStart(int pos);
+
+    /**
+     * Returns the loop end (in sample frames) for the given queue position.
+     *
+     * This method returns -1 if the source has no loop region, or if the region
+     * loops at the end of the source.
+     *
+     * @param pos   The position in the source queue
+     *
+     * @return the loop end (in sample frames) for the given queue position.
+     */
+    public long getLoopEnd(int pos);
+
+    // #mark Crossfades
+    /**
+     * Sets the crossfade length for the transition out of the given queue position.
+     *
+     * When the source at this position is about to end, the music buffer starts the
+     * next source early and mixes the two together, fading out the old source while
+     * fading in the new one. This is done in software, so the crossfade still uses
+     * only one OpenAL source. The {@link OnTransitionListener} is notified at the
+     * midpoint of the crossfade.
+     *
+     * There is no crossfade if the source loops in place. A length of 0 (the default)
+     * is a gapless transition.
+     *
+     * @param pos       The position in the source queue
+     * @param seconds   The crossfade length in seconds
+     */
+    public void setCrossfade(int pos, float seconds);
+
+    /**
+     * Returns the crossfade length for the transition out of the given queue position.
+     *
+     * @param pos   The position in the source queue
+     *
+     * @return the crossfade length (in seconds) for the given queue position.
+     */
+    public float getCrossfade(int pos);
+
+    // #mark Buffer Depth
+    /**
+     * Sets the range for the number of buffers queued ahead of playback.
+     *
+     * A music buffer streams its audio by decoding it into a small queue of OpenAL
+     * buffers. If the application stalls long enough for this queue to run dry, the
+     * music stops until the next update. This is called an underrun, and is heard as
+     * a gap in the music. Every underrun grows the queue by one buffer, up to the
+     * given maximum. If the music plays for a while without underruns, the queue
+     * shrinks again, down to the given minimum.
+     *
+     * A deeper queue is more robust, but it takes longer for changes to the queue
+     * (such as {@link #advanceSource}) to be heard. If the minimum and maximum are the
+     * same, the depth of the queue is fixed. The default range is 3 to 8 buffers.
+     *
+     * @param minimum   The minimum number of buffers (at least 2)
+     * @param maximum   The maximum number of buffers (at most 16)
+     *
+     * @throws IllegalArgumentException if the range is not valid
+     */
+    public void setBufferDepth(int minimum, int maximum);
+
+    /**
+     * Returns the number of buffers currently queued ahead of playback.
+     *
+     * This value changes over time as underruns occur.
+     *
+     * @return the number of buffers currently queued ahead of playback.
+     */
+    public int getBufferDepth();
+
+    /**
+     * Returns the minimum number of buffers queued ahead of playback.
+     *
+     * @return the minimum number of buffers queued ahead of playback.
+     */
+    public int getMinimumBufferDepth();
+
+    /**
+     * Returns the maximum number of buffers queued ahead of playback.
+     *
+     * @return the maximum number of buffers queued ahead of playback.
+     */
+    public int getMaximumBufferDepth();
+
+    /**
+     * Returns the number of underruns since this music buffer was created.
+     *
+     * An underrun happens when the music stops because it ran out of decoded audio.
+     *
+     * @return the number of underruns since this music buffer was created.
+     */
+    public int getUnderrunCount();
+
+    /**
+     * Returns the amount of audio (in seconds) queued ahead of playback.
+     *
+     * This is the delay before any change to the source queue can be heard, at the
+     * current buffer depth.
+     *
+     * @return the amount of audio (in seconds) queued ahead of playback.
+     */
+    public float getLatency();
+
+    // #mark Scheduling
+    /**
+     * Starts the play back of this music buffer at the given audio time.
+     *
+     * The audio time is measured by the clock of the audio engine (see
+     * {@link AudioEngine#getAudioTime}). The start is sample-accurate: the music is
+     * started shortly before the given time, preceded by exactly enough silence to
+     * begin at that time. If the time has already passed, the music starts immediately.
+     *
+     * If this music buffer is currently playing, it is stopped and restarted from the
+     * beginning. Until the scheduled start, {@link #isPlaying} returns false. Calling
+     * {@link #stop} cancels the scheduled start.
+     *
+     * @param audioTime The audio time (in seconds) to start play back
+     */
+    public void playAt(double audioTime);
+
+    /**
+     * Returns true if this music buffer is waiting for a scheduled start.
+     *
+     * @return true if this music buffer is waiting for a scheduled start.
+     */
+    public boolean isScheduled();
+
+    // #mark Ramps
+    /**
+     * Ramps the volume of this music buffer to a target value.
+     *
+     * The ramp is performed by the audio engine on each update, starting from the
+     * current volume. It changes the volume reported by {@link #getVolume}. Starting
+     * another volume ramp (or fade) cancels this one.
+     *
+     * @param volume    The target volume in the range [0,1]
+     * @param seconds   The length of the ramp in seconds
+     * @param curve     The shape of the ramp (null for linear)
+     * @param listener  The listener to notify when the ramp ends (may be null)
+     *
+     * @return the active ramp
+     */
+    public AudioRamp rampVolume(float volume, float seconds,
+                                AudioRamp.Curve curve, AudioRamp.Listener listener);
+
+    /**
+     * Ramps the pitch of this music buffer to a target value.
+     *
+     * The ramp is performed by the audio engine on each update, starting from the
+     * current pitch. Starting another pitch ramp cancels this one.
+     *
+     * @param pitch     The target pitch multiplier in the range [0.5, 2.0]
+     * @param seconds   The length of the ramp in seconds
+     * @param curve     The shape of the ramp (null for linear)
+     * @param listener  The listener to notify when the ramp ends (may be null)
+     *
+     * @return the active ramp
+     */
+    public AudioRamp rampPitch(float pitch, float seconds,
+                               AudioRamp.Curve curve, AudioRamp.Listener listener);
+
+    /**
+     * Ramps the pan of this music buffer to a target value.
+     *
+     * The ramp is performed by the audio engine on each update, starting from the
+     * current pan. Starting another pan ramp cancels this one.
+     *
+     * @param pan       The target pan value -1 (left) to 1 (right)
+     * @param seconds   The length of the ramp in seconds
+     * @param curve     The shape of the ramp (null for linear)
+     * @param listener  The listener to notify when the ramp ends (may be null)
+     *
+     * @return the active ramp
+     */
+    public AudioRamp rampPan(float pan, float seconds,
+                             AudioRamp.Curve curve, AudioRamp.Listener listener);
+
+    /**
+     * Starts the play back of this music buffer, fading in from silence.
+     *
+     * The fade is an S-curve volume ramp to the current volume.
+     *
+     * @param seconds   The length of the fade in seconds
+     *
+     * @return the active ramp
+     */
+    public AudioRamp fadeIn(float seconds);
+
+    /**
+     * Fades out this music buffer, and stops it at the end of the fade.
+     *
+     * The fade is an S-curve volume ramp to silence. When the fade completes, the
+     * music is stopped and its volume is restored to the value before the fade.
+     * Cancelling the ramp leaves the music playing at the current volume.
+     *
+     * @param seconds   The length of the fade in seconds
+     *
+     * @return the active ramp
+     */
+    public AudioRamp stopWithFade(float seconds);
+
 }
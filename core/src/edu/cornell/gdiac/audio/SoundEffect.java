@@ -217,4 +217,226 @@ public interface SoundEffect extends Sound {
 
     public void removeEffect(long soundId, EffectFilter effect);
 
+    /**
+     * Sets the filter on the direct path of the given instance.
+     *
+     * The direct path is the sound heard without any effects. A low-pass filter on
+     * this path is a cheap way to muffle an occluded sound. If the sound id is not
+     * valid, this method has no effect. The filter is removed when the instance stops.
+     *
+     * @param soundId   The playback instance
+     * @param filter    The filter to apply (null to remove)
+     */
+    public void setFilter(long soundId, FrequencyFilter filter);
+
+    /**
+     * Sets the filter on the send carrying the given effect of the given instance.
+     *
+     * The filter only changes the sound sent to the effect, not the direct path. If
+     * the sound id is not valid, or the instance is not played through the effect,
+     * this method has no effect. The filter is removed along with the effect.
+     *
+     * @param soundId   The playback instance
+     * @param effect    The effect receiving the send
+     * @param filter    The filter to apply (null to remove)
+     */
+    public void setFilter(long soundId, EffectFilter effect, FrequencyFilter filter);
+
+    /**
+     * Returns the mix bus of this sound.
+     *
+     * @return the mix bus of this sound.
+     */
+    public MixBus getBus();
+
+    /**
+     * Sets the mix bus of this sound.
+     *
+     * Active instances are moved to the new bus immediately.
+     *
+     * @param bus   The mix bus of this sound (null for the SFX bus)
+     */
+    public void setBus(MixBus bus);
+
+    // #mark -
+    // #mark Scheduling
+    /**
+     * Plays an instance of this sound at the given audio time.
+     *
+     * The audio time is measured by the clock of the audio engine (see
+     * {@link AudioEngine#getAudioTime}). The start is sample-accurate: the instance is
+     * started shortly before the given time, preceded by exactly enough silence to
+     * begin at that time. If the time has already passed, the sound plays immediately.
+     *
+     * The instance claims an OpenAL source as soon as this method is called, and it
+     * is considered to be playing until it finishes.  Scheduled instances are never
+     * coalesced (see {@link #setCoalesceWindow}), and may not be looped.
+     *
+     * @param audioTime The audio time (in seconds) to start the sound
+     *
+     * @return the id of the sound instance if successful, or -1 on failure.
+     */
+    public long playAt(double audioTime);
+
+    /**
+     * Plays an instance of this sound at the given audio time and volume.
+     *
+     * The audio time is measured by the clock of the audio engine (see
+     * {@link AudioEngine#getAudioTime}). The start is sample-accurate: the instance is
+     * started shortly before the given time, preceded by exactly enough silence to
+     * begin at that time. If the time has already passed, the sound plays immediately.
+     *
+     * The instance claims an OpenAL source as soon as this method is called, and it
+     * is considered to be playing until it finishes.  Scheduled instances are never
+     * coalesced (see {@link #setCoalesceWindow}), and may not be looped.
+     *
+     * @param audioTime The audio time (in seconds) to start the sound
+     * @param volume    The volume in the range [0,1]
+     *
+     * @return the id of the sound instance if successful, or -1 on failure.
+     */
+    public long playAt(double audioTime, float volume);
+
+    // #mark -
+    // #mark Coalescing
+    /**
+     * Sets the coalescing window of this sound in milliseconds.
+     *
+     * When many identical triggers happen at once (such as thirty enemies dying in
+     * the same frame), playing each of them wastes OpenAL sources on what is heard
+     * as a single, louder sound. If the window is positive, any call to a play method
+     * within this many milliseconds of the instance that started the window does not
+     * start a new instance. Instead, it raises the gain of that instance and returns
+     * its sound id. The combined gain is the root of the summed squared volumes (the
+     * power sum of uncorrelated sounds), capped by {@link #setCoalesceLimit}.
+     *
+     * Looping instances are never coalesced. A window of 0 (the default) disables
+     * coalescing.
+     *
+     * @param millis    The coalescing window in milliseconds
+     */
+    public void setCoalesceWindow(float millis);
+
+    /**
+     * Returns the coalescing window of this sound in milliseconds.
+     *
+     * A window of 0 means that coalescing is disabled.
+     *
+     * @return the coalescing window of this sound in milliseconds.
+     */
+    public float getCoalesceWindow();
+
+    /**
+     * Sets the maximum gain of a coalesced instance.
+     *
+     * The default is 1. Values above 1 allow a coalesced instance to be louder than
+     * any single play of this sound. While coalescing is enabled, this also caps the
+     * instance that starts each window.
+     *
+     * @param gain  The maximum gain of a coalesced instance
+     */
+    public void setCoalesceLimit(float gain);
+
+    /**
+     * Returns the maximum gain of a coalesced instance.
+     *
+     * @return the maximum gain of a coalesced instance.
+     */
+    public float getCoalesceLimit();
+
+    // #mark -
+    // #mark Ramps
+    /**
+     * Ramps the volume of the given instance to a target value.
+     *
+     * The ramp is performed by the audio engine on each update, starting from the
+     * current volume of the instance. Starting another volume ramp on this instance
+     * cancels this one. The ramp ends early (without completing) if the instance stops.
+     *
+     * The sound id should be one given by {@link #play()} or {@link #play(float)}.
+     * If the sound id is not valid, this method returns null.
+     *
+     * @param soundId   The playback instance
+     * @param volume    The target volume in the range [0,1]
+     * @param seconds   The length of the ramp in seconds
+     * @param curve     The shape of the ramp (null for linear)
+     * @param listener  The listener to notify when the ramp ends (may be null)
+     *
+     * @return the active ramp, or null if the sound id is not valid
+     */
+    public AudioRamp rampVolume(long soundId, float volume, float seconds,
+                                AudioRamp.Curve curve, AudioRamp.Listener listener);
+
+    /**
+     * Ramps the pitch of the given instance to a target value.
+     *
+     * The ramp is performed by the audio engine on each update, starting from the
+     * current pitch of the instance. Starting another pitch ramp on this instance
+     * cancels this one. The ramp ends early (without completing) if the instance stops.
+     *
+     * The sound id should be one given by {@link #play()} or {@link #play(float)}.
+     * If the sound id is not valid, this method returns null.
+     *
+     * @param soundId   The playback instance
+     * @param pitch     The target pitch multiplier in the range [0.5, 2.0]
+     * @param seconds   The length of the ramp in seconds
+     * @param curve     The shape of the ramp (null for linear)
+     * @param listener  The listener to notify when the ramp ends (may be null)
+     *
+     * @return the active ramp, or null if the sound id is not valid
+     */
+    public AudioRamp rampPitch(long soundId, float pitch, float seconds,
+                               AudioRamp.Curve curve, AudioRamp.Listener listener);
+
+    /**
+     * Ramps the pan of the given instance to a target value.
+     *
+     * The ramp is performed by the audio engine on each update, starting from the
+     * current pan of the instance. Starting another pan ramp on this instance cancels
+     * this one. The ramp ends early (without completing) if the instance stops.
+     *
+     * The sound id should be one given by {@link #play()} or {@link #play(float)}.
+     * If the sound id is not valid, this method returns null.
+     *
+     * @param soundId   The playback instance
+     * @param pan       The target pan value -1 (left) to 1 (right)
+     * @param seconds   The length of the ramp in seconds
+     * @param curve     The shape of the ramp (null for linear)
+     * @param listener  The listener to notify when the ramp ends (may be null)
+     *
+     * @return the active ramp, or null if the sound id is not valid
+     */
+    public AudioRamp rampPan(long soundId, float pan, float seconds,
+                             AudioRamp.Curve curve, AudioRamp.Listener listener);
+
+    /**
+     * Plays an instance of this sound, fading in from silence.
+     *
+     * The fade is an S-curve volume ramp to the given volume. If the play is
+     * coalesced with an existing instance (see {@link #setCoalesceWindow}), there
+     * is no fade.
+     *
+     * @param volume    The final volume in the range [0,1]
+     * @param seconds   The length of the fade in seconds
+     *
+     * @return the id of the sound instance if successful, or -1 on failure.
+     */
+    public long fadeIn(float volume, float seconds);
+
+    /**
+     * Fades out the given instance, and stops it at the end of the fade.
+     *
+     * The fade is an S-curve volume ramp to silence. The instance is only stopped
+     * if the ramp completes; cancelling the ramp leaves the instance playing.
+     *
+     * The sound id should be one given by {@link #play()} or {@link #play(float)}.
+     * If the sound id is not valid, this method returns null.
+     *
+     * @param soundId   The playback instance
+     * @param seconds   The length of the fade in seconds
+     *
+     * @return the active ramp, or null if the sound id is not valid
+     */
+    public AudioRamp stopWithFade(long soundId, float seconds);
+
 }
@@ -0,0 +1,376 @@
+/*
+ * SoundGroup.java
+ *
+ * This class is a collection of interchangeable sound effects, such as the variations
+ * of a footstep.  It chooses a variation on each play, and limits how often and how
+ * many times the group can be heard at once.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.audio;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * This class plays a variation from a group of sound effects.
+ *
+ * Every call to {@link #play} chooses one of the variants of this group. The variant
+ * is either chosen at random, or from a shuffle bag (which plays every variant once
+ * in a random order before repeating any of them). The group tracks the instances
+ * that it has started.  If the group has a concurrency cap, playing a new instance
+ * when the cap is reached stops the oldest instance of the group.  If the group has a
+ * cooldown, calls to {@link #play} within the cooldown of the last successful play
+ * are ignored.
+ *
+ * The sound effects in a group are not owned by the group, and may be shared by other
+ * groups. Disposing of them is the responsibility of the caller (or asset manager).
+ *
+ * Like {@link SoundEffect}, this class is not thread-safe, and should only be used in
+ * the main application thread.
+ */
+public class SoundGroup {
+    /**
+     * The strategy for choosing the next variant
+     */
+    public enum Selection {
+        /** Choose a variant uniformly at random (repeats are possible) */
+        RANDOM,
+        /** Play every variant once, in a random order, before repeating any */
+        SHUFFLE
+    }
+
+    /** The variants of this group */
+    private final Array<SoundEffect> variants;
+    /** The strategy for choosing the next variant */
+    private Selection selection;
+    /** The maximum number of simultaneous instances (0 for no limit) */
+    private int maxInstances;
+    /** The minimum time between plays in seconds */
+    private float cooldown;
+
+    /** The remaining variants in the shuffle bag */
+    private final IntArray bag;
+    /** The most recently played variant (or -1 if none) */
+    private int lastVariant;
+    /** The time of the last successful play in nanoseconds */
+    private long lastPlay;
+    /** Whether this group has ever been played */
+    private boolean played;
+
+    /** The sound effect of each active instance, from oldest to newest */
+    private final Array<SoundEffect> activeSounds;
+    /** The sound id of each active instance, from oldest to newest */
+    private final LongArray activeIds;
+
+    /**
+     * Creates an empty sound group with random selection and no limits.
+     */
+    public SoundGroup() {
+        variants = new Array<SoundEffect>();
+        selection = Selection.RANDOM;
+        bag = new IntArray();
+        activeSounds = new Array<SoundEffect>();
+        activeIds = new LongArray();
+        lastVariant = -1;
+    }
+
+    /**
+     * Creates a sound group with the given variants, random selection, and no limits.
+     *
+     * @param variants  The variants of this group
+     */
+    public SoundGroup(SoundEffect... variants) {
+        this();
+        for(SoundEffect sound : variants) {
+            addVariant( sound );
+        }
+    }
+
+    // #mark Variants
+    /**
+     * Adds a variant to this group.
+     *
+     * @param sound The sound effect to add
+     */
+    public void addVariant(SoundEffect sound) {
+        if (sound == null) {
+            throw new IllegalArgumentException( "Sound variant cannot be null" );
+        }
+        variants.add( sound );
+        bag.clear();
+    }
+
+    /**
+     * Removes a variant from this group.
+     *
+     * Any active instances of this variant are not stopped.
+     *
+     * @param sound The sound effect to remove
+     *
+     * @return true if the variant was in this group
+     */
+    public boolean removeVariant(SoundEffect sound) {
+        int index = variants.indexOf( sound, true );
+        if (index == -1) {
+            return false;
+        }
+        variants.removeIndex( index );
+        bag.clear();
+        lastVariant = -1;
+        return true;
+    }
+
+    /**
+     * Returns the number of variants in this group.
+     *
+     * @return the number of variants in this group.
+     */
+    public int getVariantCount() {
+        return variants.size;
+    }
+
+    /**
+     * Returns the variant at the given index.
+     *
+     * @param index The variant index
+     *
+     * @return the variant at the given index.
+     */
+    public SoundEffect getVariant(int index) {
+        return variants.get( index );
+    }
+
+    /**
+     * Returns the strategy for choosing the next variant.
+     *
+     * @return the strategy for choosing the next variant.
+     */
+    public Selection getSelection() {
+        return selection;
+    }
+
+    /**
+     * Sets the strategy for choosing the next variant.
+     *
+     * @param selection The strategy for choosing the next variant.
+     */
+    public void setSelection(Selection selection) {
+        if (selection == null) {
+            throw new IllegalArgumentException( "Selection cannot be null" );
+        }
+        this.selection = selection;
+        bag.clear();
+    }
+
+    // #mark Limits
+    /**
+     * Returns the maximum number of simultaneous instances (0 for no limit).
+     *
+     * @return the maximum number of simultaneous instances (0 for no limit).
+     */
+    public int getMaxInstances() {
+        return maxInstances;
+    }
+
+    /**
+     * Sets the maximum number of simultaneous instances (0 for no limit).
+     *
+     * When the limit is reached, a play that starts a new instance stops the oldest
+     * instance of this group. A play that fails, or that is coalesced into an active
+     * instance, stops nothing. If the limit is lowered below the number of active
+     * instances, the extra instances are not stopped until the next new instance.
+     *
+     * @param maxInstances  The maximum number of simultaneous instances
+     */
+    public void setMaxInstances(int maxInstances) {
+        if (maxInstances < 0) {
+            throw new IllegalArgumentException( "Instance limit cannot be negative" );
+        }
+        this.maxInstances = maxInstances;
+    }
+
+    /**
+     * Returns the minimum time between plays in seconds.
+     *
+     * @return the minimum time between plays in seconds.
+     */
+    public float getCooldown() {
+        return cooldown;
+    }
+
+    /**
+     * Sets the minimum time between plays in seconds.
+     *
+     * Calls to {@link #play} within this time of the last successful play are ignored.
+     *
+     * @param seconds   The minimum time between plays in seconds.
+     */
+    public void setCooldown(float seconds) {
+        if (seconds < 0) {
+            throw new IllegalArgumentException( "Cooldown cannot be negative" );
+        }
+        cooldown = seconds;
+    }
+
+    // #mark Playback
+    /**
+     * Plays a variant of this group.
+     *
+     * @return the sound id of the instance, or -1 if the group did not play.
+     */
+    public long play() {
+        return play( 1.0f, 1.0f, 0.0f );
+    }
+
+    /**
+     * Plays a variant of this group at the given volume.
+     *
+     * @param volume    The volume in the range [0,1]
+     *
+     * @return the sound id of the instance, or -1 if the group did not play.
+     */
+    public long play(float volume) {
+        return play( volume, 1.0f, 0.0f );
+    }
+
+    /**
+     * Plays a variant of this group with the given settings.
+     *
+     * This method returns -1 if the group has no variants, if it is still within its
+     * cooldown, or if the variant could not be played.  The sound id returned belongs
+     * to the variant, which may be retrieved with {@link #getSound}.
+     *
+     * @param volume    The volume in the range [0,1]
+     * @param pitch     The pitch in the range [0.5, 2.0]
+     * @param pan       The pan value -1 (left) to 1 (right). Use 0 for center.
+     *
+     * @return the sound id of the instance, or -1 if the group did not play.
+     */
+    public long play(float volume, float pitch, float pan) {
+        if (variants.size == 0) {
+            return -1;
+        }
+
+        long now = TimeUtils.nanoTime();
+        if (played && cooldown > 0 && (now-lastPlay) < (long)(cooldown*1000000000.0)) {
+            return -1;
+        }
+
+        prune();
+        int index = nextVariant();
+        SoundEffect sound = variants.get( index );
+        long soundId = sound.play( volume, pitch, pan );
+        if (soundId != -1) {
+            // A coalesced play returns an instance that may already be tracked
+            if (getSound( soundId ) != sound) {
+                activeSounds.add( sound );
+                activeIds.add( soundId );
+                // Only a new instance may push out the oldest one
+                while (maxInstances > 0 && activeIds.size > maxInstances) {
+                    activeSounds.removeIndex( 0 ).stop( activeIds.removeIndex( 0 ) );
+                }
+            }
+            lastVariant = index;
+            lastPlay = now;
+            played = true;
+        }
+        return soundId;
+    }
+
+    /**
+     * Stops all active instances of this group.
+     */
+    public void stop() {
+        for(int ii = 0; ii < activeIds.size; ii++) {
+            activeSounds.get( ii ).stop( activeIds.get( ii ) );
+        }
+        activeSounds.clear();
+        activeIds.clear();
+    }
+
+    /**
+     * Stops the given instance of this group.
+     *
+     * This method has no effect if the instance is not active.
+     *
+     * @param soundId   The sound id of the instance
+     */
+    public void stop(long soundId) {
+        int index = activeIds.indexOf( soundId );
+        if (index != -1) {
+            activeSounds.removeIndex( index ).stop( activeIds.removeIndex( index ) );
+        }
+    }
+
+    /**
+     * Returns the sound effect playing the given instance.
+     *
+     * This can be used to control the instance (such as changing its volume). This
+     * method returns null if the instance is not active.
+     *
+     * @param soundId   The sound id of the instance
+     *
+     * @return the sound effect playing the given instance.
+     */
+    public SoundEffect getSound(long soundId) {
+        int index = activeIds.indexOf( soundId );
+        return index == -1 ? null : activeSounds.get( index );
+    }
+
+    /**
+     * Returns the number of instances of this group that are still playing.
+     *
+     * @return the number of instances of this group that are still playing.
+     */
+    public int getInstanceCount() {
+        prune();
+        return activeIds.size;
+    }
+
+    /**
+     * Removes all instances that are no longer playing.
+     */
+    private void prune() {
+        for(int ii = activeIds.size-1; ii >= 0; ii--) {
+            if (!activeSounds.get( ii ).isPlaying( activeIds.get( ii ) )) {
+                activeSounds.removeIndex( ii );
+                activeIds.removeIndex( ii );
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the next variant to play.
+     *
+     * @return the index of the next variant to play.
+     */
+    private int nextVariant() {
+        int size = variants.size;
+        if (size == 1) {
+            return 0;
+        }
+
+        switch (selection) {
+            case SHUFFLE:
+                if (bag.size == 0) {
+                    for(int ii = 0; ii < size; ii++) {
+                        bag.add( ii );
+                    }
+                    bag.shuffle();
+                    // Do not repeat the last variant across a refill
+                    if (bag.peek() == lastVariant) {
+                        bag.swap( 0, bag.size-1 );
+                    }
+                }
+                return bag.pop();
+            case RANDOM:
+            default:
+                return MathUtils.random( size-1 );
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * AudioRampTest.java
+ *
+ * Unit tests for the interpolation curves of parameter ramps.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.audio;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link AudioRamp.Curve}.
+ */
+public class AudioRampTest {
+    /** The tolerance for float comparisons */
+    private static final float EPSILON = 1e-5f;
+
+    @Test
+    public void everyCurveHitsItsEnds() {
+        for(AudioRamp.Curve curve : AudioRamp.Curve.values()) {
+            assertEquals( curve.name(), 0.2f, curve.interpolate( 0.2f, 0.9f, 0 ), 0 );
+            assertEquals( curve.name(), 0.9f, curve.interpolate( 0.2f, 0.9f, 1 ), 0 );
+        }
+    }
+
+    @Test
+    public void progressIsClamped() {
+        for(AudioRamp.Curve curve : AudioRamp.Curve.values()) {
+            assertEquals( curve.name(), 0.2f, curve.interpolate( 0.2f, 0.9f, -0.5f ), 0 );
+            assertEquals( curve.name(), 0.9f, curve.interpolate( 0.2f, 0.9f, 1.5f ), 0 );
+        }
+    }
+
+    @Test
+    public void linearIsProportional() {
+        AudioRamp.Curve curve = AudioRamp.Curve.LINEAR;
+        assertEquals( 0.5f, curve.interpolate( 0, 1, 0.5f ), EPSILON );
+        assertEquals( 0.25f, curve.interpolate( 1, 0, 0.75f ), EPSILON );
+        assertEquals( -0.5f, curve.interpolate( -1, 1, 0.25f ), EPSILON );
+    }
+
+    @Test
+    public void exponentialIsLinearInDecibels() {
+        AudioRamp.Curve curve = AudioRamp.Curve.EXPONENTIAL;
+        // Halfway between 1 and 0.01 (-40 dB) is 0.1 (-20 dB)
+        assertEquals( 0.1f, curve.interpolate( 1, 0.01f, 0.5f ), EPSILON );
+        assertEquals( 0.1f, curve.interpolate( 0.01f, 1, 0.5f ), EPSILON );
+        assertEquals( 2.0f, curve.interpolate( 1, 4, 0.5f ), EPSILON );
+    }
+
+    @Test
+    public void exponentialTreatsZeroAsTheFloor() {
+        AudioRamp.Curve curve = AudioRamp.Curve.EXPONENTIAL;
+        // Zero is treated as -60 dB, so halfway to 1 is -30 dB
+        float expected = (float)Math.sqrt( 0.001 );
+        assertEquals( expected, curve.interpolate( 0, 1, 0.5f ), EPSILON );
+        assertEquals( expected, curve.interpolate( 1, 0, 0.5f ), EPSILON );
+        // The ends are still exact
+        assertEquals( 0, curve.interpolate( 1, 0, 1 ), 0 );
+        assertEquals( 0, curve.interpolate( 0, 1, 0 ), 0 );
+    }
+
+    @Test
+    public void exponentialIsLinearWithNegativeEnds() {
+        AudioRamp.Curve curve = AudioRamp.Curve.EXPONENTIAL;
+        assertEquals( 0, curve.interpolate( -1, 1, 0.5f ), EPSILON );
+        assertEquals( -0.5f, curve.interpolate( 0, -1, 0.5f ), EPSILON );
+        assertEquals( 0.25f, curve.interpolate( -0.5f, 0.5f, 0.75f ), EPSILON );
+    }
+
+    @Test
+    public void exponentialIsMonotonic() {
+        AudioRamp.Curve curve = AudioRamp.Curve.EXPONENTIAL;
+        float last = curve.interpolate( 1, 0, 0 );
+        for(int ii = 1; ii <= 100; ii++) {
+            float value = curve.interpolate( 1, 0, ii/100.0f );
+            assertTrue( "Step "+ii, value <= last );
+            last = value;
+        }
+    }
+
+    @Test
+    public void scurveIsSymmetric() {
+        AudioRamp.Curve curve = AudioRamp.Curve.SCURVE;
+        assertEquals( 0.5f, curve.interpolate( 0, 1, 0.5f ), EPSILON );
+        for(int ii = 1; ii < 10; ii++) {
+            float t = ii/20.0f;
+            float low  = curve.interpolate( 0, 1, t );
+            float high = curve.interpolate( 0, 1, 1-t );
+            assertEquals( 1, low+high, EPSILON );
+        }
+    }
+
+    @Test
+    public void scurveStartsAndEndsSlowly() {
+        AudioRamp.Curve curve = AudioRamp.Curve.SCURVE;
+        float linear = AudioRamp.Curve.LINEAR.interpolate( 0, 1, 0.1f );
+        assertTrue( curve.interpolate( 0, 1, 0.1f ) < linear );
+        assertTrue( curve.interpolate( 0, 1, 0.9f ) > 1-linear );
+    }
+}
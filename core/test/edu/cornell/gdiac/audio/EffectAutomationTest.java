@@ -0,0 +1,84 @@
+/*
+ * EffectAutomationTest.java
+ *
+ * Unit tests for the low frequency oscillator shapes of effect automation.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.audio;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link EffectAutomation.Waveform}.
+ */
+public class EffectAutomationTest {
+    /** The tolerance for float comparisons */
+    private static final float EPSILON = 1e-5f;
+
+    @Test
+    public void everyWaveformStaysInRange() {
+        for(EffectAutomation.Waveform wave : EffectAutomation.Waveform.values()) {
+            for(int ii = 0; ii < 1000; ii++) {
+                float value = wave.evaluate( ii/1000.0f );
+                assertTrue( wave+" at "+ii, value >= -1-EPSILON && value <= 1+EPSILON );
+            }
+        }
+    }
+
+    @Test
+    public void sineQuarterPoints() {
+        EffectAutomation.Waveform wave = EffectAutomation.Waveform.SINE;
+        assertEquals( 0, wave.evaluate( 0 ), EPSILON );
+        assertEquals( 1, wave.evaluate( 0.25f ), EPSILON );
+        assertEquals( 0, wave.evaluate( 0.5f ), EPSILON );
+        assertEquals( -1, wave.evaluate( 0.75f ), EPSILON );
+    }
+
+    @Test
+    public void triangleQuarterPoints() {
+        EffectAutomation.Waveform wave = EffectAutomation.Waveform.TRIANGLE;
+        assertEquals( 0, wave.evaluate( 0 ), EPSILON );
+        assertEquals( 0.5f, wave.evaluate( 0.125f ), EPSILON );
+        assertEquals( 1, wave.evaluate( 0.25f ), EPSILON );
+        assertEquals( 0, wave.evaluate( 0.5f ), EPSILON );
+        assertEquals( -1, wave.evaluate( 0.75f ), EPSILON );
+        assertEquals( -0.5f, wave.evaluate( 0.875f ), EPSILON );
+    }
+
+    @Test
+    public void triangleIsContinuous() {
+        EffectAutomation.Waveform wave = EffectAutomation.Waveform.TRIANGLE;
+        float last = wave.evaluate( 0 );
+        for(int ii = 1; ii < 1000; ii++) {
+            float value = wave.evaluate( ii/1000.0f );
+            assertEquals( "Step "+ii, last, value, 0.0041f );
+            last = value;
+        }
+        // The end of the cycle meets the start of the next
+        assertEquals( wave.evaluate( 0 ), last, 0.0041f );
+    }
+
+    @Test
+    public void squareSwitchesAtHalf() {
+        EffectAutomation.Waveform wave = EffectAutomation.Waveform.SQUARE;
+        assertEquals( 1, wave.evaluate( 0 ), 0 );
+        assertEquals( 1, wave.evaluate( 0.4999f ), 0 );
+        assertEquals( -1, wave.evaluate( 0.5f ), 0 );
+        assertEquals( -1, wave.evaluate( 0.9999f ), 0 );
+    }
+
+    @Test
+    public void sawtoothRisesThenDrops() {
+        EffectAutomation.Waveform wave = EffectAutomation.Waveform.SAWTOOTH;
+        assertEquals( 0, wave.evaluate( 0 ), EPSILON );
+        assertEquals( 0.5f, wave.evaluate( 0.25f ), EPSILON );
+        assertEquals( 1, wave.evaluate( 0.4999f ), 1e-3f );
+        assertEquals( -1, wave.evaluate( 0.5f ), EPSILON );
+        assertEquals( -0.5f, wave.evaluate( 0.75f ), EPSILON );
+        assertTrue( wave.evaluate( 0.9999f ) < 0 );
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * SoundGroupTest.java
+ *
+ * Unit tests for variant selection, instance caps and cooldowns of sound groups.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.audio;
+
+import com.badlogic.gdx.utils.LongArray;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SoundGroup}.
+ *
+ * The variants are stand-ins for engine sounds, so these tests need no audio device.
+ */
+public class SoundGroupTest {
+
+    /**
+     * This class records the plays of a stand-in sound effect.
+     */
+    private static class FakeSound implements InvocationHandler {
+        /** The next sound id to return */
+        private static long nextId = 1;
+        /** The instances still playing */
+        final LongArray playing = new LongArray();
+        /** The instances stopped by the group */
+        final LongArray stopped = new LongArray();
+        /** The number of calls to play */
+        int plays;
+        /** Whether plays fail */
+        boolean fail;
+        /** Whether plays are coalesced into the newest instance */
+        boolean coalesce;
+        /** The sound effect backed by this handler */
+        final SoundEffect sound;
+
+        FakeSound() {
+            sound = (SoundEffect)Proxy.newProxyInstance( SoundEffect.class.getClassLoader(),
+                                                         new Class<?>[] { SoundEffect.class }, this );
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            if (name.equals( "play" )) {
+                plays++;
+                if (fail) {
+                    return -1L;
+                } else if (coalesce && playing.size > 0) {
+                    return playing.peek();
+                }
+                long id = nextId++;
+                playing.add( id );
+                return id;
+            } else if (name.equals( "isPlaying" ) && args != null && args.length == 1) {
+                return playing.contains( (Long)args[0] );
+            } else if (name.equals( "stop" ) && args != null && args.length == 1) {
+                long id = (Long)args[0];
+                playing.removeValue( id );
+                stopped.add( id );
+                return null;
+            } else if (name.equals( "equals" )) {
+                return proxy == args[0];
+            } else if (name.equals( "hashCode" )) {
+                return System.identityHashCode( proxy );
+            } else if (name.equals( "toString" )) {
+                return "FakeSound";
+            }
+            Class<?> type = method.getReturnType();
+            if (type == boolean.class) {
+                return false;
+            } else if (type == long.class) {
+                return 0L;
+            } else if (type == int.class) {
+                return 0;
+            } else if (type == float.class) {
+                return 0.0f;
+            } else if (type == double.class) {
+                return 0.0;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns the index of the variant that played the given instance
+     *
+     * @param group     The sound group
+     * @param soundId   The sound id
+     *
+     * @return the index of the variant that played the given instance
+     */
+    private static int variantOf(SoundGroup group, long soundId) {
+        SoundEffect sound = group.getSound( soundId );
+        for(int ii = 0; ii < group.getVariantCount(); ii++) {
+            if (group.getVariant( ii ) == sound) {
+                return ii;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a group of the given number of stand-in variants
+     *
+     * @param fakes The array to receive the stand-ins
+     *
+     * @return a group of the given number of stand-in variants
+     */
+    private static SoundGroup groupOf(FakeSound[] fakes) {
+        SoundGroup group = new SoundGroup();
+        for(int ii = 0; ii < fakes.length; ii++) {
+            fakes[ii] = new FakeSound();
+            group.addVariant( fakes[ii].sound );
+        }
+        return group;
+    }
+
+    @Test
+    public void emptyGroupDoesNotPlay() {
+        assertEquals( -1, new SoundGroup().play() );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNullVariant() {
+        new SoundGroup().addVariant( null );
+    }
+
+    @Test
+    public void shufflePlaysEveryVariantOncePerBag() {
+        FakeSound[] fakes = new FakeSound[5];
+        SoundGroup group = groupOf( fakes );
+        group.setSelection( SoundGroup.Selection.SHUFFLE );
+        for(int bag = 0; bag < 20; bag++) {
+            boolean[] seen = new boolean[fakes.length];
+            for(int ii = 0; ii < fakes.length; ii++) {
+                int index = variantOf( group, group.play() );
+                assertFalse( "Variant "+index+" repeated in bag "+bag, seen[index] );
+                seen[index] = true;
+            }
+        }
+    }
+
+    @Test
+    public void shuffleNeverRepeatsAcrossRefills() {
+        FakeSound[] fakes = new FakeSound[3];
+        SoundGroup group = groupOf( fakes );
+        group.setSelection( SoundGroup.Selection.SHUFFLE );
+        int last = -1;
+        for(int ii = 0; ii < 300; ii++) {
+            int index = variantOf( group, group.play() );
+            assertNotEquals( "Repeat at play "+ii, last, index );
+            last = index;
+        }
+    }
+
+    @Test
+    public void shuffleWithTwoVariantsAlternates() {
+        FakeSound[] fakes = new FakeSound[2];
+        SoundGroup group = groupOf( fakes );
+        group.setSelection( SoundGroup.Selection.SHUFFLE );
+        int last = variantOf( group, group.play() );
+        for(int ii = 0; ii < 50; ii++) {
+            int index = variantOf( group, group.play() );
+            assertEquals( 1-last, index );
+            last = index;
+        }
+    }
+
+    @Test
+    public void randomUsesEveryVariant() {
+        FakeSound[] fakes = new FakeSound[3];
+        SoundGroup group = groupOf( fakes );
+        for(int ii = 0; ii < 300; ii++) {
+            group.play();
+        }
+        for(FakeSound fake : fakes) {
+            assertTrue( fake.plays > 0 );
+        }
+    }
+
+    @Test
+    public void capStopsTheOldestInstance() {
+        FakeSound[] fakes = new FakeSound[1];
+        SoundGroup group = groupOf( fakes );
+        group.setMaxInstances( 2 );
+        long first  = group.play();
+        long second = group.play();
+        long third  = group.play();
+        assertEquals( 2, group.getInstanceCount() );
+        assertEquals( 1, fakes[0].stopped.size );
+        assertEquals( first, fakes[0].stopped.get( 0 ) );
+        assertNull( group.getSound( first ) );
+        assertNotNull( group.getSound( second ) );
+        assertNotNull( group.getSound( third ) );
+    }
+
+    @Test
+    public void failedPlayStopsNothing() {
+        FakeSound[] fakes = new FakeSound[1];
+        SoundGroup group = groupOf( fakes );
+        group.setMaxInstances( 1 );
+        group.play();
+        fakes[0].fail = true;
+        assertEquals( -1, group.play() );
+        assertEquals( 0, fakes[0].stopped.size );
+        assertEquals( 1, group.getInstanceCount() );
+    }
+
+    @Test
+    public void coalescedPlayStopsNothing() {
+        FakeSound[] fakes = new FakeSound[1];
+        SoundGroup group = groupOf( fakes );
+        group.setMaxInstances( 1 );
+        long first = group.play();
+        fakes[0].coalesce = true;
+        assertEquals( first, group.play() );
+        assertEquals( 0, fakes[0].stopped.size );
+        assertEquals( 1, group.getInstanceCount() );
+    }
+
+    @Test
+    public void finishedInstancesDoNotCount() {
+        FakeSound[] fakes = new FakeSound[1];
+        SoundGroup group = groupOf( fakes );
+        group.setMaxInstances( 1 );
+        long first = group.play();
+        fakes[0].playing.removeValue( first );
+        group.play();
+        assertEquals( 0, fakes[0].stopped.size );
+    }
+
+    @Test
+    public void cooldownIgnoresEarlyPlays() throws InterruptedException {
+        FakeSound[] fakes = new FakeSound[1];
+        SoundGroup group = groupOf( fakes );
+        group.setCooldown( 0.2f );
+        assertNotEquals( -1, group.play() );
+        assertEquals( -1, group.play() );
+        assertEquals( 1, fakes[0].plays );
+        Thread.sleep( 250 );
+        assertNotEquals( -1, group.play() );
+        assertEquals( 2, fakes[0].plays );
+    }
+
+    @Test
+    public void failedPlayDoesNotStartCooldown() {
+        FakeSound[] fakes = new FakeSound[1];
+        SoundGroup group = groupOf( fakes );
+        group.setCooldown( 10 );
+        fakes[0].fail = true;
+        assertEquals( -1, group.play() );
+        fakes[0].fail = false;
+        assertNotEquals( -1, group.play() );
+    }
+
+    @Test
+    public void zeroCooldownAllowsImmediatePlays() {
+        FakeSound[] fakes = new FakeSound[1];
+        SoundGroup group = groupOf( fakes );
+        group.setCooldown( 0 );
+        assertNotEquals( -1, group.play() );
+        assertNotEquals( -1, group.play() );
+        assertEquals( 2, fakes[0].plays );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeCooldown() {
+        new SoundGroup().setCooldown( -1 );
+    }
+}
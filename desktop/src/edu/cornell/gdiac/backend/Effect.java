@@ -7,6 +7,12 @@
 
 package edu.cornell.gdiac.backend;
 
+import com.badlogic.gdx.utils.IntFloatMap;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.Arrays;
+
 import static org.lwjgl.openal.EXTEfx.*;
 
 /**
@@ -15,6 +21,9 @@ import static org.lwjgl.openal.EXTEfx.*;
  * The contents of this class should only be accessed using {@link EffectFactory} except for {@link #dispose()}
  * Effects need to be disposed with {@link #dispose()}
  *
+ * An effect remembers the parameters last sent to OpenAL, so setting an attribute to
+ * its current value costs nothing.  Changed attributes are only heard once the effect
+ * is attached to its slot again, which the engine does at most once per update.
  * */
 public class Effect implements edu.cornell.gdiac.audio.EffectFilter {
     /** The id of the effect in openAL engine*/
@@ -24,33 +33,97 @@ public class Effect implements edu.cornell.gdiac.audio.EffectFilter {
 
     public static GDXAudio engine;
 
+    /** The registration to reclaim the effect if this object is never disposed */
+    private ResourceRegistry.Handle handle;
+
+    /** The type of this effect (AL_EFFECT_NULL if not yet set) */
+    private int type = AL_EFFECT_NULL;
+    /** The integer parameters last sent to OpenAL */
+    private final IntIntMap intParams = new IntIntMap();
+    /** The float parameters last sent to OpenAL */
+    private final IntFloatMap floatParams = new IntFloatMap();
+    /** The vector parameters last sent to OpenAL (copied) */
+    private final IntMap<float[]> vectorParams = new IntMap<float[]>();
+    /** Whether this effect has changed since it was last attached to its slot */
+    boolean dirty;
+
     /**
      * Dispose the sound effect and release its resources
      * */
     public void dispose(){
+        dirty = false;
         if(slot != -1)
             engine.unloadEffect(slot);
         alDeleteEffects(id);
+        if (engine != null) {
+            engine.getRegistry().release(handle);
+        }
+        handle = null;
     }
 
     public Effect(){
         id = alGenEffects();
+        if (engine != null) {
+            handle = engine.getRegistry().register(this, ResourceRegistry.EFFECTS, id);
+        }
         //engine.loadEffect(this);
     }
 
     /**
      * Set the attributes of an effect
+     *
+     * The attribute is only sent to OpenAL if it differs from the value last set.
+     * Changing the effect type resets every other attribute to its default.
      * */
     public void setAttribute(int att, int value){
+        if (att == AL_EFFECT_TYPE) {
+            if (type == value) {
+                return;
+            }
+            type = value;
+            intParams.clear();
+            floatParams.clear();
+            vectorParams.clear();
+        } else if (intParams.containsKey( att ) && intParams.get( att, 0 ) == value) {
+            return;
+        } else {
+            intParams.put( att, value );
+        }
         alEffecti(id,att,value);
+        markDirty();
     }
 
     public void setAttribute(int att, float value){
+        if (floatParams.containsKey( att ) && floatParams.get( att, 0 ) == value) {
+            return;
+        }
+        floatParams.put( att, value );
         alEffectf(id,att,value);
+        markDirty();
     }
 
     public void setAttribute(int att, float[] values){
+        float[] prior = vectorParams.get( att );
+        if (Arrays.equals( prior, values )) {
+            return;
+        }
+        if (prior == null || prior.length != values.length) {
+            vectorParams.put( att, values.clone() );
+        } else {
+            System.arraycopy( values, 0, prior, 0, values.length );
+        }
         alEffectfv(id,att,values);
+        markDirty();
+    }
+
+    /**
+     * Schedules this effect to be attached to its slot again on the next update.
+     */
+    private void markDirty() {
+        if (!dirty && engine != null) {
+            dirty = true;
+            engine.markEffect( this );
+        }
     }
 
     /**
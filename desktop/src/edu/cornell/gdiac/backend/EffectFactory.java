@@ -12,8 +12,15 @@ package edu.cornell.gdiac.backend;
 import org.lwjgl.openal.EXTEfx;
 import static org.lwjgl.openal.EXTEfx.*;
 import edu.cornell.gdiac.audio.EffectFilter;
+import edu.cornell.gdiac.audio.FrequencyFilter;
 
-
+/**
+ * This class is the OpenAL implementation of {@link edu.cornell.gdiac.audio.EffectFactory}
+ *
+ * The update methods may be called every frame. Only the parameters that changed
+ * since the last update are sent to OpenAL, and the effect is attached to its slot
+ * again on the next update of the audio engine.
+ */
 public class EffectFactory implements edu.cornell.gdiac.audio.EffectFactory {
     /**
      * Create a reverb effect object based on the ReverbDef object
@@ -435,4 +442,95 @@ public class EffectFactory implements edu.cornell.gdiac.audio.EffectFactory {
         ((Effect)Equalizer).setAttribute(AL_EQUALIZER_HIGH_GAIN,def.EQUALIZER_HIGH_GAIN);
         ((Effect)Equalizer).setAttribute(AL_EQUALIZER_HIGH_CUTOFF,def.EQUALIZER_HIGH_CUTOFF);
     }
-}
\ No newline at end of file
+
+    /**
+     * Create a low-pass filter object based on the LowPassDef object
+     *
+     * @param def the LowPassDef object to create from
+     */
+    public FrequencyFilter createLowPass(LowPassDef def) {
+        FrequencyFilter lowPass = new Filter();
+        updateLowPass(lowPass, def);
+        return lowPass;
+    }
+
+    /**
+     * Create default low-pass filter object
+     */
+    public FrequencyFilter createLowPass() {
+        return createLowPass(new LowPassDef());
+    }
+
+    /**
+     * Update an existing low-pass filter based on the LowPassDef
+     *
+     * @param lowPass the low-pass filter to edit
+     * @param def the LowPassDef object to create from
+     */
+    public void updateLowPass(FrequencyFilter lowPass, LowPassDef def) {
+        ((Filter)lowPass).setType(AL_FILTER_LOWPASS);
+        ((Filter)lowPass).setAttribute(AL_LOWPASS_GAIN, def.LOWPASS_GAIN);
+        ((Filter)lowPass).setAttribute(AL_LOWPASS_GAINHF, def.LOWPASS_GAINHF);
+    }
+
+    /**
+     * Create a high-pass filter object based on the HighPassDef object
+     *
+     * @param def the HighPassDef object to create from
+     */
+    public FrequencyFilter createHighPass(HighPassDef def) {
+        FrequencyFilter highPass = new Filter();
+        updateHighPass(highPass, def);
+        return highPass;
+    }
+
+    /**
+     * Create default high-pass filter object
+     */
+    public FrequencyFilter createHighPass() {
+        return createHighPass(new HighPassDef());
+    }
+
+    /**
+     * Update an existing high-pass filter based on the HighPassDef
+     *
+     * @param highPass the high-pass filter to edit
+     * @param def the HighPassDef object to create from
+     */
+    public void updateHighPass(FrequencyFilter highPass, HighPassDef def) {
+        ((Filter)highPass).setType(AL_FILTER_HIGHPASS);
+        ((Filter)highPass).setAttribute(AL_HIGHPASS_GAIN, def.HIGHPASS_GAIN);
+        ((Filter)highPass).setAttribute(AL_HIGHPASS_GAINLF, def.HIGHPASS_GAINLF);
+    }
+
+    /**
+     * Create a band-pass filter object based on the BandPassDef object
+     *
+     * @param def the BandPassDef object to create from
+     */
+    public FrequencyFilter createBandPass(BandPassDef def) {
+        FrequencyFilter bandPass = new Filter();
+        updateBandPass(bandPass, def);
+        return bandPass;
+    }
+
+    /**
+     * Create default band-pass filter object
+     */
+    public FrequencyFilter createBandPass() {
+        return createBandPass(new BandPassDef());
+    }
+
+    /**
+     * Update an existing band-pass filter based on the BandPassDef
+     *
+     * @param bandPass the band-pass filter to edit
+     * @param def the BandPassDef object to create from
+     */
+    public void updateBandPass(FrequencyFilter bandPass, BandPassDef def) {
+        ((Filter)bandPass).setType(AL_FILTER_BANDPASS);
+        ((Filter)bandPass).setAttribute(AL_BANDPASS_GAIN, def.BANDPASS_GAIN);
+        ((Filter)bandPass).setAttribute(AL_BANDPASS_GAINLF, def.BANDPASS_GAINLF);
+        ((Filter)bandPass).setAttribute(AL_BANDPASS_GAINHF, def.BANDPASS_GAINHF);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Filter.java
+ *
+ * This class is an EFX filter object. Filters are applied directly to a source (on its
+ * direct path or on one of its auxiliary sends), so they need no effect slot.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.backend;
+
+import com.badlogic.gdx.utils.IntFloatMap;
+
+import static org.lwjgl.openal.EXTEfx.*;
+
+/**
+ * This class represents frequency filters in OpenAL
+ *
+ * The contents of this class should only be accessed using {@link EffectFactory} except for {@link #dispose()}
+ * Filters need to be disposed with {@link #dispose()}
+ *
+ * OpenAL copies the parameters of a filter when it is applied to a source. So when an
+ * attribute changes, the engine applies the filter again (once per update) to every
+ * source that uses it. Like {@link Effect}, attributes equal to the value last set are
+ * never sent to OpenAL.
+ */
+public class Filter implements edu.cornell.gdiac.audio.FrequencyFilter {
+    /** The id of the filter in openAL */
+    private int id;
+    /** The type of this filter (AL_FILTER_NULL if not yet set) */
+    private int type = AL_FILTER_NULL;
+    /** The float parameters last sent to OpenAL */
+    private final IntFloatMap floatParams = new IntFloatMap();
+    /** Whether this filter has changed since it was last applied to its sources */
+    boolean dirty;
+
+    /** The registration to reclaim the filter if this object is never disposed */
+    private ResourceRegistry.Handle handle;
+
+    /**
+     * Creates a new filter with no type
+     */
+    public Filter() {
+        id = alGenFilters();
+        if (Effect.engine != null) {
+            handle = Effect.engine.getRegistry().register( this, ResourceRegistry.FILTERS, id );
+        }
+    }
+
+    /**
+     * Dispose the filter and release its resources
+     *
+     * The filter is removed from any source that still uses it.
+     */
+    public void dispose() {
+        dirty = false;
+        if (Effect.engine != null) {
+            Effect.engine.unloadFilter( this );
+            Effect.engine.getRegistry().release( handle );
+        }
+        alDeleteFilters( id );
+        handle = null;
+    }
+
+    /**
+     * Sets the type of this filter
+     *
+     * Changing the type resets every attribute to its default.
+     *
+     * @param type  The filter type (such as AL_FILTER_LOWPASS)
+     */
+    public void setType(int type) {
+        if (this.type == type) {
+            return;
+        }
+        this.type = type;
+        floatParams.clear();
+        alFilteri( id, AL_FILTER_TYPE, type );
+        markDirty();
+    }
+
+    /**
+     * Set the attributes of a filter
+     *
+     * The attribute is only sent to OpenAL if it differs from the value last set.
+     *
+     * @param att   The filter attribute
+     * @param value The attribute value
+     */
+    public void setAttribute(int att, float value) {
+        if (floatParams.containsKey( att ) && floatParams.get( att, 0 ) == value) {
+            return;
+        }
+        floatParams.put( att, value );
+        alFilterf( id, att, value );
+        markDirty();
+    }
+
+    /**
+     * Schedules this filter to be applied to its sources again on the next update.
+     */
+    private void markDirty() {
+        if (!dirty && Effect.engine != null) {
+            dirty = true;
+            Effect.engine.markFilter( this );
+        }
+    }
+
+    /**
+     * @return the id of the filter in openAL
+     * */
+    public int getId() {
+        return id;
+    }
+}
@@ -43,7 +43,9 @@ public class GDXApp extends Lwjgl3Application {
             try {
                 audio = new GDXAudio( config.audioDeviceSimultaneousSources,
                         config.audioDeviceBufferCount,
-                        config.audioDeviceBufferSize );
+                        config.audioDeviceBufferSize,
+                        config.audioFrequency,
+                        config.audioRefresh );
                 Gdx.audio = audio;
                 config.useAudio = true;
             } catch (Throwable t) {
@@ -60,6 +60,14 @@ public class GDXAppSettings {
     public int audioDeviceBufferSize = 512;
     /** The audio device buffer count **/
     public int audioDeviceBufferCount = 9;
+    /** The output frequency of the audio mixer (0 for the device default) **/
+    public int audioFrequency = 0;
+    /**
+     * The number of times per second the audio mixer runs (0 for the device default)
+     *
+     * A higher value shortens the mixer period, lowering latency at the cost of CPU.
+     */
+    public int audioRefresh = 0;
     /** The initial background color */
     public Color initialBackgroundColor = Color.BLACK;
     /**
@@ -66,9 +66,29 @@ public class GDXAudio implements AudioEngine {
     private final int deviceBufferSize;
     /** The number of buffers in an audio device */
     private final int deviceBufferCount;
+    /** How far ahead (in seconds) a scheduled start is handed to OpenAL */
+    private static final double SCHEDULE_AHEAD = 0.1;
+    /** The length (in seconds) of the shared silence before scheduled sounds */
+    private static final double SILENCE_LENGTH = 2*SCHEDULE_AHEAD;
     
     /** Whether audio has been disabled */
     private boolean noDevice = false;
+    /** Whether the device supports ALC_SOFT_device_clock */
+    private boolean deviceClock;
+    /** Whether the context supports AL_SOFT_deferred_updates */
+    private boolean deferSupported;
+    /** The nesting depth of open update batches */
+    private int batchDepth;
+    /** Whether to keep parameter changes deferred between engine updates */
+    private boolean deferFrames;
+    /** The fallback clock origin in nanoseconds */
+    private final long clockOrigin = System.nanoTime();
+    /** A zeroed buffer for scheduling silence (grown as necessary) */
+    private ByteBuffer silenceData;
+    /** The shared silence buffer for each sample rate and channel count */
+    private final IntIntMap silenceBuffers = new IntIntMap();
+    /** A scratch array for queueing silence ahead of a sound buffer */
+    private final int[] silenceQueue = new int[2];
 
     private long device,context;
     /** The audio source classes for each file type */
@@ -92,11 +112,37 @@ public class GDXAudio implements AudioEngine {
     /** The sources affected by a global pause */
     private boolean[] paused;
     
-    /** A float buffer to query OpenAL */
-    private FloatBuffer floatdata;
-
-    /** The attribute for SFX */
-    private int[] attributes = new int[4];
+    /** The last gain set on each source (indexed by slot) */
+    private float[] sourceGains;
+    /** The last pitch set on each source (indexed by slot) */
+    private float[] sourcePitches;
+    /** The last pan set on each source (indexed by slot) */
+    private float[] sourcePans;
+    /** The last looping flag set on each source (indexed by slot) */
+    private boolean[] sourceLoops;
+    /** The state of each source as of the last update or state change (indexed by slot) */
+    private int[] sourceStates;
+    /** The time (in nanoseconds) to next poll the state of each source (0 for every update) */
+    private long[] sourceDeadlines;
+    /** The time (in nanoseconds) of the next sweep of all sources */
+    private long nextSweep;
+
+    /** The interval (in nanoseconds) between sweeps of all source states */
+    private static final long SWEEP_INTERVAL = 250000000L;
+    /** How early (in nanoseconds) to poll a source before its predicted end */
+    private static final long PREDICTION_LEAD = 10000000L;
+
+    /** The maximum number of auxiliary effect sends per source */
+    private int maxAuxSends;
+    /** Whether the context supports AL_SOFT_source_latency */
+    private boolean latencySupported;
+
+    /** The number of sample frames in each buffer of a low-latency device */
+    private static final int LOW_LATENCY_FRAMES = 64;
+    /** The initial (and minimum) number of buffers queued by a low-latency device */
+    private static final int LOW_LATENCY_DEPTH = 3;
+    /** The maximum number of buffers queued by a low-latency device */
+    private static final int LOW_LATENCY_MAXIMUM = 16;
 
     /** The number of effect slots */
     //TODO: Verify that this works
@@ -104,8 +150,37 @@ public class GDXAudio implements AudioEngine {
 
     /** Stores the ids of the aux slots */
     private int[] auxiliaryEfxSlots;
-    private boolean[] slotInUse;
-    
+    /** Stores the id of the effect loaded in each aux slot (0 if none) */
+    private int[] loadedEffects;
+    /** Stores the effect loaded in each aux slot (null if none) */
+    private Effect[] auxSlotEffects;
+    /** The number of source sends attached to each aux slot */
+    private int[] slotRefs;
+    /** The value of {@link #slotClock} when each aux slot was last attached */
+    private long[] slotUsed;
+    /** A counter ordering the aux slot attachments (for LRU eviction) */
+    private long slotClock;
+    /** The effect attached to each send of each source slot (null if none) */
+    private Effect[][] sourceSends;
+    /** The filter on the direct path of each source slot (null if none) */
+    private Filter[] directFilters;
+    /** The filter on each send of each source slot (null if none) */
+    private Filter[][] sendFilters;
+    /** The filters whose attributes changed since the last update */
+    private final Array<Filter> dirtyFilters = new Array<Filter>();
+
+    /** The runtime statistics for this engine */
+    private final AudioStats stats = new AudioStats();
+    /** The registry reclaiming resources that were never disposed */
+    private final ResourceRegistry registry = new ResourceRegistry( this, stats );
+    /** The shared OpenAL buffers for sound effects */
+    private final BufferCache bufferCache = new BufferCache( stats );
+    /** The sound buffers attached to a source (used when enforcing the budget) */
+    private final IntSet busyBuffers = new IntSet();
+
+    /** The decoded heads of registered music sources (or null if disabled) */
+    private volatile PrerollCache prerolls;
+
     /**
      * Creates an audio engine with the default settings.
      *
@@ -136,12 +211,33 @@ public class GDXAudio implements AudioEngine {
      * @
      */
     public GDXAudio (int simultaneousSources, int deviceBufferCount, int deviceBufferSize) {
+        this(simultaneousSources, deviceBufferCount, deviceBufferSize, 0, 0);
+    }
+
+    /**
+     * Creates an audio engine with the given settings.
+     *
+     * This constructor also configures the OpenAL mixer. The frequency is the output
+     * sample rate of the mixer, and the refresh is the number of times per second that
+     * it mixes. A higher refresh gives a shorter mixer period, and so lower latency,
+     * at the cost of more CPU time. A value of 0 for either uses the device default.
+     * These are requests, and the device may choose different values.
+     *
+     * @param simultaneousSources    The number of simultaneous audio sources
+     * @param deviceBufferCount      The number of buffers to create for an {@link AudioDevice}.
+     * @param deviceBufferSize       The buffer size to allocate for an {@link AudioDevice}.
+     * @param frequency              The mixer output frequency (0 for default)
+     * @param refresh                The mixer updates per second (0 for default)
+     */
+    public GDXAudio (int simultaneousSources, int deviceBufferCount, int deviceBufferSize,
+                     int frequency, int refresh) {
         this.deviceBufferSize = deviceBufferSize;
         this.deviceBufferCount = deviceBufferCount;
 
         registerFormat("ogg", OggSource.class);
         registerFormat("wav", WavSource.class);
         registerFormat("mp3", Mp3Source.class);
+        initBuses();
 
         try {
             findPaths();
@@ -153,11 +249,19 @@ public class GDXAudio implements AudioEngine {
         }
 
         ALCCapabilities deviceCapabilities = ALC.createCapabilities(device);
+        deviceClock = deviceCapabilities.ALC_SOFT_device_clock;
 
-        attributes[0] = alcGetInteger(device,ALC_MAX_AUXILIARY_SENDS);
-        attributes[1] = numAuxSlots;
+        IntArray attributes = new IntArray();
+        attributes.add( ALC_MAX_AUXILIARY_SENDS, alcGetInteger(device,ALC_MAX_AUXILIARY_SENDS) );
+        if (frequency > 0) {
+            attributes.add( ALC_FREQUENCY, frequency );
+        }
+        if (refresh > 0) {
+            attributes.add( ALC_REFRESH, refresh );
+        }
+        attributes.add( 0 );
 
-        context = alcCreateContext(device, attributes);
+        context = alcCreateContext(device, attributes.toArray());
         if (context == 0L) {
             alcCloseDevice(device);
             noDevice = true;
@@ -168,7 +272,10 @@ public class GDXAudio implements AudioEngine {
             return;
         }
 
-        AL.createCapabilities(deviceCapabilities);
+        ALCapabilities contextCapabilities = AL.createCapabilities(deviceCapabilities);
+        deferSupported = contextCapabilities.AL_SOFT_deferred_updates;
+        latencySupported = contextCapabilities.AL_SOFT_source_latency;
+        maxAuxSends = alcGetInteger(device,ALC_MAX_AUXILIARY_SENDS);
 
         alGetError();
         allSources = new IntArray( false, simultaneousSources );
@@ -187,7 +294,10 @@ public class GDXAudio implements AudioEngine {
 
         Effect.engine = this;
         auxiliaryEfxSlots = new int[numAuxSlots];
-        slotInUse = new boolean[numAuxSlots];
+        loadedEffects = new int[numAuxSlots];
+        auxSlotEffects = new Effect[numAuxSlots];
+        slotRefs = new int[numAuxSlots];
+        slotUsed = new long[numAuxSlots];
 
         /* Generate the auxilary slots*/
         for(int ii = 0; ii < numAuxSlots; ii++){
@@ -205,102 +315,490 @@ public class GDXAudio implements AudioEngine {
 
         paused = new boolean[simultaneousSources];
         globalPause = false;
-        floatdata = BufferUtils.createFloatBuffer( 4 );
+
+        sourceGains   = new float[simultaneousSources];
+        sourcePitches = new float[simultaneousSources];
+        sourcePans    = new float[simultaneousSources];
+        sourceLoops   = new boolean[simultaneousSources];
+        sourceStates  = new int[simultaneousSources];
+        sourceDeadlines = new long[simultaneousSources];
+        sourceSends = new Effect[simultaneousSources][Math.max( maxAuxSends, 1 )];
+        directFilters = new Filter[simultaneousSources];
+        sendFilters = new Filter[simultaneousSources][Math.max( maxAuxSends, 1 )];
+        sourceBuses = new BusHandle[simultaneousSources];
+        busSendMask = new int[simultaneousSources];
+        Arrays.fill( sourceGains, 1.0f );
+        Arrays.fill( sourcePitches, 1.0f );
+        Arrays.fill( sourceStates, AL10.AL_INITIAL );
     }
 
+    // #mark Effect Slots
     /**
-     * Put an effect into available effect slots
+     * Put an effect into an aux slot, if it is not already in one
+     *
+     * Each effect occupies at most one aux slot, which is shared by every source that
+     * sends to it. If all of the slots are in use, the least recently attached slot is
+     * evicted, preferring slots with no sources attached. Any sources still sending to
+     * an evicted slot are detached from it.
+     *
+     * A slot stays loaded when its last source is detached, so an effect used again
+     * soon after (such as by the next play of a bus-routed sound) is not reloaded. The
+     * slot is only released when it is evicted, or when {@link #unloadEffect} is called.
      *
      * @param effect the SoundEffect object to load
      * @return whether the effect is successfully loaded
      * */
     public boolean loadEffect(EffectFilter effect){
-        int effectId = ((Effect)effect).getId();
+        Effect target = (Effect)effect;
+        int effectId = target.getId();
         if(!alIsEffect(effectId)){
             Gdx.app.error( "OpenAL", "effect is corrupted");
             return false;
         }
 
-        if (((Effect)effect).slot != -1)
+        if (target.slot != -1) {
             return true;
+        }
 
         int selectedSlotI = -1;
-
-        for(int i = 0; i < auxiliaryEfxSlots.length; i++) {
-            if (!slotInUse[i]) {
-                selectedSlotI = i;
-                break;
+        int idleSlot = -1;
+        int usedSlot = -1;
+        for(int ii = 0; ii < auxiliaryEfxSlots.length && selectedSlotI == -1; ii++) {
+            if (auxiliaryEfxSlots[ii] == 0) {
+                continue;
+            } else if (auxSlotEffects[ii] == null) {
+                selectedSlotI = ii;
+            } else if (slotRefs[ii] == 0) {
+                if (idleSlot == -1 || slotUsed[ii] < slotUsed[idleSlot]) {
+                    idleSlot = ii;
+                }
+            } else if (usedSlot == -1 || slotUsed[ii] < slotUsed[usedSlot]) {
+                usedSlot = ii;
             }
         }
 
-        if(selectedSlotI == -1){
-            return false;
+        if (selectedSlotI == -1) {
+            selectedSlotI = idleSlot != -1 ? idleSlot : usedSlot;
+            if (selectedSlotI == -1) {
+                return false;
+            }
+            unloadEffect( selectedSlotI );
+            stats.effectSlotEvictions++;
         }
 
         alAuxiliaryEffectSloti(auxiliaryEfxSlots[selectedSlotI],AL_EFFECTSLOT_EFFECT,effectId);
-        ((Effect)effect).slot = selectedSlotI;
-
         int erCode = alGetError();
         if (erCode != AL_NO_ERROR) {
             Gdx.app.error( "OpenAL", "Error! Code: "+erCode);
             return false;
         }
 
+        target.slot = selectedSlotI;
+        loadedEffects[selectedSlotI] = effectId;
+        auxSlotEffects[selectedSlotI] = target;
+        slotRefs[selectedSlotI] = 0;
+        slotUsed[selectedSlotI] = ++slotClock;
+        stats.effectSlotLoads++;
+        stats.effectSlots++;
         return true;
     }
 
     /**
      * Remove effects on a slot
      *
+     * Any sources still sending to this slot are detached from it, and the effect is
+     * removed from the sounds and music using those sources. The effect in the slot
+     * must be loaded again before it can be used.
+     *
      * @param slot the index of the slot in {@link #auxiliaryEfxSlots}
-     * @return whether the effect is successfully loaded
      * */
     public void unloadEffect(int slot){
+        Effect effect = auxSlotEffects[slot];
+        if (effect != null) {
+            for(int ii = 0; ii < sourceSends.length; ii++) {
+                for(int jj = 0; jj < sourceSends[ii].length; jj++) {
+                    if (sourceSends[ii][jj] == effect) {
+                        sourceSends[ii][jj] = null;
+                        detachSend( ii, jj );
+                        forgetSend( ii, jj, effect );
+                    }
+                }
+            }
+            effect.slot = -1;
+            stats.effectSlots--;
+        }
         alAuxiliaryEffectSloti(auxiliaryEfxSlots[slot],AL_EFFECTSLOT_EFFECT,AL_EFFECT_NULL);
-        slotInUse[slot]=false;
+        auxSlotEffects[slot] = null;
+        loadedEffects[slot] = 0;
+        slotRefs[slot] = 0;
+    }
+
+    /**
+     * Removes an unloaded effect from the sound or music owning a source slot
+     *
+     * Bus effects are not recorded by the sound or music, so only matching entries
+     * are removed.
+     *
+     * @param index     The source slot
+     * @param send      The auxiliary send of the source
+     * @param effect    The effect that was unloaded
+     */
+    private void forgetSend(int index, int send, Effect effect) {
+        if (buffers[index] instanceof SoundHandle) {
+            EffectFilter[] sends = ((SoundHandle)buffers[index]).slotEffects[index];
+            if (sends != null && send < sends.length && sends[send] == effect) {
+                sends[send] = null;
+            }
+        } else if (buffers[index] instanceof MusicHandle) {
+            EffectFilter[] sends = ((MusicHandle)buffers[index]).effects;
+            if (send < sends.length && sends[send] == effect) {
+                sends[send] = null;
+            }
+        }
     }
 
     /**
      * This is a clean up method to kick all effects out and empty all effect slots
      * */
     public void EmptyEffectSlots(){
-        for(int slotId: auxiliaryEfxSlots) {
-            alAuxiliaryEffectSloti(slotId,AL_EFFECTSLOT_EFFECT,AL_EFFECT_NULL);
+        for(int ii = 0; ii < auxiliaryEfxSlots.length; ii++) {
+            if (auxiliaryEfxSlots[ii] != 0) {
+                unloadEffect( ii );
+            }
+        }
+    }
+
+    /**
+     * Returns the number of aux slots available to effects
+     *
+     * @return the number of aux slots available to effects
+     */
+    public int getEffectSlotCapacity() {
+        int result = 0;
+        for(int ii = 0; ii < auxiliaryEfxSlots.length; ii++) {
+            if (auxiliaryEfxSlots[ii] != 0) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of aux slots that currently hold an effect
+     *
+     * @return the number of aux slots that currently hold an effect
+     */
+    public int getEffectSlotsInUse() {
+        return (int)stats.effectSlots;
+    }
+
+    /**
+     * Deletes an effect whose {@link Effect} object was never disposed.
+     *
+     * The effect is first removed from any aux slot that still holds it. This method
+     * is called by the {@link ResourceRegistry} and must be executed in the main thread.
+     *
+     * @param effectId  The OpenAL id of the effect
+     */
+    void reclaimEffect(int effectId) {
+        for(int ii = 0; ii < loadedEffects.length; ii++) {
+            if (loadedEffects[ii] == effectId) {
+                unloadEffect( ii );
+            }
         }
-        slotInUse = new boolean[slotInUse.length];
+        if (alIsEffect( effectId )) {
+            alDeleteEffects( effectId );
+        }
+    }
+
+    /**
+     * Releases a sound buffer whose {@link SoundEffect} was never disposed.
+     *
+     * This method is called by the {@link ResourceRegistry} and must be executed in
+     * the main thread.
+     *
+     * @param serial    The serial number of the buffer cache entry
+     */
+    void reclaimSample(int serial) {
+        bufferCache.release( serial );
+    }
+
+    /**
+     * Returns the registry reclaiming resources that were never disposed
+     *
+     * @return the registry reclaiming resources that were never disposed
+     */
+    ResourceRegistry getRegistry() {
+        return registry;
     }
 
     /**
      * Put effect into an available slot and set the effect to a source.
      *
+     * Each send of a source holds a reference to the aux slot of its effect. Replacing
+     * the effect on a send releases the reference to the previous effect, and removes
+     * any filter on the send.
+     *
      * @return false if the set is not successful and true otherwise
      * */
     public boolean setEffect(int sourceId, EffectFilter effect, int sendSlot){
-        if(!(alIsEffect(((Effect)effect).getId())&&alIsSource(sourceId))){
+        Effect target = (Effect)effect;
+        if(!(alIsEffect(target.getId())&&alIsSource(sourceId))){
             Gdx.app.error( "OpenAL", "source or effect not valid");
             return false;
         }
+        int index = sourceToIndex.get( sourceId, -1 );
+        if (index == -1 || sendSlot < 0 || sendSlot >= sourceSends[index].length) {
+            Gdx.app.error( "OpenAL", "source send not valid");
+            return false;
+        }
 
-        if(((Effect)effect).slot==-1){
+        if(target.slot==-1){
             if(!loadEffect(effect))
                 return false;
         }
 
-        AL11.alSource3i(sourceId,AL_AUXILIARY_SEND_FILTER,auxiliaryEfxSlots[((Effect)effect).slot],sendSlot,AL_FILTER_NULL);
+        Effect prior = sourceSends[index][sendSlot];
+        Filter filter = prior == target ? sendFilters[index][sendSlot] : null;
+        AL11.alSource3i(sourceId,AL_AUXILIARY_SEND_FILTER,auxiliaryEfxSlots[target.slot],sendSlot,filterId(filter));
         int errCode = alGetError();
         if (errCode != AL_NO_ERROR) {
-            System.out.println("Error:"+errCode);
+            Gdx.app.error( "OpenAL", "Error! Code: "+errCode);
             return false;
         }
 
+        busSendMask[index] &= ~(1 << sendSlot);
+        if (prior != target) {
+            sourceSends[index][sendSlot] = target;
+            sendFilters[index][sendSlot] = null;
+            slotRefs[target.slot]++;
+            releaseSend( prior );
+        }
+        slotUsed[target.slot] = ++slotClock;
         return true;
     }
 
+    /**
+     * Removes the effect from the given send of a source.
+     *
+     * This releases the reference to the aux slot of the effect. The effect stays
+     * loaded in the slot until the slot is reclaimed for another effect.
+     *
+     * @param sourceId  The OpenAL source
+     * @param sendSlot  The auxiliary send
+     */
     public void removeEffect(int sourceId, int sendSlot){
         if(!alIsSource(sourceId)){
             return;
         }
-        AL11.alSource3i(sourceId,AL_AUXILIARY_SEND_FILTER,AL_EFFECTSLOT_NULL,sendSlot,AL_FILTER_NULL);
+        int index = sourceToIndex.get( sourceId, -1 );
+        if (index != -1 && sendSlot >= 0 && sendSlot < sourceSends[index].length) {
+            detachSend( index, sendSlot );
+            Effect prior = sourceSends[index][sendSlot];
+            sourceSends[index][sendSlot] = null;
+            releaseSend( prior );
+        }
+    }
+
+    /**
+     * Removes every effect from the sends of a source slot.
+     *
+     * This is called when a source is stopped, so that an idle source never holds an
+     * aux slot.
+     *
+     * @param index The source slot
+     */
+    private void clearSends(int index) {
+        Effect[] sends = sourceSends[index];
+        for(int ii = 0; ii < sends.length; ii++) {
+            if (sends[ii] != null) {
+                Effect prior = sends[ii];
+                sends[ii] = null;
+                detachSend( index, ii );
+                releaseSend( prior );
+            }
+        }
+    }
+
+    /**
+     * Disconnects the given send of a source slot from its aux slot.
+     *
+     * Any filter on the send is removed as well. This method does not affect the
+     * slot reference counts.
+     *
+     * @param index     The source slot
+     * @param sendSlot  The auxiliary send
+     */
+    private void detachSend(int index, int sendSlot) {
+        sendFilters[index][sendSlot] = null;
+        busSendMask[index] &= ~(1 << sendSlot);
+        int sourceId = indexToSource.get( index, -1 );
+        if (sourceId != -1) {
+            AL11.alSource3i(sourceId,AL_AUXILIARY_SEND_FILTER,AL_EFFECTSLOT_NULL,sendSlot,AL_FILTER_NULL);
+        }
+    }
+
+    /**
+     * Releases a reference to the aux slot of the given effect.
+     *
+     * When the last reference is released, the effect stays loaded in its slot, so
+     * that it can be used again without reloading it. The idle slot is only freed
+     * when {@link #loadEffect} reclaims it for another effect.
+     *
+     * @param effect    The effect to release (may be null)
+     */
+    private void releaseSend(Effect effect) {
+        if (effect == null || effect.slot == -1) {
+            return;
+        }
+        int slot = effect.slot;
+        if (slotRefs[slot] > 0) {
+            slotRefs[slot]--;
+        }
+    }
+
+    // #mark Source Filters
+    /**
+     * Sets the filter on the direct path of a source.
+     *
+     * OpenAL copies the filter parameters, so the engine applies the filter again
+     * whenever it changes. The filter is removed when the source is stopped.
+     *
+     * @param sourceId  The OpenAL source
+     * @param filter    The filter to apply (null to remove)
+     */
+    public void setDirectFilter(int sourceId, FrequencyFilter filter) {
+        int index = sourceToIndex.get( sourceId, -1 );
+        if (index == -1 || noDevice) {
+            return;
+        }
+        Filter target = (Filter)filter;
+        directFilters[index] = target;
+        alSourcei( sourceId, AL_DIRECT_FILTER, filterId( target ) );
+    }
+
+    /**
+     * Sets the filter on the given send of a source.
+     *
+     * The filter only affects the sound sent to the effect on that send, and it is
+     * removed when that effect is removed from the send.
+     *
+     * @param sourceId  The OpenAL source
+     * @param sendSlot  The auxiliary send
+     * @param filter    The filter to apply (null to remove)
+     */
+    public void setSendFilter(int sourceId, int sendSlot, FrequencyFilter filter) {
+        int index = sourceToIndex.get( sourceId, -1 );
+        if (index == -1 || noDevice || sendSlot < 0 || sendSlot >= sendFilters[index].length) {
+            return;
+        }
+        Filter target = (Filter)filter;
+        sendFilters[index][sendSlot] = target;
+        AL11.alSource3i( sourceId, AL_AUXILIARY_SEND_FILTER, sendSlotId( index, sendSlot ),
+                         sendSlot, filterId( target ) );
+    }
+
+    /**
+     * Removes the given filter from every source that uses it.
+     *
+     * This method is called when the filter is disposed.
+     *
+     * @param filter    The filter to remove
+     */
+    void unloadFilter(Filter filter) {
+        if (noDevice) {
+            return;
+        }
+        for(int ii = 0; ii < directFilters.length; ii++) {
+            int sourceId = indexToSource.get( ii, -1 );
+            if (directFilters[ii] == filter) {
+                directFilters[ii] = null;
+                alSourcei( sourceId, AL_DIRECT_FILTER, AL_FILTER_NULL );
+            }
+            for(int jj = 0; jj < sendFilters[ii].length; jj++) {
+                if (sendFilters[ii][jj] == filter) {
+                    sendFilters[ii][jj] = null;
+                    AL11.alSource3i( sourceId, AL_AUXILIARY_SEND_FILTER, sendSlotId( ii, jj ),
+                                     jj, AL_FILTER_NULL );
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedules the given filter to be applied to its sources on the next update.
+     *
+     * This is called by {@link Filter} when one of its attributes changes.
+     *
+     * @param filter    The changed filter
+     */
+    void markFilter(Filter filter) {
+        dirtyFilters.add( filter );
+    }
+
+    /**
+     * Applies every changed filter to the sources that use it.
+     */
+    private void flushFilters() {
+        for(int kk = 0; kk < dirtyFilters.size; kk++) {
+            Filter filter = dirtyFilters.get( kk );
+            if (!filter.dirty) {
+                continue;
+            }
+            filter.dirty = false;
+            for(int ii = 0; ii < directFilters.length; ii++) {
+                int sourceId = indexToSource.get( ii, -1 );
+                if (directFilters[ii] == filter) {
+                    alSourcei( sourceId, AL_DIRECT_FILTER, filter.getId() );
+                }
+                for(int jj = 0; jj < sendFilters[ii].length; jj++) {
+                    if (sendFilters[ii][jj] == filter) {
+                        AL11.alSource3i( sourceId, AL_AUXILIARY_SEND_FILTER, sendSlotId( ii, jj ),
+                                         jj, filter.getId() );
+                    }
+                }
+            }
+        }
+        dirtyFilters.clear();
+    }
+
+    /**
+     * Removes the direct filter from a source slot.
+     *
+     * This is called when a source is stopped. The send filters are removed with
+     * their effects.
+     *
+     * @param index The source slot
+     */
+    private void clearFilter(int index) {
+        if (directFilters[index] != null) {
+            directFilters[index] = null;
+            alSourcei( indexToSource.get( index, -1 ), AL_DIRECT_FILTER, AL_FILTER_NULL );
+        }
+    }
+
+    /**
+     * Returns the aux slot id attached to the given send of a source slot.
+     *
+     * @param index     The source slot
+     * @param sendSlot  The auxiliary send
+     *
+     * @return the aux slot id attached to the given send of a source slot.
+     */
+    private int sendSlotId(int index, int sendSlot) {
+        Effect effect = sourceSends[index][sendSlot];
+        return effect == null || effect.slot == -1 ? AL_EFFECTSLOT_NULL : auxiliaryEfxSlots[effect.slot];
+    }
+
+    /**
+     * Returns the OpenAL id of the given filter (AL_FILTER_NULL if null)
+     *
+     * @param filter    The filter
+     *
+     * @return the OpenAL id of the given filter (AL_FILTER_NULL if null)
+     */
+    private static int filterId(Filter filter) {
+        return filter == null ? AL_FILTER_NULL : filter.getId();
     }
 
     private void findPaths() throws Exception {
@@ -352,6 +850,15 @@ public class GDXAudio implements AudioEngine {
         if (noDevice) {
             return;
         }
+        ramps.clear();
+        automations.clear();
+        duckRules.clear();
+        dirtyEffects.clear();
+        dirtyFilters.clear();
+        if (batchDepth > 0) {
+            batchDepth = 1;
+            endBatch();
+        }
 
         for(int ii = 0; ii < buffers.length; ii++) {
             if (buffers[ii] != null) {
@@ -372,6 +879,16 @@ public class GDXAudio implements AudioEngine {
         allSources.clear();
         sourceToIndex.clear();
         indexToSource.clear();
+        if (prerolls != null) {
+            prerolls.clear();
+            prerolls = null;
+        }
+        registry.clear();
+        bufferCache.clear();
+        for(IntIntMap.Entry entry : silenceBuffers) {
+            AL10.alDeleteBuffers( entry.value );
+        }
+        silenceBuffers.clear();
         ALC.destroy();
 
         /*while (AL.isCreated()) {
@@ -436,6 +953,27 @@ public class GDXAudio implements AudioEngine {
         }
     }
 
+    /**
+     * Creates a new {@link LayeredSource} from the given audio sources.
+     *
+     * A layered source decodes its layers (stems) in lockstep and mixes them in
+     * software with independent volumes. You can append it to a {@link MusicQueue}
+     * like any other source, so all layers play through a single OpenAL source and
+     * never drift out of sync.
+     *
+     * All layers must have the same sample rate and audio channels.  Disposing the
+     * layered source does not dispose the layers.
+     *
+     * @param layers    The audio source for each layer
+     *
+     * @throws IllegalArgumentException if the layers do not have the same format
+     * @return a new {@link LayeredSource} from the given audio sources.
+     */
+    @Override
+    public LayeredSource newLayeredSource(AudioSource... layers) {
+        return new StemSource( layers );
+    }
+
     /**
      * Creates a new {@link SoundEffect} which to play back audio effects.
      *
@@ -595,6 +1133,53 @@ public class GDXAudio implements AudioEngine {
         return new Device(isMono, sampleRate, deviceBufferSize, deviceBufferCount);
     }
 
+    /**
+     * Creates a new {@link AudioDevice} tuned for low latency.
+     *
+     * A low-latency device queues small buffers, and only a few of them at first.
+     * Every underrun adds another buffer to the queue (up to a limit), and the queue
+     * shrinks again after playing for a while without underruns. The samples written
+     * but not yet played never exceed the current queue depth, so even a blocking
+     * writer stays only a few buffers ahead of playback. Writers may also use
+     * {@link Device#tryWrite} to keep the ring buffer shallow, and may measure the
+     * true latency with {@link Device#getLatency}.
+     *
+     * @param sampleRate    The sample rate
+     * @param isMono        Whether the device is mono or stereo
+     *
+     * @return a new {@link AudioDevice} tuned for low latency.
+     */
+    public AudioDevice newLowLatencyDevice (int sampleRate, boolean isMono) {
+        if (noDevice) {
+            return new AudioDeviceAdapter(isMono);
+        }
+        int bufferSize = LOW_LATENCY_FRAMES*(isMono ? 1 : 2)*2;
+        return new Device(isMono, sampleRate, bufferSize, LOW_LATENCY_MAXIMUM, LOW_LATENCY_DEPTH);
+    }
+
+    /**
+     * Creates a new {@link AudioDevice} that pulls its samples from the given producer.
+     *
+     * The engine asks the producer for more samples whenever a device buffer is free,
+     * as part of {@link #update}. The device starts playing immediately. Calling any
+     * of the write methods of this device is an error.
+     *
+     * @param sampleRate    The sample rate
+     * @param isMono        Whether the device is mono or stereo
+     * @param producer      The producer to generate the samples
+     *
+     * @return a new {@link AudioDevice} that pulls its samples from the given producer.
+     */
+    public AudioDevice newAudioDevice (int sampleRate, boolean isMono, AudioProducer producer) {
+        if (producer == null) {
+            throw new IllegalArgumentException( "Audio producer cannot be null" );
+        }
+        if (noDevice) {
+            return new AudioDeviceAdapter(isMono);
+        }
+        return new Device(isMono, sampleRate, deviceBufferSize, deviceBufferCount, producer);
+    }
+
     /** 
      * Creates a new {@link AudioRecorder}. 
      *
@@ -637,9 +1222,11 @@ public class GDXAudio implements AudioEngine {
             globalPause = true;
             for(int ii = 0; ii < paused.length; ii++) {
                 int sourceId = indexToSource.get( ii, -1 );
-                if (getSourceState( sourceId ) == AL10.AL_PLAYING) {
+                if (AL10.alGetSourcei( sourceId, AL10.AL_SOURCE_STATE ) == AL10.AL_PLAYING) {
                     paused[ii] = true;
                     AL10.alSourcePause( sourceId );
+                    sourceStates[ii] = AL10.AL_PAUSED;
+                    sourceDeadlines[ii] = Long.MAX_VALUE;
                 } else {
                     paused[ii] = false;
                 }
@@ -658,8 +1245,7 @@ public class GDXAudio implements AudioEngine {
         if (!noDevice) {
             for(int ii = 0; ii < paused.length; ii++) {
                 if (paused[ii]) {
-                    int sourceId = indexToSource.get( ii, -1 );
-                    AL10.alSourcePlay( sourceId );
+                    playSource( indexToSource.get( ii, -1 ) );
                     paused[ii] = false;
                 }
             }
@@ -667,66 +1253,421 @@ public class GDXAudio implements AudioEngine {
         globalPause = false;
     }
 
-    @Override
-    public EffectFactory getEffectFactory() {
-        return new edu.cornell.gdiac.backend.EffectFactory();
-    }
-
-    // #mark OpenAL Source Controls
     /**
-     * Returns (and claims) a new OpenAL source for this buffer.
+     * Sets the properties of the music preroll cache.
      *
-     * The source will be permanently claimed until it is free with the method
-     * freeSource.
+     * The preroll cache keeps the first milliseconds of a registered {@link AudioSource}
+     * decoded in memory. When a {@link MusicQueue} starts playing at the beginning of a
+     * cached source, it queues the cached audio immediately and lets the stream catch
+     * up in later updates. This removes the decoding delay from {@link Music#play()},
+     * which is important for stingers and menu music.
      *
-     * @param sound The buffer to claim this OpenAL source
+     * The cache is shared by all music buffers and will never exceed the given capacity.
+     * If it is full, the least recently used sources are discarded. Changing these
+     * settings discards all cached data. Setting either value to 0 disables the cache,
+     * which is the default.
+     *
+     * @param millis    The amount of audio to cache for each source in milliseconds
+     * @param capacity  The maximum size of the cache in bytes
      */
-    protected int obtainSource (OpenALBuffer sound) {
-        if (noDevice) {
-            return 0;
-        }
-        
-        // Try to find an available buffer
-        int sourceId = -1;
-        for (int next = (recentIndex + 1) % buffers.length; next != recentIndex && sourceId == -1; next = (next + 1) % buffers.length) {
-            if (buffers[next] == null) {
-                buffers[next] = sound;
-                sourceId = indexToSource.get( next, -1 );
-                recentIndex = next;
-            }
+    public void setPrerollCache(int millis, int capacity) {
+        if (prerolls != null) {
+            prerolls.clear();
         }
-        
-        // Try to evict the oldest evictable buffer
-        if (sourceId == -1) {
-            for (int next = (recentIndex + 1) % buffers.length; next != recentIndex && sourceId == -1; next = (next + 1) % buffers.length) {
-                if (buffers[next] != null && buffers[next].evictable()) {
-                    sourceId = indexToSource.get( next, -1 );
-                    stopSource(sourceId);
-                    buffers[next] = sound;
-                    recentIndex = next;
-                }
-            }
+        if (millis <= 0 || capacity <= 0) {
+            prerolls = null;
+        } else {
+            prerolls = new PrerollCache( millis, capacity );
         }
-        
-        return sourceId;
     }
-    
+
     /**
-     * Frees a previously claimed OpenAL source.
+     * Registers an audio source with the music preroll cache.
      *
-     * This method releases a source claimed by obtainSource.
+     * This method decodes the head of the source on the calling thread, so it should
+     * be called when assets are loaded, and not when music is played. It returns false
+     * if the cache is disabled or the source could not be cached.
      *
-     * @param sourceId  The OpenAL source
+     * @param source    The audio source to cache
+     *
+     * @return true if the source is now in the preroll cache
      */
-    protected void freeSource (int sourceId) {
-        if (noDevice) {
-            return;
+    public boolean prerollSource(AudioSource source) {
+        PrerollCache cache = prerolls;
+        if (noDevice || cache == null || source == null) {
+            return false;
         }
+        return cache.add( source );
+    }
 
-        AL10.alSourceStop(sourceId);
-        AL10.alSourcei(sourceId, AL10.AL_BUFFER, 0);
+    /**
+     * Removes an audio source from the music preroll cache.
+     *
+     * This method has no effect if the source is not cached.
+     *
+     * @param source    The audio source to remove
+     */
+    public void evictPreroll(AudioSource source) {
+        PrerollCache cache = prerolls;
+        if (cache != null) {
+            cache.remove( source );
+        }
+    }
+
+    /**
+     * Sets the memory budget for sound effect data.
+     *
+     * Sound effects are decoded into OpenAL memory when they are created. If the total
+     * size of this data exceeds the budget, the engine evicts the sound effects that
+     * have not been played recently. An evicted sound effect is decoded again the next
+     * time it is played, which adds latency to that call (see {@link #prewarmSound}).
+     * Sound effects that are currently playing are never evicted. The budget is
+     * enforced once per update. A budget of 0 disables eviction, which is the default.
+     *
+     * @param bytes The maximum size of resident sound data in bytes
+     */
+    public void setSoundBudget(int bytes) {
+        bufferCache.setBudget( bytes );
+    }
+
+    /**
+     * Returns the memory budget for sound effect data (0 for no limit).
+     *
+     * @return the memory budget for sound effect data (0 for no limit).
+     */
+    public int getSoundBudget() {
+        return bufferCache.getBudget();
+    }
+
+    /**
+     * Hints that the given sound effect will be played soon.
+     *
+     * If the sound effect was evicted to stay within the sound budget, it is decoded
+     * again on a background thread, and made resident at a later update. This method
+     * returns false if the sound is already resident (or is already being decoded).
+     *
+     * @param sound The sound effect to pre-warm
+     *
+     * @return true if the sound effect will be decoded
+     */
+    public boolean prewarmSound(SoundEffect sound) {
+        if (noDevice || !(sound instanceof SoundHandle)) {
+            return false;
+        }
+        BufferCache.Entry entry = ((SoundHandle)sound).entry;
+        return entry != null && bufferCache.prewarm( entry );
+    }
+
+    // #mark Deferred Updates
+    /**
+     * Starts a batch of parameter changes.
+     *
+     * OpenAL normally applies every parameter change (gain, pitch, position, effect
+     * sends) as soon as it is made. Between this call and the matching call to
+     * {@link #endBatch}, changes are instead held back and applied together, so they
+     * are never heard half-applied. This uses AL_SOFT_deferred_updates if the context
+     * supports it, and suspends the context otherwise.
+     *
+     * Batches may be nested; the changes are applied when the outermost batch ends.
+     * The engine always batches the changes it makes in {@link #update}.
+     */
+    public synchronized void beginBatch() {
+        if (noDevice) {
+            return;
+        }
+        if (batchDepth++ == 0) {
+            if (deferSupported) {
+                SOFTDeferredUpdates.alDeferUpdatesSOFT();
+            } else {
+                alcSuspendContext( context );
+            }
+        }
+    }
+
+    /**
+     * Ends a batch of parameter changes.
+     *
+     * If this is the outermost batch, all of the changes made since {@link #beginBatch}
+     * are applied at once. This method has no effect if there is no open batch.
+     */
+    public synchronized void endBatch() {
+        if (noDevice || batchDepth == 0) {
+            return;
+        }
+        if (--batchDepth == 0) {
+            if (deferSupported) {
+                SOFTDeferredUpdates.alProcessUpdatesSOFT();
+            } else {
+                alcProcessContext( context );
+            }
+        }
+    }
+
+    /**
+     * Runs the given changes as a single batch.
+     *
+     * This is the same as calling {@link #beginBatch} and {@link #endBatch} around
+     * the changes, except that the batch is ended even if the changes throw an
+     * exception. Otherwise, the context would be left deferring every later change.
+     *
+     * @param changes   The parameter changes to apply together
+     */
+    public void batch(Runnable changes) {
+        beginBatch();
+        try {
+            changes.run();
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * Sets whether to defer parameter changes between engine updates.
+     *
+     * If this is true, the engine keeps a batch open between calls to {@link #update},
+     * so every parameter change made in a frame is applied at once when the engine
+     * updates. This also delays newly played sounds until the next update, so it
+     * should only be enabled if {@link #update} is called every frame. An
+     * {@link AudioDevice} written from another thread is delayed as well. The default
+     * is false.
+     *
+     * @param defer Whether to defer parameter changes between engine updates
+     */
+    public synchronized void setDeferredUpdates(boolean defer) {
+        if (defer == deferFrames) {
+            return;
+        }
+        deferFrames = defer;
+        if (defer) {
+            beginBatch();
+        } else {
+            endBatch();
+        }
+    }
+
+    /**
+     * Returns true if parameter changes are deferred between engine updates.
+     *
+     * @return true if parameter changes are deferred between engine updates.
+     */
+    public boolean getDeferredUpdates() {
+        return deferFrames;
+    }
+
+    // #mark Audio Clock
+    /**
+     * Returns the current time (in seconds) of the audio clock.
+     *
+     * The audio clock measures the time that the audio device has been playing. If
+     * the device supports ALC_SOFT_device_clock, this is the clock of the device
+     * itself. Otherwise, it is the time since this engine was created.
+     *
+     * @return the current time (in seconds) of the audio clock.
+     */
+    public double getAudioTime() {
+        if (!noDevice && deviceClock) {
+            return SOFTDeviceClock.alcGetInteger64vSOFT( device, SOFTDeviceClock.ALC_DEVICE_CLOCK_SOFT )/1.0e9;
+        }
+        return (System.nanoTime()-clockOrigin)/1.0e9;
+    }
+
+    /**
+     * Returns the audio clock time for the given game time.
+     *
+     * Game time is measured in nanoseconds, as by {@link TimeUtils#nanoTime}. The
+     * conversion uses the current offset between the two clocks.
+     *
+     * @param nanoTime  The game time in nanoseconds
+     *
+     * @return the audio clock time (in seconds) for the given game time.
+     */
+    public double toAudioTime(long nanoTime) {
+        return getAudioTime()+(nanoTime-TimeUtils.nanoTime())/1.0e9;
+    }
+
+    /**
+     * Returns the game time for the given audio clock time.
+     *
+     * Game time is measured in nanoseconds, as by {@link TimeUtils#nanoTime}. The
+     * conversion uses the current offset between the two clocks.
+     *
+     * @param audioTime The audio clock time in seconds
+     *
+     * @return the game time (in nanoseconds) for the given audio clock time.
+     */
+    public long toGameTime(double audioTime) {
+        return TimeUtils.nanoTime()+(long)((audioTime-getAudioTime())*1.0e9);
+    }
+
+    /**
+     * Returns true if a start at the given audio time should be handed to OpenAL now.
+     *
+     * @param audioTime The scheduled audio time in seconds
+     *
+     * @return true if a start at the given audio time should be handed to OpenAL now.
+     */
+    private boolean isDue(double audioTime) {
+        return audioTime-getAudioTime() <= SCHEDULE_AHEAD;
+    }
+
+    /**
+     * Fills the given OpenAL buffer with the silence before a scheduled start.
+     *
+     * The amount of silence is the time remaining until the scheduled start, rounded
+     * to the nearest sample frame. This method returns false (and does not touch the
+     * buffer) if the scheduled time has already passed.
+     *
+     * @param bufferId      The OpenAL buffer
+     * @param audioTime     The scheduled audio time in seconds
+     * @param format        The OpenAL buffer format
+     * @param channels      The number of audio channels
+     * @param sampleRate    The sample rate
+     *
+     * @return true if the buffer was filled with silence
+     */
+    private boolean fillSilence(int bufferId, double audioTime, int format, int channels, int sampleRate) {
+        long frames = Math.round( (audioTime-getAudioTime())*sampleRate );
+        if (frames <= 0) {
+            return false;
+        }
+        int bytes = (int)frames*channels*2;
+        if (silenceData == null || silenceData.capacity() < bytes) {
+            silenceData = BufferUtils.createByteBuffer( bytes );
+        }
+        ByteBuffer data = silenceData.duplicate();
+        data.position( 0 );
+        data.limit( bytes );
+        AL10.alBufferData( bufferId, format, data, sampleRate );
+        return true;
+    }
+
+    /**
+     * Queues the given buffer on a source after the silence before a scheduled start.
+     *
+     * Every scheduled sound with the same format shares a single silence buffer. The
+     * source is offset into that buffer so that only the time remaining until the
+     * scheduled start (rounded to the nearest sample frame) is played. This method
+     * returns false (and does not touch the source) if the scheduled time has already
+     * passed.
+     *
+     * @param sourceId      The OpenAL source
+     * @param bufferId      The OpenAL buffer to play at the scheduled time
+     * @param audioTime     The scheduled audio time in seconds
+     * @param format        The OpenAL buffer format
+     * @param channels      The number of audio channels
+     * @param sampleRate    The sample rate
+     *
+     * @return true if the silence was queued
+     */
+    private boolean queueSilence(int sourceId, int bufferId, double audioTime, int format,
+                                 int channels, int sampleRate) {
+        long frames = Math.round( (audioTime-getAudioTime())*sampleRate );
+        if (frames <= 0) {
+            return false;
+        }
+        int length = (int)Math.ceil( SILENCE_LENGTH*sampleRate );
+        int key = 2*sampleRate+(channels > 1 ? 1 : 0);
+        int silence = silenceBuffers.get( key, 0 );
+        if (silence == 0) {
+            silence = AL10.alGenBuffers();
+            int bytes = length*channels*2;
+            if (silenceData == null || silenceData.capacity() < bytes) {
+                silenceData = BufferUtils.createByteBuffer( bytes );
+            }
+            ByteBuffer data = silenceData.duplicate();
+            data.position( 0 );
+            data.limit( bytes );
+            AL10.alBufferData( silence, format, data, sampleRate );
+            silenceBuffers.put( key, silence );
+        }
+        silenceQueue[0] = silence;
+        silenceQueue[1] = bufferId;
+        AL10.alSourceQueueBuffers( sourceId, silenceQueue );
+        AL10.alSourcei( sourceId, AL11.AL_SAMPLE_OFFSET, (int)Math.max( 0, length-frames ) );
+        return true;
+    }
+
+    /**
+     * Returns the runtime statistics for this audio engine.
+     *
+     * The object returned is live, and is updated by the engine as it runs. It is
+     * intended for profiling and debugging, such as detecting assets that are never
+     * disposed.
+     *
+     * @return the runtime statistics for this audio engine.
+     */
+    public AudioStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public EffectFactory getEffectFactory() {
+        return new edu.cornell.gdiac.backend.EffectFactory();
+    }
+
+    // #mark OpenAL Source Controls
+    /**
+     * Returns (and claims) a new OpenAL source for this buffer.
+     *
+     * The source will be permanently claimed until it is free with the method
+     * freeSource.
+     *
+     * @param sound The buffer to claim this OpenAL source
+     */
+    protected int obtainSource (OpenALBuffer sound) {
+        if (noDevice) {
+            return 0;
+        }
+        
+        // Try to find an available buffer
+        int sourceId = -1;
+        for (int next = (recentIndex + 1) % buffers.length; next != recentIndex && sourceId == -1; next = (next + 1) % buffers.length) {
+            if (buffers[next] == null) {
+                buffers[next] = sound;
+                sourceId = indexToSource.get( next, -1 );
+                recentIndex = next;
+            }
+        }
+        
+        // Try to evict the oldest evictable buffer
+        if (sourceId == -1) {
+            for (int next = (recentIndex + 1) % buffers.length; next != recentIndex && sourceId == -1; next = (next + 1) % buffers.length) {
+                if (buffers[next] != null && buffers[next].evictable()) {
+                    sourceId = indexToSource.get( next, -1 );
+                    stopSource(sourceId);
+                    buffers[next] = sound;
+                    recentIndex = next;
+                }
+            }
+        }
+
+        if (sourceId != -1) {
+            bindSource( sourceToIndex.get( sourceId, -1 ), busOf( sound ) );
+        }
+        return sourceId;
+    }
+    
+    /**
+     * Frees a previously claimed OpenAL source.
+     *
+     * This method releases a source claimed by obtainSource.
+     *
+     * @param sourceId  The OpenAL source
+     */
+    protected void freeSource (int sourceId) {
+        if (noDevice) {
+            return;
+        }
+
+        AL10.alSourceStop(sourceId);
+        AL10.alSourcei(sourceId, AL10.AL_BUFFER, 0);
         int index = sourceToIndex.get(sourceId, -1);
         buffers[index] = null;
+        sourceStates[index] = AL10.AL_STOPPED;
+        sourceDeadlines[index] = 0;
+        clearSends( index );
+        clearFilter( index );
+        sourceBuses[index] = null;
     }
 
     /**
@@ -740,7 +1681,47 @@ public class GDXAudio implements AudioEngine {
         if (sourceId != -1 && !noDevice) {
             AL10.alSourceStop(sourceId);
             AL10.alSourcei(sourceId, AL10.AL_BUFFER, 0);
-            buffers[sourceToIndex.get(sourceId,-1)] = null;
+            int index = sourceToIndex.get(sourceId, -1);
+            buffers[index] = null;
+            sourceStates[index] = AL10.AL_STOPPED;
+            sourceDeadlines[index] = 0;
+            clearSends( index );
+            clearFilter( index );
+            sourceBuses[index] = null;
+        }
+    }
+
+    /**
+     * Plays an OpenAL source, recording its state.
+     *
+     * Unlike {@link #resumeSource}, this method ignores the global pause. This method
+     * has no effect if the source id is invalid.
+     *
+     * @param sourceId  The OpenAL source
+     */
+    public void playSource(int sourceId) {
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            AL10.alSourcePlay(sourceId);
+            sourceStates[index] = AL10.AL_PLAYING;
+            sourceDeadlines[index] = 0;
+        }
+    }
+
+    /**
+     * Halts an OpenAL source, recording its state.
+     *
+     * Unlike {@link #stopSource}, this method leaves the buffers attached to the source
+     * and does not release it.  This method has no effect if the source id is invalid.
+     *
+     * @param sourceId  The OpenAL source
+     */
+    public void haltSource(int sourceId) {
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            AL10.alSourceStop(sourceId);
+            sourceStates[index] = AL10.AL_STOPPED;
+            sourceDeadlines[index] = 0;
         }
     }
     
@@ -757,6 +1738,9 @@ public class GDXAudio implements AudioEngine {
                 paused[sourceToIndex.get(sourceId, -1)] = true;
             } else if (AL10.alGetSourcei(sourceId, AL10.AL_SOURCE_STATE) == AL10.AL_PLAYING) {
                 AL10.alSourcePause(sourceId);
+                int index = sourceToIndex.get(sourceId, -1);
+                sourceStates[index] = AL10.AL_PAUSED;
+                sourceDeadlines[index] = Long.MAX_VALUE;
             }
         }
     }
@@ -773,7 +1757,7 @@ public class GDXAudio implements AudioEngine {
             if (globalPause) {
                 paused[sourceToIndex.get(sourceId, -1)] = true;
             } else if (AL10.alGetSourcei(sourceId, AL10.AL_SOURCE_STATE) == AL10.AL_PAUSED) {
-                AL10.alSourcePlay(sourceId);
+                playSource(sourceId);
             }
         }
     }
@@ -781,15 +1765,19 @@ public class GDXAudio implements AudioEngine {
     /**
      * Returns the OpenAL state for a source.
      *
-     * This method returns AL10.AL_STOPPED if the source id is invalid.
+     * This value does not query OpenAL. It is the state recorded by the last change
+     * made through this engine, or by the last {@link #update}, whichever is more
+     * recent. So a source that runs out of data is reported as playing until the next
+     * update. This method returns AL10.AL_STOPPED if the source id is invalid.
      *
      * @param sourceId  The OpenAL source
      *
      * @return  the OpenAL state for a source.
      */
     public int getSourceState(int sourceId) {
-        if (sourceId != -1 && !noDevice) {
-            return AL10.alGetSourcei(sourceId, AL10.AL_SOURCE_STATE);
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            return sourceStates[index];
         }
         return AL10.AL_STOPPED;
     }
@@ -804,8 +1792,11 @@ public class GDXAudio implements AudioEngine {
      * @param gain      The new gain.
      */
     public void setSourceGain(int sourceId, float gain) {
-        if (sourceId != -1 && !noDevice) {
-            AL10.alSourcef(sourceId, AL10.AL_GAIN, gain);
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            sourceGains[index] = gain;
+            BusHandle bus = sourceBuses[index];
+            AL10.alSourcef(sourceId, AL10.AL_GAIN, bus == null ? gain : gain*bus.effective);
         }
     }
 
@@ -820,8 +1811,9 @@ public class GDXAudio implements AudioEngine {
      * @return the gain (volume) for an OpenAL source.
      */
     public float getSourceGain(int sourceId) {
-        if (sourceId != -1 && !noDevice) {
-            return AL10.alGetSourcef(sourceId, AL10.AL_GAIN);
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            return sourceGains[index];
         }
         return -1.0f;
     }
@@ -835,7 +1827,10 @@ public class GDXAudio implements AudioEngine {
      * @param loop      Whether to loop the source
      */
     public void setSourceLoop(int sourceId, boolean loop) {
-        if (sourceId != -1 && !noDevice) {
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            sourceLoops[index] = loop;
+            sourceDeadlines[index] = 0;
             AL10.alSourcei(sourceId, AL10.AL_LOOPING, loop ? AL10.AL_TRUE : AL10.AL_FALSE);
         }
     }
@@ -850,8 +1845,9 @@ public class GDXAudio implements AudioEngine {
      * @return whether to loop an OpenAL source.
      */
     public boolean getSourceLoop(int sourceId) {
-        if (sourceId != -1 && !noDevice) {
-            return AL10.alGetSourcei(sourceId, AL10.AL_LOOPING) == AL10.AL_TRUE;
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            return sourceLoops[index];
         }
         return false;
     }
@@ -866,7 +1862,10 @@ public class GDXAudio implements AudioEngine {
      * @param pitch     The new pitch.
      */
     public void setSourcePitch(int sourceId, float pitch) {
-        if (sourceId != -1 && !noDevice) {
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            sourcePitches[index] = pitch;
+            sourceDeadlines[index] = 0;
             AL10.alSourcef(sourceId, AL10.AL_PITCH, pitch);
         }
     }
@@ -882,8 +1881,9 @@ public class GDXAudio implements AudioEngine {
      * @return the pitch (speed) for an OpenAL source.
      */
     public float getSourcePitch(int sourceId) {
-        if (sourceId != -1 && !noDevice) {
-            return AL10.alGetSourcef(sourceId, AL10.AL_PITCH);
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            return sourcePitches[index];
         }
         return 1.0f;
     }
@@ -898,7 +1898,9 @@ public class GDXAudio implements AudioEngine {
      * @param pan       The new pan.
      */
     public void setSourcePan(int sourceId, float pan) {
-        if (sourceId != -1 && !noDevice) {
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            sourcePans[index] = pan;
             AL10.alSource3f(sourceId, AL10.AL_POSITION,
                             MathUtils.cos((pan - 1) * MathUtils.PI / 2), 0,
                             MathUtils.sin((pan + 1) * MathUtils.PI / 2));
@@ -916,11 +1918,9 @@ public class GDXAudio implements AudioEngine {
      * @return the pan for an OpenAL source.
      */
     public float getSourcePan(int sourceId) {
-        if (sourceId != -1 && !noDevice) {
-            AL10.alGetSourcef(sourceId, AL10.AL_POSITION, floatdata);
-            float x = (float)Math.acos(floatdata.get());
-            floatdata.clear();
-            return (2*x/MathUtils.PI)+1;
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            return sourcePans[index];
         }
         return 0.0f;
     }
@@ -934,7 +1934,9 @@ public class GDXAudio implements AudioEngine {
      * @param seconds   The offset in seconds
      */ 
     public void setSourceSecOffset(int sourceId, float seconds) {
-        if (sourceId != -1 && !noDevice) {
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            sourceDeadlines[index] = 0;
             AL10.alSourcef(sourceId, AL11.AL_SEC_OFFSET, seconds);
         }
     }
@@ -964,7 +1966,9 @@ public class GDXAudio implements AudioEngine {
      * @param offset    The offset in bytes
      */ 
     public void setSourceByteOffset(int sourceId, int offset) {
-        if (sourceId != -1 && !noDevice) {
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            sourceDeadlines[index] = 0;
             AL10.alSourcei(sourceId, AL11.AL_BYTE_OFFSET, offset);
         }    
     }
@@ -990,53 +1994,1516 @@ public class GDXAudio implements AudioEngine {
      *
      * This method is used to push data to the music buffers, and to invoke
      * any necessary callback functions.  It must be executed in the main
-     * thread.
+     * thread.  It also reclaims the resources of any audio assets that were
+     * garbage collected without being disposed.
      */
     public void update () {
         if (noDevice) {
             return;
         }
-        for(int ii = 0; ii < buffers.length; ii++) {
-            if (buffers[ii] != null) {
-                buffers[ii].update( indexToSource.get(ii, -1) );
+        registry.drain();
+        if (!deferFrames) {
+            beginBatch();
+        }
+        try {
+            refreshSourceStates();
+            for(int ii = 0; ii < buffers.length; ii++) {
+                if (buffers[ii] != null) {
+                    buffers[ii].update( indexToSource.get(ii, -1) );
+                }
+            }
+
+            bufferCache.flush();
+            if (bufferCache.isOverBudget()) {
+                busyBuffers.clear();
+                for(int ii = 0; ii < buffers.length; ii++) {
+                    if (buffers[ii] instanceof SoundHandle) {
+                        // Scheduled sounds may queue silence ahead of their buffer
+                        BufferCache.Entry entry = ((SoundHandle)buffers[ii]).entry;
+                        if (entry != null && entry.isResident()) {
+                            busyBuffers.add( entry.getBuffer() );
+                        }
+                    }
+                }
+                bufferCache.trim( busyBuffers );
+            }
+            updateDucking();
+            updateBuses();
+            updateRamps();
+            updateAutomation();
+            flushEffects();
+            flushFilters();
+        } finally {
+            // Apply this update (and the frame, if deferred), then reopen the frame batch
+            // This must happen even if a callback fails, or changes are held back forever
+            endBatch();
+            if (deferFrames) {
+                beginBatch();
             }
         }
     }
 
-    // #mark -
-    // #mark Sound Buffer
     /**
-     * This class implements a sound buffer for this audio engine
+     * Queries the state of the sources in use that may have changed.
      *
-     * OpenAL sound buffers obtain a lock on an OpenAL source, so they must be an inner 
-     * class of this engine.  The original {@link OpenALSound} was an ersatz inner class 
-     * with a reference to the audio engine. However, because it was not a true inner 
-     * class, this created all sorts of package access issues.  We have decided to 
-     * simplify this by making the class a true inner class.
+     * This is the only time that the engine polls OpenAL for the play state. All other
+     * state queries use the values recorded here (or by a later state change). A
+     * source with a predicted end (see {@link #predictSourceEnd}) is not polled until
+     * shortly before that time. Every {@link #SWEEP_INTERVAL}, all sources in use are
+     * polled anyway, to catch anything the prediction missed.
+     */
+    private void refreshSourceStates() {
+        long now = TimeUtils.nanoTime();
+        boolean sweep = now >= nextSweep;
+        if (sweep) {
+            nextSweep = now+SWEEP_INTERVAL;
+        }
+        for(int ii = 0; ii < buffers.length; ii++) {
+            if (buffers[ii] != null && (sweep || sourceDeadlines[ii] <= now)) {
+                sourceStates[ii] = AL10.alGetSourcei( indexToSource.get( ii, -1 ), AL10.AL_SOURCE_STATE );
+            }
+        }
+    }
+
+    /**
+     * Predicts when the given source will finish playing.
      *
-     * This is an abusive subclass of OpenALSound.  It subclasses it for interface 
-     * purposes only.  As the constructor for OpenALSound does not acquire any resources
-     * (that is done in setup) this causes no problems.
+     * Until shortly before the predicted time, {@link #update} will not poll the state
+     * of this source (other than in its periodic sweep). The prediction is discarded
+     * whenever the source is played, stopped, paused, or has its pitch, looping, or
+     * offset changed. This method has no effect if the source id is invalid.
+     *
+     * @param sourceId  The OpenAL source
+     * @param remaining The audio left to play (in seconds at normal pitch)
+     */
+    public void predictSourceEnd(int sourceId, float remaining) {
+        int index = sourceToIndex.get(sourceId, -1);
+        if (index != -1 && !noDevice) {
+            float pitch = Math.max( sourcePitches[index], 0.01f );
+            long delay = (long)(Math.max( remaining, 0 )/pitch*1000000000.0);
+            sourceDeadlines[index] = Math.max( TimeUtils.nanoTime()+delay-PREDICTION_LEAD, 1 );
+        }
+    }
+
+    /**
+     * Returns true if the given source has a predicted end.
+     *
+     * @param sourceId  The OpenAL source
+     *
+     * @return true if the given source has a predicted end.
+     */
+    public boolean isSourcePredicted(int sourceId) {
+        int index = sourceToIndex.get(sourceId, -1);
+        return index != -1 && sourceDeadlines[index] != 0;
+    }
+
+    // #mark Parameter Ramps
+    /** The ramp kind for source gain (volume) */
+    private static final int RAMP_GAIN  = 0;
+    /** The ramp kind for source pitch */
+    private static final int RAMP_PITCH = 1;
+    /** The ramp kind for source pan */
+    private static final int RAMP_PAN   = 2;
+    /** The ramp kind for an effect attribute */
+    private static final int RAMP_EFFECT = 3;
+
+    /** The active parameter ramps */
+    private final Array<ParameterRamp> ramps = new Array<ParameterRamp>();
+    /** The ramps that ended this update (to notify after stepping) */
+    private final Array<ParameterRamp> endedRamps = new Array<ParameterRamp>();
+    /** The effects whose attributes changed since the last update */
+    private final Array<Effect> dirtyEffects = new Array<Effect>();
+
+    /**
+     * This class is a parameter ramp evaluated by the engine.
+     *
+     * The target of a ramp is either a sound instance (a sound buffer and sound id),
+     * a music buffer, or an effect attribute. The ramp is stepped once per engine
+     * update, and so its resolution is the update rate of the application.
+     */
+    private class ParameterRamp implements AudioRamp {
+        /** The parameter kind */
+        private final int kind;
+        /** The sound buffer, music buffer, or effect being ramped */
+        private final Object target;
+        /** The sound instance (for sound buffers) */
+        private final long soundId;
+        /** The effect attribute (for effects) */
+        private final int attribute;
+        /** The start value */
+        private final float from;
+        /** The target value */
+        private final float to;
+        /** The start time in nanoseconds */
+        private final long start;
+        /** The ramp length in nanoseconds */
+        private final long length;
+        /** The shape of this ramp */
+        private final Curve curve;
+        /** The listener to notify when this ramp ends */
+        private final Listener listener;
+        /** Whether to stop the target when this ramp completes */
+        private boolean stopAtEnd;
+        /** The music volume to restore after stopping (or -1 to leave it) */
+        private float restore = -1;
+        /** The current progress in [0,1] */
+        private float progress;
+        /** Whether this ramp has not yet ended */
+        private boolean active;
+
+        /**
+         * Creates a new ramp for the given target
+         *
+         * @param kind      The parameter kind
+         * @param target    The sound buffer, music buffer, or effect being ramped
+         * @param soundId   The sound instance (for sound buffers)
+         * @param attribute The effect attribute (for effects)
+         * @param from      The start value
+         * @param to        The target value
+         * @param seconds   The ramp length in seconds
+         * @param curve     The shape of the ramp (null for linear)
+         * @param listener  The listener to notify when the ramp ends
+         */
+        ParameterRamp(int kind, Object target, long soundId, int attribute, float from, float to,
+                      float seconds, Curve curve, Listener listener) {
+            if (seconds < 0) {
+                throw new IllegalArgumentException( "Ramp length cannot be negative" );
+            }
+            this.kind = kind;
+            this.target = target;
+            this.soundId = soundId;
+            this.attribute = attribute;
+            this.from = from;
+            this.to = to;
+            this.start = TimeUtils.nanoTime();
+            this.length = (long)(seconds*1000000000.0);
+            this.curve = curve == null ? Curve.LINEAR : curve;
+            this.listener = listener;
+            this.active = true;
+        }
+
+        @Override
+        public void cancel() {
+            if (active && ramps.removeValue( this, true )) {
+                finish( false );
+            }
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public float getProgress() {
+            return progress;
+        }
+
+        @Override
+        public float getTarget() {
+            return to;
+        }
+
+        /**
+         * Returns true if this ramp controls the same parameter as the given one
+         *
+         * @param other The ramp to compare
+         *
+         * @return true if this ramp controls the same parameter as the given one
+         */
+        boolean overlaps(ParameterRamp other) {
+            return target == other.target && kind == other.kind &&
+                   soundId == other.soundId && attribute == other.attribute;
+        }
+
+        /**
+         * Advances this ramp to the given time.
+         *
+         * This method returns false if the ramp has ended, either because it reached
+         * its target or because the target is no longer valid.
+         *
+         * @param now   The current time in nanoseconds
+         *
+         * @return true if the ramp is still active
+         */
+        boolean step(long now) {
+            progress = length <= 0 ? 1 : Math.min( 1.0f, (now-start)/(float)length );
+            if (!apply( curve.interpolate( from, to, progress ) )) {
+                progress = Math.min( progress, 0.999f );
+                return false;
+            }
+            return progress < 1;
+        }
+
+        /**
+         * Applies the given value to the target parameter
+         *
+         * Music is no longer valid once it stops (or is paused), unless its start is
+         * scheduled.
+         *
+         * @param value The parameter value
+         *
+         * @return false if the target is no longer valid
+         */
+        private boolean apply(float value) {
+            if (target instanceof SoundHandle) {
+                int sourceId = ((SoundHandle)target).toSource( soundId );
+                if (sourceId == -1) {
+                    return false;
+                }
+                switch (kind) {
+                    case RAMP_GAIN:
+                        setSourceGain( sourceId, value );
+                        break;
+                    case RAMP_PITCH:
+                        setSourcePitch( sourceId, value );
+                        break;
+                    case RAMP_PAN:
+                        setSourcePan( sourceId, value );
+                        break;
+                }
+            } else if (target instanceof MusicHandle) {
+                MusicHandle music = (MusicHandle)target;
+                if (!music.isPlaying && music.scheduled < 0) {
+                    return false;
+                }
+                switch (kind) {
+                    case RAMP_GAIN:
+                        music.setVolume( value );
+                        break;
+                    case RAMP_PITCH:
+                        music.setPitch( value );
+                        break;
+                    case RAMP_PAN:
+                        music.setPan( value );
+                        break;
+                }
+            } else if (target instanceof Effect) {
+                Effect effect = (Effect)target;
+                if (!alIsEffect( effect.getId() )) {
+                    return false;
+                }
+                effect.setAttribute( attribute, value );
+            }
+            return true;
+        }
+
+        /**
+         * Ends this ramp, notifying the listener
+         *
+         * @param completed Whether the ramp reached its target value
+         */
+        void finish(boolean completed) {
+            active = false;
+            if (completed && stopAtEnd) {
+                if (target instanceof SoundHandle) {
+                    ((SoundHandle)target).stop( soundId );
+                } else if (target instanceof MusicHandle) {
+                    MusicHandle music = (MusicHandle)target;
+                    music.stop();
+                    if (restore >= 0) {
+                        music.setVolume( restore );
+                    }
+                }
+            }
+            if (listener != null) {
+                listener.onRampEnd( this, completed );
+            }
+        }
+    }
+
+    /**
+     * Ramps an attribute of the given effect to a target value.
+     *
+     * The ramp is performed by the engine on each update, starting from the current
+     * value of the attribute. The attribute is one of the EFX effect parameters (such
+     * as {@link EXTEfx#AL_REVERB_GAIN}) for the type of the effect. Starting another
+     * ramp (or automation) on the same attribute cancels this one. The ramp ends early (without
+     * completing) if the effect is disposed.
+     *
+     * @param effect    The effect to modify
+     * @param attribute The EFX attribute to ramp
+     * @param value     The target value of the attribute
+     * @param seconds   The length of the ramp in seconds
+     * @param curve     The shape of the ramp (null for linear)
+     * @param listener  The listener to notify when the ramp ends (may be null)
+     *
+     * @return the active ramp
+     */
+    public AudioRamp rampEffect(EffectFilter effect, int attribute, float value, float seconds,
+                                AudioRamp.Curve curve, AudioRamp.Listener listener) {
+        if (!(effect instanceof Effect)) {
+            throw new IllegalArgumentException( "Effect does not belong to this engine" );
+        }
+        cancelAutomation( effect, attribute );
+        float current = noDevice ? value : alGetEffectf( ((Effect)effect).getId(), attribute );
+        return startRamp( new ParameterRamp( RAMP_EFFECT, effect, -1, attribute, current, value,
+                                             seconds, curve, listener ) );
+    }
+
+    /**
+     * Schedules the given effect to be re-attached to its slot on the next update.
+     *
+     * This is called by {@link Effect} when one of its attributes changes. However
+     * many attributes change, the effect is re-attached only once per update.
+     *
+     * @param effect    The changed effect
+     */
+    void markEffect(Effect effect) {
+        dirtyEffects.add( effect );
+    }
+
+    /**
+     * Re-attaches every changed effect to its auxiliary slot.
+     */
+    private void flushEffects() {
+        for(int ii = 0; ii < dirtyEffects.size; ii++) {
+            Effect effect = dirtyEffects.get( ii );
+            if (effect.dirty) {
+                effect.dirty = false;
+                refreshEffect( effect );
+            }
+        }
+        dirtyEffects.clear();
+    }
+
+    /**
+     * Re-attaches the given effect to its auxiliary slot.
+     *
+     * Changes to an effect are only heard once the effect is attached to its slot
+     * again. This method has no effect if the effect is not loaded.
+     *
+     * @param effect    The effect to refresh
+     */
+    private void refreshEffect(Effect effect) {
+        if (effect.slot != -1) {
+            alAuxiliaryEffectSloti( auxiliaryEfxSlots[effect.slot], AL_EFFECTSLOT_EFFECT, effect.getId() );
+        }
+    }
+
+    /**
+     * Starts the given ramp, cancelling any ramp on the same parameter
+     *
+     * A ramp of length 0 is applied immediately, and is no longer active when it is
+     * returned.
+     *
+     * @param ramp  The ramp to start
+     *
+     * @return the ramp started
+     */
+    private ParameterRamp startRamp(ParameterRamp ramp) {
+        for(int ii = ramps.size-1; ii >= 0; ii--) {
+            if (ramps.get( ii ).overlaps( ramp )) {
+                ramps.get( ii ).cancel();
+            }
+        }
+        if (noDevice) {
+            ramp.progress = 1;
+            ramp.finish( true );
+        } else if (ramp.step( TimeUtils.nanoTime() )) {
+            ramps.add( ramp );
+        } else {
+            ramp.finish( ramp.progress >= 1 );
+        }
+        return ramp;
+    }
+
+    /**
+     * Cancels every active ramp on the given target.
+     *
+     * @param target    The sound, music or effect being disposed
+     */
+    private void cancelRamps(Object target) {
+        for(int ii = ramps.size-1; ii >= 0; ii--) {
+            if (ii < ramps.size && ramps.get( ii ).target == target) {
+                ramps.get( ii ).cancel();
+            }
+        }
+    }
+
+    /**
+     * Advances all active parameter ramps.
+     *
+     * Listeners are notified after all ramps are stepped, so they may safely start or
+     * cancel other ramps.
+     */
+    private void updateRamps() {
+        if (ramps.size == 0) {
+            return;
+        }
+        long now = TimeUtils.nanoTime();
+        for(int ii = 0; ii < ramps.size; ) {
+            ParameterRamp ramp = ramps.get( ii );
+            if (ramp.step( now )) {
+                ii++;
+            } else {
+                ramps.removeIndex( ii );
+                endedRamps.add( ramp );
+            }
+        }
+        for(int ii = 0; ii < endedRamps.size; ii++) {
+            ParameterRamp ramp = endedRamps.get( ii );
+            ramp.finish( ramp.progress >= 1 );
+        }
+        endedRamps.clear();
+    }
+
+    // #mark Mix Buses
+    /** The buses of this engine by name */
+    private final ObjectMap<String,BusHandle> buses = new ObjectMap<String,BusHandle>();
+    /** The buses of this engine, with every parent before its children */
+    private final Array<BusHandle> busOrder = new Array<BusHandle>();
+    /** The master bus */
+    private BusHandle masterBus;
+    /** Whether any bus changed since the last update */
+    private boolean busesDirty;
+    /** The bus of each source slot (null if the slot is free) */
+    private BusHandle[] sourceBuses;
+    /** The sends of each source slot used by bus effects (as a bit mask) */
+    private int[] busSendMask;
+
+    /**
+     * This class is a node of the mixing hierarchy.
+     *
+     * A bus does not touch OpenAL directly. It only records its changes, which the
+     * engine applies to the sources below it on the next update.
+     */
+    private class BusHandle implements MixBus {
+        /** The name of this bus */
+        private final String name;
+        /** The parent of this bus (null for the master bus) */
+        private final BusHandle parent;
+        /** The buses directly below this one */
+        private final Array<BusHandle> children = new Array<BusHandle>();
+        /** The effects shared by every sound below this bus */
+        private final Array<EffectFilter> effects = new Array<EffectFilter>();
+        /** The volume of this bus */
+        private float volume = 1.0f;
+        /** Whether this bus is muted */
+        private boolean muted;
+        /** The volume of this bus after its parents are applied */
+        private float effective = 1.0f;
+        /** Whether the effective volume changed on the last update */
+        private boolean gainChanged;
+        /** Whether the effects of this bus changed since the last update */
+        private boolean effectsDirty;
+        /** Whether the effects of this bus (or a parent) changed on the last update */
+        private boolean sendsChanged;
+        /** The volume multiplier applied by ducking rules */
+        private float duck = 1.0f;
+        /** The ducking multiplier being computed this update */
+        private float nextDuck = 1.0f;
+        /** The number of voices playing below this bus (counted only when ducking) */
+        private int voices;
+
+        /**
+         * Creates a new bus with the given name and parent
+         *
+         * @param name      The name of this bus
+         * @param parent    The parent of this bus (null for the master bus)
+         */
+        BusHandle(String name, BusHandle parent) {
+            this.name = name;
+            this.parent = parent;
+            if (parent != null) {
+                parent.children.add( this );
+                effective = parent.effective;
+            }
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public MixBus getParent() {
+            return parent;
+        }
+
+        @Override
+        public int getChildCount() {
+            return children.size;
+        }
+
+        @Override
+        public MixBus getChild(int index) {
+            return children.get( index );
+        }
+
+        @Override
+        public float getVolume() {
+            return volume;
+        }
+
+        @Override
+        public void setVolume(float volume) {
+            if (volume < 0) {
+                throw new IllegalArgumentException( "Bus volume cannot be negative" );
+            }
+            this.volume = volume;
+            busesDirty = true;
+        }
+
+        @Override
+        public boolean isMuted() {
+            return muted;
+        }
+
+        @Override
+        public void setMuted(boolean muted) {
+            this.muted = muted;
+            busesDirty = true;
+        }
+
+        @Override
+        public float getEffectiveVolume() {
+            return effective;
+        }
+
+        @Override
+        public void addEffect(EffectFilter effect) {
+            if (!(effect instanceof Effect)) {
+                throw new IllegalArgumentException( "Effect does not belong to this engine" );
+            } else if (!effects.contains( effect, true )) {
+                effects.add( effect );
+                effectsDirty = true;
+                busesDirty = true;
+            }
+        }
+
+        @Override
+        public void removeEffect(EffectFilter effect) {
+            if (effects.removeValue( effect, true )) {
+                effectsDirty = true;
+                busesDirty = true;
+            }
+        }
+
+        @Override
+        public void clearEffects() {
+            if (effects.size > 0) {
+                effects.clear();
+                effectsDirty = true;
+                busesDirty = true;
+            }
+        }
+
+        @Override
+        public int getEffectCount() {
+            return effects.size;
+        }
+
+        @Override
+        public EffectFilter getEffect(int index) {
+            return effects.get( index );
+        }
+
+        /**
+         * Returns true if this bus has effects, or a parent does.
+         *
+         * @return true if this bus has effects, or a parent does.
+         */
+        boolean hasSends() {
+            for(BusHandle bus = this; bus != null; bus = bus.parent) {
+                if (bus.effects.size > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "MixBus["+name+"]";
+        }
+    }
+
+    /**
+     * Creates the built-in buses.
+     */
+    private void initBuses() {
+        masterBus = new BusHandle( MixBus.MASTER, null );
+        buses.put( masterBus.name, masterBus );
+        busOrder.add( masterBus );
+        newBus( MixBus.MUSIC, masterBus );
+        newBus( MixBus.SFX, masterBus );
+        newBus( MixBus.UI, masterBus );
+        newBus( MixBus.VOICE, masterBus );
+    }
+
+    /**
+     * Returns the master bus of this engine.
+     *
+     * @return the master bus of this engine.
+     */
+    public MixBus getMasterBus() {
+        return masterBus;
+    }
+
+    /**
+     * Returns the bus with the given name (or null if there is none).
+     *
+     * The names of the built-in buses are the constants of {@link MixBus}.
+     *
+     * @param name  The bus name
+     *
+     * @return the bus with the given name (or null if there is none).
+     */
+    public MixBus getBus(String name) {
+        return buses.get( name );
+    }
+
+    /**
+     * Returns a new bus with the given name and parent.
+     *
+     * @param name      The bus name (which must be unique)
+     * @param parent    The parent bus (null for the master bus)
+     *
+     * @return a new bus with the given name and parent.
+     */
+    public MixBus newBus(String name, MixBus parent) {
+        if (name == null) {
+            throw new IllegalArgumentException( "Bus name cannot be null" );
+        } else if (buses.containsKey( name )) {
+            throw new IllegalArgumentException( "There is already a bus named '"+name+"'" );
+        } else if (parent != null && !(parent instanceof BusHandle && buses.get( parent.getName() ) == parent)) {
+            throw new IllegalArgumentException( "Bus does not belong to this engine" );
+        }
+        BusHandle result = new BusHandle( name, parent == null ? masterBus : (BusHandle)parent );
+        buses.put( name, result );
+        busOrder.add( result );
+        return result;
+    }
+
+    /**
+     * Returns the bus handle for a bus assigned by the user.
+     *
+     * @param bus       The bus assigned (may be null)
+     * @param fallback  The name of the bus to use if it is null
+     *
+     * @return the bus handle for a bus assigned by the user.
+     */
+    private BusHandle toBus(MixBus bus, String fallback) {
+        if (bus == null) {
+            return buses.get( fallback );
+        } else if (!(bus instanceof BusHandle) || buses.get( bus.getName() ) != bus) {
+            throw new IllegalArgumentException( "Bus does not belong to this engine" );
+        }
+        return (BusHandle)bus;
+    }
+
+    /**
+     * Returns the bus of the given buffer.
+     *
+     * Audio devices do not have a bus of their own, and play through the master bus.
+     *
+     * @param buffer    The buffer claiming a source
+     *
+     * @return the bus of the given buffer.
+     */
+    private BusHandle busOf(OpenALBuffer buffer) {
+        if (buffer instanceof SoundHandle) {
+            return ((SoundHandle)buffer).bus;
+        } else if (buffer instanceof MusicHandle) {
+            return ((MusicHandle)buffer).bus;
+        }
+        return masterBus;
+    }
+
+    /**
+     * Assigns a source slot to a bus, applying the bus volume and effects.
+     *
+     * @param index The source slot
+     * @param bus   The bus (null to release the slot from its bus)
+     */
+    private void bindSource(int index, BusHandle bus) {
+        if (noDevice) {
+            return;
+        }
+        BusHandle prior = sourceBuses[index];
+        sourceBuses[index] = bus;
+        int sourceId = indexToSource.get( index, -1 );
+        if (bus != null) {
+            if (prior == null || prior.effective != bus.effective) {
+                AL10.alSourcef( sourceId, AL10.AL_GAIN, sourceGains[index]*bus.effective );
+            }
+            if (busSendMask[index] != 0 || bus.hasSends()) {
+                bindSends( index );
+            }
+        } else if (busSendMask[index] != 0) {
+            bindSends( index );
+        }
+    }
+
+    /**
+     * Attaches the bus effects to the sends of a source slot.
+     *
+     * Any previous bus effects are removed first. Bus effects are attached from the
+     * highest send down, from the bus of the source up to the master bus, and never
+     * replace the effects of the sound itself. Effects that do not fit are skipped.
+     *
+     * @param index The source slot
+     */
+    private void bindSends(int index) {
+        int sourceId = indexToSource.get( index, -1 );
+        Effect[] sends = sourceSends[index];
+        for(int ii = 0; ii < sends.length; ii++) {
+            if ((busSendMask[index] & (1 << ii)) != 0) {
+                removeEffect( sourceId, ii );
+            }
+        }
+
+        int send = sends.length-1;
+        for(BusHandle bus = sourceBuses[index]; bus != null; bus = bus.parent) {
+            for(int ii = 0; ii < bus.effects.size; ii++) {
+                while (send >= 0 && sends[send] != null) {
+                    send--;
+                }
+                if (send < 0) {
+                    return;
+                }
+                if (setEffect( sourceId, bus.effects.get( ii ), send )) {
+                    busSendMask[index] |= 1 << send;
+                }
+                send--;
+            }
+        }
+    }
+
+    /**
+     * Returns true if the given send of a source carries a bus effect.
+     *
+     * @param sourceId  The OpenAL source
+     * @param sendSlot  The auxiliary send
+     *
+     * @return true if the given send of a source carries a bus effect.
+     */
+    private boolean isBusSend(int sourceId, int sendSlot) {
+        int index = sourceToIndex.get( sourceId, -1 );
+        return index != -1 && (busSendMask[index] & (1 << sendSlot)) != 0;
+    }
+
+    /**
+     * Moves the active sources of a buffer to the given bus.
+     *
+     * @param buffer    The buffer whose bus changed
+     * @param bus       The new bus
+     */
+    private void rebindBuffer(OpenALBuffer buffer, BusHandle bus) {
+        for(int ii = 0; ii < buffers.length; ii++) {
+            if (buffers[ii] == buffer && sourceBuses[ii] != null && sourceBuses[ii] != bus) {
+                bindSource( ii, bus );
+            }
+        }
+    }
+
+    /**
+     * Applies all bus changes since the last update.
+     *
+     * The effective volumes are computed once per bus, parents first. Only then are
+     * the sources visited, and only those whose bus actually changed are touched. So
+     * any number of bus changes in a frame costs a single pass.
+     */
+    private void updateBuses() {
+        if (!busesDirty) {
+            return;
+        }
+        busesDirty = false;
+        boolean changed = false;
+        for(int ii = 0; ii < busOrder.size; ii++) {
+            BusHandle bus = busOrder.get( ii );
+            float gain = bus.muted ? 0 : bus.volume*bus.duck;
+            if (bus.parent != null) {
+                gain *= bus.parent.effective;
+            }
+            bus.gainChanged = gain != bus.effective;
+            bus.effective = gain;
+            bus.sendsChanged = bus.effectsDirty || (bus.parent != null && bus.parent.sendsChanged);
+            bus.effectsDirty = false;
+            changed = changed || bus.gainChanged || bus.sendsChanged;
+        }
+        if (!changed || noDevice) {
+            return;
+        }
+
+        for(int ii = 0; ii < sourceBuses.length; ii++) {
+            BusHandle bus = sourceBuses[ii];
+            if (bus == null) {
+                continue;
+            }
+            if (bus.gainChanged) {
+                AL10.alSourcef( indexToSource.get( ii, -1 ), AL10.AL_GAIN, sourceGains[ii]*bus.effective );
+            }
+            if (bus.sendsChanged) {
+                bindSends( ii );
+            }
+        }
+    }
+
+    // #mark Ducking
+    /** The active ducking rules */
+    private final Array<DuckHandle> duckRules = new Array<DuckHandle>();
+    /** Whether any bus is currently attenuated by a ducking rule */
+    private boolean ducking;
+    /** The time of the last ducking update in nanoseconds */
+    private long lastDuck;
+
+    /**
+     * This class is a sidechain ducking rule between two buses.
+     */
+    private class DuckHandle implements DuckingRule {
+        /** The bus that triggers this rule */
+        private final BusHandle trigger;
+        /** The bus ducked by this rule */
+        private final BusHandle target;
+        /** The volume multiplier of the target when fully ducked */
+        private float volume;
+        /** The time to duck the target in seconds */
+        private float attack;
+        /** The time to keep the target ducked in seconds */
+        private float hold;
+        /** The time to restore the target in seconds */
+        private float release;
+        /** How far the target is ducked, from 0 to 1 */
+        private float level;
+        /** The hold time remaining in seconds */
+        private float holdLeft;
+        /** Whether this rule has not been removed */
+        private boolean active;
+
+        /**
+         * Creates a new ducking rule
+         *
+         * @param trigger   The bus that triggers the rule
+         * @param target    The bus to duck
+         */
+        DuckHandle(BusHandle trigger, BusHandle target) {
+            this.trigger = trigger;
+            this.target = target;
+            this.active = true;
+        }
+
+        @Override
+        public MixBus getTrigger() {
+            return trigger;
+        }
+
+        @Override
+        public MixBus getTarget() {
+            return target;
+        }
+
+        @Override
+        public float getDuckedVolume() {
+            return volume;
+        }
+
+        @Override
+        public void setDuckedVolume(float volume) {
+            if (volume < 0 || volume > 1) {
+                throw new IllegalArgumentException( "Ducked volume must be in the range [0,1]" );
+            }
+            this.volume = volume;
+        }
+
+        @Override
+        public float getAttack() {
+            return attack;
+        }
+
+        @Override
+        public void setAttack(float seconds) {
+            if (seconds < 0) {
+                throw new IllegalArgumentException( "Attack cannot be negative" );
+            }
+            attack = seconds;
+        }
+
+        @Override
+        public float getHold() {
+            return hold;
+        }
+
+        @Override
+        public void setHold(float seconds) {
+            if (seconds < 0) {
+                throw new IllegalArgumentException( "Hold cannot be negative" );
+            }
+            hold = seconds;
+        }
+
+        @Override
+        public float getRelease() {
+            return release;
+        }
+
+        @Override
+        public void setRelease(float seconds) {
+            if (seconds < 0) {
+                throw new IllegalArgumentException( "Release cannot be negative" );
+            }
+            release = seconds;
+        }
+
+        @Override
+        public float getLevel() {
+            return level;
+        }
+
+        @Override
+        public void cancel() {
+            if (active) {
+                active = false;
+                level = 0;
+                duckRules.removeValue( this, true );
+            }
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        /**
+         * Advances the envelope of this rule.
+         *
+         * @param delta The time since the last update in seconds
+         */
+        void step(float delta) {
+            if (trigger.voices > 0) {
+                holdLeft = hold;
+                level = attack <= 0 ? 1 : Math.min( 1, level+delta/attack );
+            } else if (holdLeft > 0) {
+                holdLeft -= delta;
+            } else if (level > 0) {
+                level = release <= 0 ? 0 : Math.max( 0, level-delta/release );
+            }
+        }
+
+        /**
+         * Returns the volume multiplier currently applied to the target
+         *
+         * @return the volume multiplier currently applied to the target
+         */
+        float attenuation() {
+            return 1-(1-volume)*level;
+        }
+    }
+
+    /**
+     * Adds a rule ducking the target bus while the trigger bus is playing.
+     *
+     * The target is lowered to the ducked volume over the attack time whenever any
+     * sound below the trigger bus is playing. After the trigger falls silent, the
+     * target is held for the hold time and then restored over the release time.
+     *
+     * @param trigger   The bus that triggers the rule
+     * @param target    The bus to duck
+     * @param volume    The volume multiplier of the target when fully ducked
+     * @param attack    The time to duck the target in seconds
+     * @param hold      The time to keep the target ducked in seconds
+     * @param release   The time to restore the target in seconds
+     *
+     * @return the new ducking rule
+     */
+    public DuckingRule addDucking(MixBus trigger, MixBus target, float volume,
+                                  float attack, float hold, float release) {
+        if (trigger == null || target == null) {
+            throw new IllegalArgumentException( "Ducking buses cannot be null" );
+        } else if (trigger == target) {
+            throw new IllegalArgumentException( "A bus cannot duck itself" );
+        }
+        DuckHandle rule = new DuckHandle( toBus( trigger, MixBus.MASTER ), toBus( target, MixBus.MASTER ) );
+        rule.setDuckedVolume( volume );
+        rule.setAttack( attack );
+        rule.setHold( hold );
+        rule.setRelease( release );
+        if (duckRules.size == 0) {
+            lastDuck = TimeUtils.nanoTime();
+        }
+        duckRules.add( rule );
+        return rule;
+    }
+
+    /**
+     * Advances all ducking rules, updating the attenuation of their targets.
+     *
+     * The voices playing below each bus are counted in a single pass over the
+     * sources. The buses are only marked as changed if an attenuation changed.
+     */
+    private void updateDucking() {
+        if (duckRules.size == 0 && !ducking) {
+            return;
+        }
+        long now = TimeUtils.nanoTime();
+        float delta = (now-lastDuck)/1000000000.0f;
+        lastDuck = now;
+
+        for(int ii = 0; ii < busOrder.size; ii++) {
+            busOrder.get( ii ).voices = 0;
+        }
+        for(int ii = 0; ii < sourceBuses.length; ii++) {
+            if (sourceBuses[ii] != null && sourceStates[ii] == AL10.AL_PLAYING) {
+                for(BusHandle bus = sourceBuses[ii]; bus != null; bus = bus.parent) {
+                    bus.voices++;
+                }
+            }
+        }
+
+        for(int ii = 0; ii < busOrder.size; ii++) {
+            busOrder.get( ii ).nextDuck = 1;
+        }
+        for(int ii = 0; ii < duckRules.size; ii++) {
+            DuckHandle rule = duckRules.get( ii );
+            rule.step( delta );
+            rule.target.nextDuck *= rule.attenuation();
+        }
+
+        ducking = false;
+        for(int ii = 0; ii < busOrder.size; ii++) {
+            BusHandle bus = busOrder.get( ii );
+            if (bus.nextDuck != bus.duck) {
+                bus.duck = bus.nextDuck;
+                busesDirty = true;
+            }
+            ducking = ducking || bus.duck != 1;
+        }
+    }
+
+    // #mark Effect Automation
+    /** The envelope stage rising from the start value to the peak */
+    private static final int STAGE_ATTACK  = 0;
+    /** The envelope stage falling from the peak to the sustain level */
+    private static final int STAGE_DECAY   = 1;
+    /** The envelope stage holding the sustain level */
+    private static final int STAGE_SUSTAIN = 2;
+    /** The envelope stage falling to the base value */
+    private static final int STAGE_RELEASE = 3;
+
+    /** The active effect automation */
+    private final Array<EffectAutomator> automations = new Array<EffectAutomator>();
+    /** The evaluations of automation per second (0 for every update) */
+    private float controlRate;
+    /** The time of the last evaluation of automation in nanoseconds */
+    private long lastControl;
+
+    /**
+     * This class is an automation source driving an effect attribute.
+     *
+     * The same class implements both oscillators and envelopes, so that the engine
+     * can evaluate all automation in a single pass without allocating.
+     */
+    private class EffectAutomator implements EffectAutomation {
+        /** The effect being automated */
+        private final Effect effect;
+        /** The effect attribute */
+        private final int attribute;
+        /** Whether this is an envelope (as opposed to an oscillator) */
+        private final boolean envelope;
+
+        /** The center value (oscillators) or base value (envelopes) */
+        private float base;
+        /** The oscillator depth (oscillators) or peak value (envelopes) */
+        private float peak;
+        /** The oscillator frequency in hertz */
+        private float frequency;
+        /** The oscillator shape */
+        private Waveform waveform;
+        /** The envelope attack time in seconds */
+        private float attack;
+        /** The envelope decay time in seconds */
+        private float decay;
+        /** The envelope sustain level in [0,1] */
+        private float sustain;
+        /** The envelope release time in seconds */
+        private float release;
+
+        /** The current envelope stage */
+        private int stage;
+        /** The value at the start of the current envelope stage */
+        private float from;
+        /** The start of the current cycle or stage in nanoseconds */
+        private long start;
+        /** The value last applied to the attribute */
+        private float value;
+        /** Whether this automation has not yet ended */
+        private boolean active;
+
+        /**
+         * Creates a new automation source for the given attribute
+         *
+         * The parameters must be set with {@link #oscillate} or {@link #envelope}.
+         *
+         * @param effect    The effect being automated
+         * @param attribute The effect attribute
+         * @param envelope  Whether this is an envelope (as opposed to an oscillator)
+         */
+        EffectAutomator(Effect effect, int attribute, boolean envelope) {
+            this.effect = effect;
+            this.attribute = attribute;
+            this.envelope = envelope;
+            this.start = TimeUtils.nanoTime();
+            this.active = true;
+        }
+
+        /**
+         * Sets the parameters of this oscillator
+         *
+         * @param center    The center value of the attribute
+         * @param depth     The distance from the center to either extreme
+         * @param frequency The number of cycles per second
+         * @param waveform  The shape of the oscillation (null for sine)
+         */
+        void oscillate(float center, float depth, float frequency, Waveform waveform) {
+            if (frequency < 0) {
+                throw new IllegalArgumentException( "Frequency cannot be negative" );
+            }
+            this.base = center;
+            this.peak = depth;
+            this.frequency = frequency;
+            this.waveform = waveform == null ? Waveform.SINE : waveform;
+            this.value = center;
+        }
+
+        /**
+         * Sets the parameters of this envelope
+         *
+         * @param base      The value of the attribute at rest
+         * @param peak      The value of the attribute at the end of the attack
+         * @param attack    The attack time in seconds
+         * @param decay     The decay time in seconds
+         * @param sustain   The sustain level, as a fraction [0,1] from base to peak
+         * @param release   The release time in seconds
+         */
+        void envelope(float base, float peak, float attack, float decay, float sustain, float release) {
+            if (attack < 0 || decay < 0 || release < 0) {
+                throw new IllegalArgumentException( "Envelope times cannot be negative" );
+            }
+            this.base = base;
+            this.peak = peak;
+            this.attack = attack;
+            this.decay = decay;
+            this.sustain = MathUtils.clamp( sustain, 0, 1 );
+            this.release = release;
+            this.stage = STAGE_ATTACK;
+            this.from = base;
+            this.value = base;
+        }
+
+        @Override
+        public void cancel() {
+            if (active) {
+                active = false;
+                automations.removeValue( this, true );
+            }
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public void trigger() {
+            if (active) {
+                start = TimeUtils.nanoTime();
+                stage = STAGE_ATTACK;
+                from = value;
+            }
+        }
+
+        @Override
+        public void release() {
+            if (!active) {
+                return;
+            } else if (!envelope) {
+                apply( base );
+                cancel();
+            } else if (stage != STAGE_RELEASE) {
+                start = TimeUtils.nanoTime();
+                stage = STAGE_RELEASE;
+                from = value;
+            }
+        }
+
+        @Override
+        public float getValue() {
+            return value;
+        }
+
+        /**
+         * Returns true if this automation controls the given attribute
+         *
+         * @param target    The effect
+         * @param attribute The effect attribute
+         *
+         * @return true if this automation controls the given attribute
+         */
+        boolean controls(Object target, int attribute) {
+            return effect == target && this.attribute == attribute;
+        }
+
+        /**
+         * Evaluates this automation at the given time.
+         *
+         * This method returns false if the automation has ended, either because its
+         * envelope was released or because the effect is no longer valid.
+         *
+         * @param now   The current time in nanoseconds
+         *
+         * @return true if the automation is still active
+         */
+        boolean step(long now) {
+            float elapsed = (now-start)/1000000000.0f;
+            if (!envelope) {
+                float phase = elapsed*frequency;
+                return apply( base+peak*waveform.evaluate( phase-(float)Math.floor( phase ) ) );
+            }
+
+            float level = base+(peak-base)*sustain;
+            if (stage == STAGE_ATTACK) {
+                if (elapsed < attack) {
+                    return apply( from+(peak-from)*elapsed/attack );
+                }
+                start += (long)(attack*1000000000.0);
+                elapsed -= attack;
+                stage = STAGE_DECAY;
+            }
+            if (stage == STAGE_DECAY) {
+                if (elapsed < decay) {
+                    return apply( peak+(level-peak)*elapsed/decay );
+                }
+                start += (long)(decay*1000000000.0);
+                stage = STAGE_SUSTAIN;
+            }
+            if (stage == STAGE_SUSTAIN) {
+                return apply( level );
+            }
+            if (elapsed < release) {
+                return apply( from+(base-from)*elapsed/release );
+            }
+            apply( base );
+            return false;
+        }
+
+        /**
+         * Applies the given value to the effect attribute
+         *
+         * @param value The attribute value
+         *
+         * @return false if the effect is no longer valid
+         */
+        private boolean apply(float value) {
+            if (!alIsEffect( effect.getId() )) {
+                return false;
+            }
+            this.value = value;
+            effect.setAttribute( attribute, value );
+            return true;
+        }
+    }
+
+    /**
+     * Attaches a low frequency oscillator to an attribute of the given effect.
+     *
+     * The attribute oscillates between center-depth and center+depth. It is one of
+     * the float EFX effect parameters (such as {@link EXTEfx#AL_REVERB_GAIN}) for the
+     * type of the effect. Attaching automation (or a ramp) to the same attribute
+     * cancels this one.
+     *
+     * @param effect    The effect to modify
+     * @param attribute The EFX attribute to automate
+     * @param center    The center value of the attribute
+     * @param depth     The distance from the center to either extreme
+     * @param frequency The number of cycles per second
+     * @param waveform  The shape of the oscillation (null for sine)
+     *
+     * @return the active automation
+     */
+    public EffectAutomation automateLFO(EffectFilter effect, int attribute, float center, float depth,
+                                        float frequency, EffectAutomation.Waveform waveform) {
+        if (!(effect instanceof Effect)) {
+            throw new IllegalArgumentException( "Effect does not belong to this engine" );
+        }
+        EffectAutomator result = new EffectAutomator( (Effect)effect, attribute, false );
+        result.oscillate( center, depth, frequency, waveform );
+        return startAutomation( result );
+    }
+
+    /**
+     * Attaches an ADSR envelope to an attribute of the given effect.
+     *
+     * The envelope starts immediately. The attribute rises from the base value to the
+     * peak over the attack time, and then falls to the sustain level over the decay
+     * time. It stays at the sustain level until {@link EffectAutomation#release} is
+     * called, when it falls to the base value over the release time. Attaching
+     * automation (or a ramp) to the same attribute cancels this one.
+     *
+     * @param effect    The effect to modify
+     * @param attribute The EFX attribute to automate
+     * @param base      The value of the attribute at rest
+     * @param peak      The value of the attribute at the end of the attack
+     * @param attack    The attack time in seconds
+     * @param decay     The decay time in seconds
+     * @param sustain   The sustain level, as a fraction [0,1] from base to peak
+     * @param release   The release time in seconds
+     *
+     * @return the active automation
+     */
+    public EffectAutomation automateEnvelope(EffectFilter effect, int attribute, float base, float peak,
+                                             float attack, float decay, float sustain, float release) {
+        if (!(effect instanceof Effect)) {
+            throw new IllegalArgumentException( "Effect does not belong to this engine" );
+        }
+        EffectAutomator result = new EffectAutomator( (Effect)effect, attribute, true );
+        result.envelope( base, peak, attack, decay, sustain, release );
+        return startAutomation( result );
+    }
+
+    /**
+     * Sets the rate at which effect automation is evaluated.
+     *
+     * Automation is evaluated on the update of the engine, but no more often than
+     * this many times a second. A value of 0 evaluates automation on every update.
+     *
+     * @param hertz The evaluations per second (0 for every update)
+     */
+    public void setControlRate(float hertz) {
+        if (hertz < 0) {
+            throw new IllegalArgumentException( "Control rate cannot be negative" );
+        }
+        controlRate = hertz;
+    }
+
+    /**
+     * Returns the rate at which effect automation is evaluated.
+     *
+     * A value of 0 means that automation is evaluated on every update.
+     *
+     * @return the rate at which effect automation is evaluated.
+     */
+    public float getControlRate() {
+        return controlRate;
+    }
+
+    /**
+     * Starts the given automation, replacing any control of the same attribute.
+     *
+     * @param automation    The automation to start
+     *
+     * @return the automation started
+     */
+    private EffectAutomator startAutomation(EffectAutomator automation) {
+        cancelAutomation( automation.effect, automation.attribute );
+        for(int ii = ramps.size-1; ii >= 0; ii--) {
+            ParameterRamp ramp = ramps.get( ii );
+            if (ramp.kind == RAMP_EFFECT && ramp.target == automation.effect &&
+                ramp.attribute == automation.attribute) {
+                ramp.cancel();
+            }
+        }
+        automations.add( automation );
+        if (!noDevice) {
+            automation.apply( automation.value );
+        }
+        return automation;
+    }
+
+    /**
+     * Cancels any automation of the given effect attribute.
+     *
+     * @param effect    The effect
+     * @param attribute The effect attribute
+     */
+    private void cancelAutomation(Object effect, int attribute) {
+        for(int ii = automations.size-1; ii >= 0; ii--) {
+            if (automations.get( ii ).controls( effect, attribute )) {
+                automations.get( ii ).cancel();
+            }
+        }
+    }
+
+    /**
+     * Evaluates all active effect automation.
+     *
+     * Automation is evaluated no more often than the control rate. The new values
+     * are sent through the effects, which only re-attach to their slots if a value
+     * actually changed.
+     */
+    private void updateAutomation() {
+        if (automations.size == 0) {
+            return;
+        }
+        long now = TimeUtils.nanoTime();
+        if (controlRate > 0 && now-lastControl < (long)(1000000000.0/controlRate)) {
+            return;
+        }
+        lastControl = now;
+        for(int ii = 0; ii < automations.size; ) {
+            EffectAutomator automation = automations.get( ii );
+            if (automation.step( now )) {
+                ii++;
+            } else {
+                automation.active = false;
+                automations.removeIndex( ii );
+            }
+        }
+    }
+
+    // #mark -
+    // #mark Sound Buffer
+    /**
+     * This class implements a sound buffer for this audio engine
+     *
+     * OpenAL sound buffers obtain a lock on an OpenAL source, so they must be an inner 
+     * class of this engine.  The original {@link OpenALSound} was an ersatz inner class 
+     * with a reference to the audio engine. However, because it was not a true inner 
+     * class, this created all sorts of package access issues.  We have decided to 
+     * simplify this by making the class a true inner class.
+     *
+     * This is an abusive subclass of OpenALSound.  It subclasses it for interface 
+     * purposes only.  As the constructor for OpenALSound does not acquire any resources
+     * (that is done in setup) this causes no problems.
      *
      * A sound handle will release all locks on OpenAL sources when it is not playing.  
      * However, it is still best to dispose of it when it is no longer being used.
      */
     private class SoundHandle extends OpenALSound implements SoundEffect, OpenALBuffer {
-        /** The preallocated OpenAL buffer */
-        private int bufferId = -1;
+        /** The (possibly shared) OpenAL buffer from the engine buffer cache */
+        private BufferCache.Entry entry;
         /** The associated audio source */
         private AudioSource sample;
         /** A callback function for when it is finished */
         private OnCompletionListener onCompletionListener = null;
         
-        /** Mapping logical sound ids to OpenAL ids */
-        private LongMap<Integer> soundToSource;
-        /** Mapping OpenAL ids to logical sound ids */
-        private IntMap<Long>     sourceToSound;
-        /** The next logical sound id to use */
-        private long nextSound = 0;
-        /***/
-        private LongMap<EffectFilter[]> soundtoEffect;
+        /** The sound id playing in each source slot (or -1 for none) */
+        private long[] slotSounds;
+        /** The generation of each source slot, incremented on every play */
+        private int[] generations;
+        /** The effects attached to each source slot (allocated on first use) */
+        private EffectFilter[][] slotEffects;
+        /** The mix bus of this sound */
+        private BusHandle bus = buses.get( MixBus.SFX );
+        /** The scheduled audio time of each source slot (or -1 if not scheduled) */
+        private double[] slotStarts;
+        /** Whether the shared silence is queued before each scheduled slot */
+        private boolean[] slotSilenced;
+        /** The registration to reclaim the OpenAL buffer if this sound is never disposed */
+        private ResourceRegistry.Handle handle;
+
+        /** The coalescing window in nanoseconds (0 if disabled) */
+        private long coalesceWindow;
+        /** The maximum gain of a coalesced instance */
+        private float coalesceLimit = 1.0f;
+        /** The instance that started the current coalescing window (or -1 for none) */
+        private long coalesceId = -1;
+        /** The start of the current coalescing window in nanoseconds */
+        private long coalesceStart;
+        /** The sum of the squared volumes merged into the current window */
+        private float coalesceEnergy;
+        /** Whether the last call to play was merged into an existing instance */
+        private boolean coalesced;
         
         /**
          * Creates a new sound handle from the given source
@@ -1046,28 +3513,22 @@ public class GDXAudio implements AudioEngine {
         public SoundHandle(AudioSource sample) {
             super(null);
             this.sample = sample;
-            ByteBuffer buffer = sample.getData();
-            int bytesize = buffer.limit();
             
-            // Generate an OpenAL buffer
+            // Share an OpenAL buffer with other sounds for the same file
             if (!noDevice) {
-                bufferId = AL10.alGenBuffers();
-                int format = sample.getChannels() > 1 ? AL10.AL_FORMAT_STEREO16 : AL10.AL_FORMAT_MONO16;
-                AL10.alBufferData(bufferId, format, buffer.asShortBuffer(), sample.getSampleRate());
+                entry = bufferCache.acquire( sample );
+                handle = registry.register( this, ResourceRegistry.SAMPLES, entry.getSerial() );
             }
                         
             // Track simultaneous plays
-            soundToSource = new LongMap<Integer>();
-            sourceToSound = new IntMap<Long>();
-            soundtoEffect = new LongMap<>();
-        }
-        
-        /**
-         * Disposes this sound buffer, releasing all resources 
-         */
-        @Override
-        protected void finalize() throws Throwable {
-            dispose();
+            int slots = buffers == null ? 0 : buffers.length;
+            slotSounds  = new long[slots];
+            generations = new int[slots];
+            slotEffects = new EffectFilter[slots][];
+            slotStarts  = new double[slots];
+            slotSilenced = new boolean[slots];
+            Arrays.fill( slotSounds, -1 );
+            Arrays.fill( slotStarts, -1 );
         }
         
         // #mark Sound API
@@ -1076,20 +3537,23 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void dispose () {
-            if (noDevice || bufferId == -1) {
+            if (noDevice || entry == null) {
                 return;
             }
             
-            for(IntMap.Entry<Long> entry : sourceToSound.entries()) {
-                stopSource( entry.key );
+            for(int ii = 0; ii < slotSounds.length; ii++) {
+                int sourceId = toSource( slotSounds[ii] );
+                if (sourceId != -1) {
+                    stopSource( sourceId );
+                }
+                releaseSlot( ii );
             }
-            
-            soundToSource.clear();
-            sourceToSound.clear();
             sample = null;
             
-            AL10.alDeleteBuffers(bufferId);
-            bufferId = -1;
+            bufferCache.release( entry.getSerial() );
+            registry.release( handle );
+            handle = null;
+            entry = null;
             
             onCompletionListener = null;
         }
@@ -1117,6 +3581,18 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public long play(float volume) {
+            coalesced = false;
+            long now = TimeUtils.nanoTime();
+            if (coalesceWindow > 0 && coalesceId != -1 && now-coalesceStart < coalesceWindow) {
+                int sourceId = toSource( coalesceId );
+                if (sourceId != -1) {
+                    coalesceEnergy += volume*volume;
+                    setSourceGain( sourceId, Math.min( (float)Math.sqrt( coalesceEnergy ), coalesceLimit ) );
+                    coalesced = true;
+                    return coalesceId;
+                }
+            }
+            
             int sourceId = obtainSource(this);
             
             // In case it still didn't work
@@ -1124,22 +3600,23 @@ public class GDXAudio implements AudioEngine {
                 return -1;
             }
             
-            Long oldSoundId = sourceToSound.remove(sourceId);
-            if (oldSoundId != null) {
-                soundToSource.remove(oldSoundId);
-            }
-            
-            long soundId = nextSound++;
-            sourceToSound.put(sourceId, soundId);
-            soundToSource.put(soundId, sourceId);
+            long soundId = claimSlot( sourceId );
             
-            AL10.alSourcei(sourceId, AL10.AL_BUFFER, bufferId);
-            AL10.alSourcei(sourceId, AL10.AL_LOOPING, AL10.AL_FALSE);
-            AL10.alSourcef(sourceId, AL10.AL_GAIN, volume);
+            // The instance that starts a window is capped like the merged ones
+            float gain = coalesceWindow > 0 ? Math.min( volume, coalesceLimit ) : volume;
+            AL10.alSourcei(sourceId, AL10.AL_BUFFER, bufferCache.touch( entry ));
+            setSourceLoop(sourceId, false);
+            setSourceGain(sourceId, gain);
+            AL10.alSourcef(sourceId, AL10.AL_MAX_GAIN, Math.max( 1.0f, coalesceLimit ));
             if (globalPause) {
                 paused[sourceToIndex.get(sourceId, -1)] = true;
             } else {
-                AL10.alSourcePlay( sourceId );
+                playSource( sourceId );
+            }
+            if (coalesceWindow > 0) {
+                coalesceId = soundId;
+                coalesceStart = now;
+                coalesceEnergy = volume*volume;
             }
             return soundId;
         }
@@ -1157,12 +3634,11 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public long play(float volume, float pitch, float pan) {
-            long id = play();
-            if (id != -1) {
-                int sourceId = soundToSource.get(id);
+            long id = play(volume);
+            if (id != -1 && !coalesced) {
+                int sourceId = toSource(id);
                 setSourcePitch(sourceId, pitch);
                 setSourcePan(sourceId, pan);
-                setSourceGain(sourceId, volume);
             }
             return id;
         }
@@ -1203,22 +3679,15 @@ public class GDXAudio implements AudioEngine {
                 return -1;
             }
             
-            Long oldSoundId = sourceToSound.remove(sourceId);
-            if (oldSoundId != null) {
-                soundToSource.remove(oldSoundId);
-            }
-            
-            long soundId = nextSound++;
-            sourceToSound.put(sourceId, soundId);
-            soundToSource.put(soundId, sourceId);
+            long soundId = claimSlot( sourceId );
             
-            AL10.alSourcei(sourceId, AL10.AL_BUFFER, bufferId);
-            AL10.alSourcei(sourceId, AL10.AL_LOOPING, AL10.AL_TRUE);
-            AL10.alSourcef(sourceId, AL10.AL_GAIN, volume);
+            AL10.alSourcei(sourceId, AL10.AL_BUFFER, bufferCache.touch( entry ));
+            setSourceLoop(sourceId, true);
+            setSourceGain(sourceId, volume);
             if (globalPause) {
                 paused[sourceToIndex.get(sourceId, -1)] = true;
             } else {
-                AL10.alSourcePlay( sourceId );
+                playSource( sourceId );
             }
             return soundId;
         
@@ -1242,7 +3711,7 @@ public class GDXAudio implements AudioEngine {
         public long loop(float volume, float pitch, float pan) {
             long id = loop();
             if (id != -1) {
-                int sourceId = soundToSource.get(id);
+                int sourceId = toSource(id);
                 setSourcePitch(sourceId, pitch);
                 setSourcePan(sourceId, pan);
                 setSourceGain(sourceId, volume);
@@ -1255,15 +3724,17 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void stop() {
-            for(IntMap.Entry<Long> entry : sourceToSound.entries()) {
-                stopSource( entry.key );
-                if (onCompletionListener != null) {
-                    onCompletionListener.onCompletion( this, entry.value );
+            for(int ii = 0; ii < slotSounds.length; ii++) {
+                long soundId = slotSounds[ii];
+                int sourceId = toSource( soundId );
+                releaseSlot( ii );
+                if (sourceId != -1) {
+                    stopSource( sourceId );
+                    if (onCompletionListener != null) {
+                        onCompletionListener.onCompletion( this, soundId );
+                    }
                 }
             }
-            soundToSource.clear();
-            sourceToSound.clear();
-            soundtoEffect.clear();
         }
 
         /** 
@@ -1277,16 +3748,14 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void stop(long soundId) {
-            Integer sourceId = soundToSource.remove( soundId );
-            if (sourceId != null ) {
+            int sourceId = toSource( soundId );
+            if (sourceId != -1) {
+                releaseSlot( sourceToIndex.get( sourceId, -1 ) );
                 stopSource( sourceId );
-                sourceToSound.remove(sourceId);
-                soundtoEffect.remove(soundId);
                 if (onCompletionListener != null) {
                     onCompletionListener.onCompletion( this, soundId );
                 }
             }
-            System.out.println("stopped");
         }
 
         /**
@@ -1294,10 +3763,9 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void pause() {
-            for(IntMap.Entry<Long> entry : sourceToSound.entries()) {
-                pauseSource(entry.key);
+            for(int ii = 0; ii < slotSounds.length; ii++) {
+                pauseSource( toSource( slotSounds[ii] ) );
             }
-            System.out.println("stopped");
         }
 
         /** 
@@ -1310,8 +3778,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void pause(long soundId) {
-            Integer sourceId = soundToSource.get(soundId);
-            pauseSource(sourceId != null ? sourceId : -1);
+            int sourceId = toSource(soundId);
+            pauseSource(sourceId);
         }
 
         /**
@@ -1319,8 +3787,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void resume() {
-            for(IntMap.Entry<Long> entry : sourceToSound.entries()) {
-                resumeSource(entry.key);
+            for(int ii = 0; ii < slotSounds.length; ii++) {
+                resumeSource( toSource( slotSounds[ii] ) );
             }
         }
 
@@ -1334,8 +3802,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void resume(long soundId) {
-            Integer sourceId = soundToSource.get(soundId);
-            resumeSource(sourceId != null ? sourceId : -1);
+            int sourceId = toSource(soundId);
+            resumeSource(sourceId);
         }
 
 
@@ -1350,8 +3818,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void setVolume(long soundId, float volume) {
-            Integer sourceId = soundToSource.get(soundId);
-            setSourceGain(sourceId != null ? sourceId : -1, volume);
+            int sourceId = toSource(soundId);
+            setSourceGain(sourceId, volume);
         }
 
         /** 
@@ -1367,8 +3835,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void setLooping(long soundId, boolean looping) {
-            Integer sourceId = soundToSource.get(soundId);
-            setSourceLoop(sourceId != null ? sourceId : -1, looping);
+            int sourceId = toSource(soundId);
+            setSourceLoop(sourceId, looping);
         }
 
         /** 
@@ -1385,8 +3853,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void setPitch(long soundId, float pitch) {
-            Integer sourceId = soundToSource.get(soundId);
-            setSourcePitch(sourceId != null ? sourceId : -1, pitch);
+            int sourceId = toSource(soundId);
+            setSourcePitch(sourceId, pitch);
         }
 
         /** 
@@ -1404,8 +3872,7 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void setPan(long soundId, float pan, float volume) {
-            Integer sourceId = soundToSource.get(soundId);
-            int id = sourceId != null ? sourceId : -1;
+            int id = toSource(soundId);
             setSourcePan(id, pan);
             setSourceGain(id, volume);
         }
@@ -1417,12 +3884,16 @@ public class GDXAudio implements AudioEngine {
          * @param effect    The effect Object
          * */
         public void addEffect(long soundId, EffectFilter effect){
-            if(!soundtoEffect.containsKey(soundId))
-                soundtoEffect.put(soundId,new EffectFilter[attributes[0]]);
-            EffectFilter[] sends = soundtoEffect.get(soundId);
+            int sourceId = toSource(soundId);
+            if (sourceId == -1)
+                return;
+            int slot = sourceToIndex.get(sourceId, -1);
+            if (slotEffects[slot] == null)
+                slotEffects[slot] = new EffectFilter[maxAuxSends];
+            EffectFilter[] sends = slotEffects[slot];
             for(int i = 0; i < sends.length; i++){
                 if(sends[i]==null){
-                    if(GDXAudio.this.setEffect(soundToSource.get(soundId), effect,i))
+                    if(GDXAudio.this.setEffect(sourceId, effect,i))
                         sends[i] = effect;
                     break;
                 }
@@ -1436,18 +3907,73 @@ public class GDXAudio implements AudioEngine {
          * @param effect    The effect Object
          * */
         public void removeEffect(long soundId, EffectFilter effect){
-            if(!soundtoEffect.containsKey(soundId))
+            int sourceId = toSource(soundId);
+            if (sourceId == -1 || slotEffects[sourceToIndex.get(sourceId, -1)] == null)
                 return;
-            EffectFilter[] sends = soundtoEffect.get(soundId);
+            EffectFilter[] sends = slotEffects[sourceToIndex.get(sourceId, -1)];
             for(int i = 0; i < sends.length; i++) {
                 if (sends[i] == effect) {
-                    GDXAudio.this.removeEffect(soundToSource.get(soundId), i);
+                    GDXAudio.this.removeEffect(sourceId, i);
                     sends[i] = null;
                     break;
                 }
             }
         }
 
+        /**
+         * Sets the filter on the direct path of the sound instance
+         *
+         * @param soundId   The playback instance
+         * @param filter    The filter to apply (null to remove)
+         * */
+        public void setFilter(long soundId, FrequencyFilter filter){
+            int sourceId = toSource(soundId);
+            if (sourceId != -1) {
+                setDirectFilter( sourceId, filter );
+            }
+        }
+
+        /**
+         * Sets the filter on the send carrying the given effect of the sound instance
+         *
+         * @param soundId   The playback instance
+         * @param effect    The effect receiving the send
+         * @param filter    The filter to apply (null to remove)
+         * */
+        public void setFilter(long soundId, EffectFilter effect, FrequencyFilter filter){
+            int sourceId = toSource(soundId);
+            if (sourceId == -1 || slotEffects[sourceToIndex.get(sourceId, -1)] == null)
+                return;
+            EffectFilter[] sends = slotEffects[sourceToIndex.get(sourceId, -1)];
+            for(int i = 0; i < sends.length; i++) {
+                if (sends[i] == effect) {
+                    setSendFilter( sourceId, i, filter );
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Returns the mix bus of this sound.
+         *
+         * @return the mix bus of this sound.
+         */
+        public MixBus getBus() {
+            return bus;
+        }
+
+        /**
+         * Sets the mix bus of this sound.
+         *
+         * Active instances are moved to the new bus immediately.
+         *
+         * @param bus   The mix bus of this sound (null for the SFX bus)
+         */
+        public void setBus(MixBus bus) {
+            this.bus = toBus( bus, MixBus.SFX );
+            rebindBuffer( this, this.bus );
+        }
+
         // #mark Sound Buffer API
         /**
          * Returns the file that generated this asset.
@@ -1506,8 +4032,11 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public boolean isPlaying(long soundId) {
-            Integer sourceId = soundToSource.get(soundId);
-            return getSourceState(sourceId != null ? sourceId : -1) == AL10.AL_PLAYING;
+            int sourceId = toSource(soundId);
+            if (sourceId != -1 && slotStarts[(int)(soundId & 0xFFFFFFFFL)] >= 0) {
+                return true;
+            }
+            return getSourceState(sourceId) == AL10.AL_PLAYING;
         }
 
         /**
@@ -1522,8 +4051,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public float getPosition(long soundId) {
-            Integer sourceId = soundToSource.get(soundId);
-            return getSourceState(sourceId != null ? sourceId : -1);
+            int sourceId = toSource(soundId);
+            return getSourceSecOffset(sourceId);
         }
 
         /**
@@ -1538,8 +4067,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void setPosition(long soundId, float seconds) {
-            Integer sourceId = soundToSource.get(soundId);
-            setSourceSecOffset(sourceId != null ? sourceId : -1, seconds);
+            int sourceId = toSource(soundId);
+            setSourceSecOffset(sourceId, seconds);
         }
         
         /** 
@@ -1554,8 +4083,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public float getVolume(long soundId, float volume) {
-            Integer sourceId = soundToSource.get(soundId);
-            return getSourceGain(sourceId != null ? sourceId : -1);
+            int sourceId = toSource(soundId);
+            return getSourceGain(sourceId);
         }
 
         /** 
@@ -1570,8 +4099,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public boolean getLooping(long soundId, boolean looping) {
-            Integer sourceId = soundToSource.get(soundId);
-            return getSourceLoop(sourceId != null ? sourceId : -1);
+            int sourceId = toSource(soundId);
+            return getSourceLoop(sourceId);
         }
 
         /** 
@@ -1589,8 +4118,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public float getPitch(long soundId) {
-            Integer sourceId = soundToSource.get(soundId);
-            return getSourcePitch(sourceId != null ? sourceId : -1);
+            int sourceId = toSource(soundId);
+            return getSourcePitch(sourceId);
         }
 
         /** 
@@ -1607,8 +4136,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void setPan(long soundId, float pan) {
-            Integer sourceId = soundToSource.get(soundId);
-            setSourcePan(sourceId != null ? sourceId : -1, pan);
+            int sourceId = toSource(soundId);
+            setSourcePan(sourceId, pan);
         }
         
         /** 
@@ -1626,8 +4155,8 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public float getPan(long soundId) {
-            Integer sourceId = soundToSource.get(soundId);
-            return getSourcePan(sourceId != null ? sourceId : -1);
+            int sourceId = toSource(soundId);
+            return getSourcePan(sourceId);
         }
         
         /** 
@@ -1638,13 +4167,260 @@ public class GDXAudio implements AudioEngine {
             onCompletionListener = listener;
         }
         
+        // #mark Scheduling
+        /**
+         * Plays an instance of this sound at the given audio time.
+         *
+         * The audio time is measured by the clock of the audio engine (see
+         * {@link #getAudioTime}). The instance is handed to OpenAL shortly before the
+         * given time, preceded by exactly enough silence to begin at that time. If the
+         * time has already passed, the sound plays immediately.
+         *
+         * @param audioTime The audio time (in seconds) to start the sound
+         *
+         * @return the id of the sound instance if successful, or -1 on failure.
+         */
+        @Override
+        public long playAt(double audioTime) {
+            return playAt( audioTime, 1 );
+        }
+
+        /**
+         * Plays an instance of this sound at the given audio time and volume.
+         *
+         * The audio time is measured by the clock of the audio engine (see
+         * {@link #getAudioTime}). The instance is handed to OpenAL shortly before the
+         * given time, preceded by exactly enough silence to begin at that time. If the
+         * time has already passed, the sound plays immediately.
+         *
+         * @param audioTime The audio time (in seconds) to start the sound
+         * @param volume    The volume in the range [0,1]
+         *
+         * @return the id of the sound instance if successful, or -1 on failure.
+         */
+        @Override
+        public long playAt(double audioTime, float volume) {
+            int sourceId = obtainSource(this);
+            if (sourceId == -1) {
+                return -1;
+            }
+
+            long soundId = claimSlot( sourceId );
+            int slot = sourceToIndex.get( sourceId, -1 );
+            setSourceLoop(sourceId, false);
+            setSourceGain(sourceId, volume);
+            AL10.alSourcef(sourceId, AL10.AL_MAX_GAIN, Math.max( 1.0f, coalesceLimit ));
+            slotStarts[slot] = audioTime;
+            if (isDue( audioTime )) {
+                startScheduled( slot, sourceId );
+            }
+            return soundId;
+        }
+
+        // #mark Coalescing
+        /**
+         * Sets the coalescing window of this sound in milliseconds.
+         *
+         * If the window is positive, any call to a play method within this many
+         * milliseconds of the instance that started the window does not start a new
+         * instance. Instead, it raises the gain of that instance and returns its sound
+         * id. The combined gain is the root of the summed squared volumes, capped by
+         * {@link #setCoalesceLimit}. Looping instances are never coalesced. A window of
+         * 0 (the default) disables coalescing.
+         *
+         * @param millis    The coalescing window in milliseconds
+         */
+        @Override
+        public void setCoalesceWindow(float millis) {
+            if (millis < 0) {
+                throw new IllegalArgumentException( "Coalescing window cannot be negative" );
+            }
+            coalesceWindow = (long)(millis*1000000.0);
+            coalesceId = -1;
+        }
+
+        /**
+         * Returns the coalescing window of this sound in milliseconds.
+         *
+         * A window of 0 means that coalescing is disabled.
+         *
+         * @return the coalescing window of this sound in milliseconds.
+         */
+        @Override
+        public float getCoalesceWindow() {
+            return coalesceWindow/1000000.0f;
+        }
+
+        /**
+         * Sets the maximum gain of a coalesced instance.
+         *
+         * The default is 1. Values above 1 allow a coalesced instance to be louder than
+         * any single play of this sound. While coalescing is enabled, this also caps the
+         * instance that starts each window.
+         *
+         * @param gain  The maximum gain of a coalesced instance
+         */
+        @Override
+        public void setCoalesceLimit(float gain) {
+            if (gain <= 0) {
+                throw new IllegalArgumentException( "Coalescing limit must be positive" );
+            }
+            coalesceLimit = gain;
+        }
+
+        /**
+         * Returns the maximum gain of a coalesced instance.
+         *
+         * @return the maximum gain of a coalesced instance.
+         */
+        @Override
+        public float getCoalesceLimit() {
+            return coalesceLimit;
+        }
+
+        // #mark Ramps
+        /**
+         * Ramps the volume of the given instance to a target value.
+         *
+         * If the sound id is not valid, this method returns null.
+         *
+         * @param soundId   The playback instance
+         * @param volume    The target volume in the range [0,1]
+         * @param seconds   The length of the ramp in seconds
+         * @param curve     The shape of the ramp (null for linear)
+         * @param listener  The listener to notify when the ramp ends (may be null)
+         *
+         * @return the active ramp, or null if the sound id is not valid
+         */
+        @Override
+        public AudioRamp rampVolume(long soundId, float volume, float seconds,
+                                    AudioRamp.Curve curve, AudioRamp.Listener listener) {
+            return ramp( RAMP_GAIN, soundId, volume, seconds, curve, listener );
+        }
+
+        /**
+         * Ramps the pitch of the given instance to a target value.
+         *
+         * If the sound id is not valid, this method returns null.
+         *
+         * @param soundId   The playback instance
+         * @param pitch     The target pitch multiplier in the range [0.5, 2.0]
+         * @param seconds   The length of the ramp in seconds
+         * @param curve     The shape of the ramp (null for linear)
+         * @param listener  The listener to notify when the ramp ends (may be null)
+         *
+         * @return the active ramp, or null if the sound id is not valid
+         */
+        @Override
+        public AudioRamp rampPitch(long soundId, float pitch, float seconds,
+                                   AudioRamp.Curve curve, AudioRamp.Listener listener) {
+            return ramp( RAMP_PITCH, soundId, pitch, seconds, curve, listener );
+        }
+
+        /**
+         * Ramps the pan of the given instance to a target value.
+         *
+         * If the sound id is not valid, this method returns null.
+         *
+         * @param soundId   The playback instance
+         * @param pan       The target pan value -1 (left) to 1 (right)
+         * @param seconds   The length of the ramp in seconds
+         * @param curve     The shape of the ramp (null for linear)
+         * @param listener  The listener to notify when the ramp ends (may be null)
+         *
+         * @return the active ramp, or null if the sound id is not valid
+         */
+        @Override
+        public AudioRamp rampPan(long soundId, float pan, float seconds,
+                                 AudioRamp.Curve curve, AudioRamp.Listener listener) {
+            return ramp( RAMP_PAN, soundId, pan, seconds, curve, listener );
+        }
+
+        /**
+         * Plays an instance of this sound, fading in from silence.
+         *
+         * If the play is coalesced with an existing instance, there is no fade.
+         *
+         * @param volume    The final volume in the range [0,1]
+         * @param seconds   The length of the fade in seconds
+         *
+         * @return the id of the sound instance if successful, or -1 on failure.
+         */
+        @Override
+        public long fadeIn(float volume, float seconds) {
+            long soundId = play( 0 );
+            if (soundId != -1 && !coalesced) {
+                rampVolume( soundId, volume, seconds, AudioRamp.Curve.SCURVE, null );
+            }
+            return soundId;
+        }
+
+        /**
+         * Fades out the given instance, and stops it at the end of the fade.
+         *
+         * If the sound id is not valid, this method returns null.
+         *
+         * @param soundId   The playback instance
+         * @param seconds   The length of the fade in seconds
+         *
+         * @return the active ramp, or null if the sound id is not valid
+         */
+        @Override
+        public AudioRamp stopWithFade(long soundId, float seconds) {
+            int sourceId = toSource( soundId );
+            if (sourceId == -1) {
+                return null;
+            }
+            ParameterRamp ramp = new ParameterRamp( RAMP_GAIN, this, soundId, 0, getSourceGain( sourceId ),
+                                                    0, seconds, AudioRamp.Curve.SCURVE, null );
+            ramp.stopAtEnd = true;
+            return startRamp( ramp );
+        }
+
+        /**
+         * Starts a ramp on the given instance
+         *
+         * @param kind      The parameter kind
+         * @param soundId   The playback instance
+         * @param value     The target value
+         * @param seconds   The length of the ramp in seconds
+         * @param curve     The shape of the ramp (null for linear)
+         * @param listener  The listener to notify when the ramp ends (may be null)
+         *
+         * @return the active ramp, or null if the sound id is not valid
+         */
+        private AudioRamp ramp(int kind, long soundId, float value, float seconds,
+                               AudioRamp.Curve curve, AudioRamp.Listener listener) {
+            int sourceId = toSource( soundId );
+            if (sourceId == -1) {
+                return null;
+            }
+            float current;
+            switch (kind) {
+                case RAMP_PITCH:
+                    current = getSourcePitch( sourceId );
+                    break;
+                case RAMP_PAN:
+                    current = getSourcePan( sourceId );
+                    break;
+                default:
+                    current = getSourceGain( sourceId );
+                    break;
+            }
+            return startRamp( new ParameterRamp( kind, this, soundId, 0, current, value,
+                                                 seconds, curve, listener ) );
+        }
+
         // #mark OpenAL Buffer API
         /**
          * Updates all OpenAL sources for this buffer
          */ 
         public void update() {
-            for(IntMap.Entry<Long> entry : sourceToSound.entries()) {
-                update(entry.key);
+            for(int ii = 0; ii < slotSounds.length; ii++) {
+                int sourceId = toSource( slotSounds[ii] );
+                if (sourceId != -1) {
+                    update( sourceId );
+                }
             }
         }
         
@@ -1655,10 +4431,24 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void update(int sourceId) {
-            int state  = AL10.alGetSourcei(sourceId, AL10.AL_SOURCE_STATE);
-            if (state != AL10.AL_PLAYING && state != AL10.AL_PAUSED) {
-                Long soundId = sourceToSound.get(sourceId);
-                if (soundId != null) {
+            int index = sourceToIndex.get(sourceId, -1);
+            if (index != -1 && slotSounds[index] != -1 && slotStarts[index] >= 0) {
+                if (isDue( slotStarts[index] )) {
+                    startScheduled( index, sourceId );
+                }
+                return;
+            }
+            
+            int state  = getSourceState(sourceId);
+            if (state == AL10.AL_PLAYING) {
+                if (!isSourcePredicted(sourceId) && !getSourceLoop(sourceId)) {
+                    predictSourceEnd(sourceId, getDuration()-getSourceSecOffset(sourceId));
+                }
+            } else if (state != AL10.AL_PAUSED) {
+                int slot = sourceToIndex.get(sourceId, -1);
+                long soundId = slot == -1 ? -1 : slotSounds[slot];
+                if (soundId != -1) {
+                    releaseSlot(slot);
                     stopSource(sourceId);
                     if (onCompletionListener != null) {
                         onCompletionListener.onCompletion( this, soundId );
@@ -1678,6 +4468,113 @@ public class GDXAudio implements AudioEngine {
            public boolean evictable() {
             return true;
         } 
+
+        // #mark Instance Tracking
+        /**
+         * Assigns a new sound id to the given (claimed) OpenAL source.
+         *
+         * A sound id encodes the source slot in its lower 32 bits and the generation of
+         * that slot in its upper bits.  The generation changes on every play, so an id
+         * becomes invalid as soon as its slot is reused.
+         *
+         * @param sourceId  The OpenAL source
+         *
+         * @return the new sound id (or -1 if the source is not valid)
+         */
+        private long claimSlot(int sourceId) {
+            int slot = sourceToIndex.get(sourceId, -1);
+            if (slot == -1) {
+                return -1;
+            }
+            generations[slot] = (generations[slot]+1) & Integer.MAX_VALUE;
+            long soundId = ((long)generations[slot] << 32) | slot;
+            slotSounds[slot] = soundId;
+            if (slotEffects[slot] != null) {
+                Arrays.fill( slotEffects[slot], null );
+            }
+            // Any silence left from an evicted instance is detached by now
+            slotSilenced[slot] = false;
+            slotStarts[slot] = -1;
+            return soundId;
+        }
+
+        /**
+         * Releases the given source slot, invalidating its sound id.
+         *
+         * @param slot  The source slot
+         */
+        private void releaseSlot(int slot) {
+            if (slot >= 0 && slot < slotSounds.length) {
+                slotSounds[slot] = -1;
+                slotStarts[slot] = -1;
+                if (slotEffects[slot] != null) {
+                    Arrays.fill( slotEffects[slot], null );
+                }
+                if (slotSilenced[slot]) {
+                    // The shared silence must not stay queued on the source
+                    if (buffers[slot] == this) {
+                        int sourceId = indexToSource.get( slot, -1 );
+                        haltSource( sourceId );
+                        AL10.alSourcei( sourceId, AL10.AL_BUFFER, 0 );
+                    }
+                    slotSilenced[slot] = false;
+                }
+            }
+        }
+
+        /**
+         * Starts the scheduled instance in the given slot.
+         *
+         * The sound buffer is queued after exactly enough silence to begin at the
+         * scheduled time. If that time has passed, the sound starts immediately.
+         *
+         * @param slot      The source slot
+         * @param sourceId  The OpenAL source
+         */
+        private void startScheduled(int slot, int sourceId) {
+            double time = slotStarts[slot];
+            slotStarts[slot] = -1;
+
+            AudioSource source = entry.getSource();
+            int bufferId = bufferCache.touch( entry );
+            int format = source.getChannels() > 1 ? AL10.AL_FORMAT_STEREO16 : AL10.AL_FORMAT_MONO16;
+            if (queueSilence( sourceId, bufferId, time, format, source.getChannels(), source.getSampleRate() )) {
+                slotSilenced[slot] = true;
+            } else {
+                AL10.alSourcei( sourceId, AL10.AL_BUFFER, bufferId );
+            }
+
+            if (globalPause) {
+                paused[slot] = true;
+            } else {
+                playSource( sourceId );
+            }
+        }
+
+        /**
+         * Returns the OpenAL source for the given sound id (or -1 if it is not valid).
+         *
+         * A sound id is valid if it is the current id of its slot, and this buffer still
+         * owns that slot.  If the source was evicted by another buffer, the slot is
+         * released.
+         *
+         * @param soundId   The sound id
+         *
+         * @return the OpenAL source for the given sound id (or -1 if it is not valid).
+         */
+        private int toSource(long soundId) {
+            if (soundId < 0) {
+                return -1;
+            }
+            int slot = (int)(soundId & 0xFFFFFFFFL);
+            if (slot >= slotSounds.length || slotSounds[slot] != soundId) {
+                return -1;
+            } else if (buffers[slot] != this) {
+                releaseSlot( slot );
+                return -1;
+            }
+            return indexToSource.get( slot, -1 );
+        }
     }
     
     // #mark -
@@ -1703,8 +4600,10 @@ public class GDXAudio implements AudioEngine {
         private static final int MINIMUM_SIZE = 16384;
         /** The (maximum) size of an individual OpenAL buffer */
         private final int bufferSize = Math.max(MINIMUM_SIZE,deviceBufferSize);
-        /** The number of buffers to use for music */
-        private final int bufferCount = 3;
+        /** The largest number of buffers that a music buffer may queue */
+        private static final int MAXIMUM_DEPTH = 16;
+        /** The amount of time (in seconds) without an underrun before the queue shrinks */
+        private static final float STABLE_TIME = 30.0f;
         /** The number of bytes per sample (fixed in OpenAL) */
         private final int bytesPerSample = 2;
         /** An array for reading bytes from the stream */
@@ -1717,15 +4616,29 @@ public class GDXAudio implements AudioEngine {
         
         /** The OpenAL buffers for implementing the audio queue */
         private IntBuffer allBuffers;
+        /** The registration to reclaim the OpenAL buffers if this is never disposed */
+        private ResourceRegistry.Handle handle;
         /** The OpenAL buffers actively in use at this time */
         private IntIntMap usedBuffers;
-        /** The number of buffers available (to determine blocking) */
-        private int bufferAvail;
+        /** The number of buffers currently queued (to determine blocking) */
+        private int bufferUsed;
         /** A pointer to treat the OpenAL buffers as a ring buffer */
         private int nextBuffer;
+        /** The number of buffers to queue at this time (adjusted on underruns) */
+        private int bufferDepth = 3;
+        /** The smallest number of buffers to queue */
+        private int minDepth = 3;
+        /** The largest number of buffers to queue */
+        private int maxDepth = 8;
+        /** The number of buffer underruns since this music buffer was created */
+        private int underruns;
+        /** The number of bytes played since the last underrun or depth change */
+        private long stableBytes;
         
         /** Whether this stream is currently playing */
         private boolean isPlaying;
+        /** The scheduled audio time to start playing (or -1 if not scheduled) */
+        private double scheduled = -1;
         /** Whether this audio should be looped */
         private boolean isLooping;
         /** Whether to applying looping to current track only */
@@ -1761,6 +4674,40 @@ public class GDXAudio implements AudioEngine {
         private AudioSource[] arriving;
         /** The position mostly recently rendered for each buffer id (for renderedBytes) */
         private long[] byteoffs;
+
+        /** The loop region for each source (in sync with the source queue) */
+        private Array<LoopRegion> regions;
+        /** The stream currently replaced by cached data (or null for none) */
+        private AudioStream pendingStream;
+        /** The cached data (preroll or loop head) played in place of the stream */
+        private ByteBuffer pending;
+        /** The stream position at the start of the cached data */
+        private long pendingBase;
+        /** Whether the last read wrapped around a loop region */
+        private boolean wrapped;
+        /** Whether we are filling the initial buffers (and should not decode ahead) */
+        private boolean priming;
+
+        /** The crossfade length (in seconds) out of each source (in sync with the source queue) */
+        private FloatArray fades;
+        /** The outgoing stream of the crossfade in progress (or null for none) */
+        private AudioStream fadeStream;
+        /** The outgoing source of the crossfade in progress */
+        private AudioSource fadeSource;
+        /** The decoded audio of the outgoing stream that has not been mixed yet */
+        private byte[] fadeBytes;
+        /** An array for reading bytes from the outgoing stream */
+        private byte[] fadeChunk;
+        /** The number of bytes in fadeBytes */
+        private int fadeCount;
+        /** The length of the crossfade in progress in bytes */
+        private long fadeTotal;
+        /** The number of bytes of the crossfade mixed so far */
+        private long fadeDone;
+        /** Whether the outgoing stream has run out of data */
+        private boolean fadeEnded;
+        /** Whether the transition listener has been notified of the crossfade */
+        private boolean fadeNotified;
         
         /** A callback function for when it is finished */
         private OnCompletionListener onCompletionListener = null;
@@ -1768,7 +4715,13 @@ public class GDXAudio implements AudioEngine {
         private OnTransitionListener onTransitionListener = null;
 
         /** the effectid */
-        private EffectFilter[] effects = new EffectFilter[attributes[0]];
+        private EffectFilter[] effects = new EffectFilter[maxAuxSends];
+        /** The filter on the direct path (null if none) */
+        private FrequencyFilter directFilter;
+        /** The filter on the send of each effect (null if none) */
+        private FrequencyFilter[] sendFilters = new FrequencyFilter[maxAuxSends];
+        /** The mix bus of this music */
+        private BusHandle bus = buses.get( MixBus.MUSIC );
         
         /**
          * Creates a new music buffer with the given properties.
@@ -1790,6 +4743,8 @@ public class GDXAudio implements AudioEngine {
             this.sampleRate = sampleRate;
             samples = new Array<AudioSource>();
             streams = new Array<AudioStream>();
+            regions = new Array<LoopRegion>();
+            fades = new FloatArray();
             position = -1;
             allocBuffers();
         }
@@ -1818,6 +4773,8 @@ public class GDXAudio implements AudioEngine {
             
             samples.add(sample);
             streams.add(sample.getStream());
+            regions.add(null);
+            fades.add(0);
             position = 0;
         }
 
@@ -1826,21 +4783,22 @@ public class GDXAudio implements AudioEngine {
          */
         private void allocBuffers() {
             if (allBuffers == null) {
-                allBuffers = BufferUtils.createIntBuffer( bufferCount );
+                allBuffers = BufferUtils.createIntBuffer( MAXIMUM_DEPTH );
                 AL10.alGenBuffers( allBuffers );
                 int errorCode = AL10.alGetError();
                 if (errorCode != AL10.AL_NO_ERROR) {
                     throw new GdxRuntimeException( "Unable to allocate audio buffers. AL Error: " + errorCode );
                 }
-                bufferAvail = bufferCount;
+                handle = registry.register( this, ResourceRegistry.BUFFERS, allBuffers );
+                bufferUsed = 0;
                 usedBuffers = new IntIntMap();
-                for(int ii = 0; ii < bufferCount; ii++) {
+                for(int ii = 0; ii < MAXIMUM_DEPTH; ii++) {
                     usedBuffers.put(allBuffers.get(ii),0);
                 }
                 nextBuffer = 0;
                 int min = allBuffers.get(0);
                 int max = allBuffers.get(0);
-                for(int ii = 1; ii < bufferCount; ii++) {
+                for(int ii = 1; ii < MAXIMUM_DEPTH; ii++) {
                     int temp = allBuffers.get(ii);
                     if (temp < min) {
                         min = temp;
@@ -1861,7 +4819,8 @@ public class GDXAudio implements AudioEngine {
          */
         private boolean initBuffers() {
             boolean filled = false;
-            while (bufferAvail > 0) {
+            priming = true;
+            while (bufferUsed < bufferDepth) {
                 int bufferId = obtainBuffer();
                 if (bufferId == -1 || !fill( bufferId )) {
                     break;
@@ -1872,11 +4831,12 @@ public class GDXAudio implements AudioEngine {
                 int error = AL10.alGetError();
                 if (error != AL10.AL_NO_ERROR) {
                     Gdx.app.error("OpenAL", "Music buffer "+bufferId+" could not be initialized: "+AL10.alGetString(error));
+                    priming = false;
                     stop();
                     return false;
                 }
             }
-            
+            priming = false;
             
             return filled;
         }
@@ -1890,11 +4850,22 @@ public class GDXAudio implements AudioEngine {
             stop();
             if (allBuffers != null) {
                 AL10.alDeleteBuffers( allBuffers );
+                registry.release( handle );
+                handle = null;
                 allBuffers = null;
             }
             
             samples.clear();
             streams.clear();
+            for(LoopRegion region : regions) {
+                if (region != null) {
+                    region.dispose();
+                }
+            }
+            regions.clear();
+            fades.clear();
+            cancelFade( false );
+            cancelRamps( this );
             
             onCompletionListener = null;
             onTransitionListener = null;
@@ -1906,12 +4877,14 @@ public class GDXAudio implements AudioEngine {
          * */
         public synchronized void updateEffect(){
             for(int i = 0; i < effects.length; i++) {
-                if (effects[i] != null)
+                if (effects[i] != null) {
                     GDXAudio.this.setEffect(sourceId, effects[i], i);
-                else {
+                    GDXAudio.this.setSendFilter(sourceId, i, sendFilters[i]);
+                } else if (!isBusSend(sourceId, i)) {
                     GDXAudio.this.removeEffect(sourceId, i);
                 }
             }
+            setDirectFilter(sourceId, directFilter);
         }
 
         /** 
@@ -1933,11 +4906,28 @@ public class GDXAudio implements AudioEngine {
                 setSourceLoop( sourceId, false );
                 setPan( pan, volume );
                 
+                boolean filled = initBuffers();
+                if (!filled && onCompletionListener != null) {
+                    onCompletionListener.onCompletion( this );
+                }
+            } else if (scheduled >= 0) {
+                // Start now instead
+                scheduled = -1;
                 boolean filled = initBuffers();
                 if (!filled && onCompletionListener != null) {
                     onCompletionListener.onCompletion( this );
                 }
             }
+            start();
+        }
+
+        /**
+         * Starts the OpenAL source once its buffers are queued.
+         *
+         * If the parent {@link AudioEngine} is currently paused, this will queue up
+         * the music, but it will not be played until the engine is resumed.
+         */
+        private void start() {
             if (!isPlaying) {
                 if (globalPause) {
                     paused[sourceToIndex.get(sourceId, -1)] = true;
@@ -1946,7 +4936,7 @@ public class GDXAudio implements AudioEngine {
                     setSourceGain( sourceId, volume );
                     setSourcePitch( sourceId, pitch );
                     setSourcePan( sourceId, pan );
-                    AL10.alSourcePlay( sourceId );
+                    playSource( sourceId );
 
                 }
                 isPlaying = true;
@@ -1995,9 +4985,82 @@ public class GDXAudio implements AudioEngine {
             if (sourceId != -1) {
                 reset();
                 freeSource( sourceId );
+                releaseBuffers();
                 sourceId = -1;
                 isPlaying = false;
             }
+            scheduled = -1;
+        }
+
+        // #mark Scheduling
+        /**
+         * Starts the play back of this music buffer at the given audio time.
+         *
+         * The audio time is measured by the clock of the audio engine (see
+         * {@link #getAudioTime}). The music is handed to OpenAL shortly before the
+         * given time, preceded by exactly enough silence to begin at that time. If the
+         * time has already passed, the music starts immediately.
+         *
+         * If this music buffer is currently playing, it is stopped and restarted from
+         * the beginning. Calling {@link #stop} cancels the scheduled start.
+         *
+         * @param audioTime The audio time (in seconds) to start play back
+         */
+        @Override
+        public synchronized void playAt(double audioTime) {
+            stop();
+            sourceId = obtainSource( this );
+            if (sourceId == -1) {
+                return;
+            }
+
+            position = 0;
+            setSourceLoop( sourceId, false );
+            setPan( pan, volume );
+            scheduled = audioTime;
+            if (isDue( audioTime )) {
+                startScheduled();
+            }
+        }
+
+        /**
+         * Returns true if this music buffer is waiting for a scheduled start.
+         *
+         * @return true if this music buffer is waiting for a scheduled start.
+         */
+        @Override
+        public synchronized boolean isScheduled() {
+            return scheduled >= 0 && sourceId != -1;
+        }
+
+        /**
+         * Starts the scheduled play back of this music buffer.
+         *
+         * The music is queued after a buffer with exactly enough silence to begin at
+         * the scheduled time. If that time has passed, the music starts immediately.
+         */
+        private void startScheduled() {
+            double time = scheduled;
+            scheduled = -1;
+
+            int bufferId = obtainBuffer();
+            if (bufferId != -1) {
+                if (fillSilence( bufferId, time, format, getChannels(), sampleRate )) {
+                    int offset = bufferId-bufferStart;
+                    byteoffs[offset] = renderedBytes;
+                    leaving[offset]  = null;
+                    arriving[offset] = null;
+                    AL10.alSourceQueueBuffers( sourceId, bufferId );
+                } else {
+                    releaseBuffer( bufferId );
+                }
+            }
+
+            boolean filled = initBuffers();
+            if (!filled && onCompletionListener != null) {
+                onCompletionListener.onCompletion( this );
+            }
+            start();
         }
 
         /**
@@ -2110,8 +5173,9 @@ public class GDXAudio implements AudioEngine {
             System.out.println("pos set");
             boolean wasPlaying = isPlaying;
             isPlaying = false;
-            AL10.alSourceStop( sourceId );
+            haltSource( sourceId );
             unqueueBuffers();
+            cancelFade( true );
             
             // Determine the byte position we want
             long bytesPerFrame = (format == AL10.AL_FORMAT_MONO16 ? bytesPerSample : 2*bytesPerSample);
@@ -2125,8 +5189,10 @@ public class GDXAudio implements AudioEngine {
             }
             
             if (location != position) {
-                streams.get(position).reset();
+                resetStream( position );
                 position = location;
+            } else if (position < streams.size && streams.get( position ) == pendingStream) {
+                resetStream( position );
             }
             
             // Fill buffers starting at that position
@@ -2167,7 +5233,7 @@ public class GDXAudio implements AudioEngine {
             }
             
             if (wasPlaying) {
-                AL10.alSourcePlay( sourceId );
+                playSource( sourceId );
                 isPlaying = true;
             }
         }
@@ -2201,6 +5267,7 @@ public class GDXAudio implements AudioEngine {
             for(int i = 0; i < effects.length; i++) {
                 if (effects[i] == effect) {
                     effects[i] = null;
+                    sendFilters[i] = null;
                     break;
                 }
             }
@@ -2212,9 +5279,61 @@ public class GDXAudio implements AudioEngine {
          * */
         public void clearAllEffect(){
             Arrays.fill(effects, null);
+            Arrays.fill(sendFilters, null);
             updateEffect();
         }
 
+        /**
+         * Sets the filter on the direct path of the music playback
+         *
+         * @param filter    The filter to apply (null to remove)
+         * */
+        public synchronized void setFilter(FrequencyFilter filter){
+            directFilter = filter;
+            if (sourceId != -1) {
+                setDirectFilter(sourceId, filter);
+            }
+        }
+
+        /**
+         * Sets the filter on the send carrying the given effect
+         *
+         * @param effect    The effect receiving the send
+         * @param filter    The filter to apply (null to remove)
+         * */
+        public synchronized void setFilter(EffectFilter effect, FrequencyFilter filter){
+            for(int i = 0; i < effects.length; i++) {
+                if (effects[i] == effect) {
+                    sendFilters[i] = filter;
+                    if (sourceId != -1) {
+                        setSendFilter(sourceId, i, filter);
+                    }
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Returns the mix bus of this music.
+         *
+         * @return the mix bus of this music.
+         */
+        public MixBus getBus() {
+            return bus;
+        }
+
+        /**
+         * Sets the mix bus of this music.
+         *
+         * @param bus   The mix bus of this music (null for the music bus)
+         */
+        public synchronized void setBus(MixBus bus) {
+            this.bus = toBus( bus, MixBus.MUSIC );
+            if (sourceId != -1) {
+                rebindBuffer( this, this.bus );
+            }
+        }
+
         /** 
          * Returns the cumulative playback position in seconds. 
          * 
@@ -2243,6 +5362,95 @@ public class GDXAudio implements AudioEngine {
             onCompletionListener = listener;
         }
 
+        // #mark Ramps
+        /**
+         * Ramps the volume of this music buffer to a target value.
+         *
+         * The ramp changes the volume reported by {@link #getVolume}.
+         *
+         * @param volume    The target volume in the range [0,1]
+         * @param seconds   The length of the ramp in seconds
+         * @param curve     The shape of the ramp (null for linear)
+         * @param listener  The listener to notify when the ramp ends (may be null)
+         *
+         * @return the active ramp
+         */
+        @Override
+        public AudioRamp rampVolume(float volume, float seconds,
+                                    AudioRamp.Curve curve, AudioRamp.Listener listener) {
+            return startRamp( new ParameterRamp( RAMP_GAIN, this, -1, 0, getVolume(), volume,
+                                                 seconds, curve, listener ) );
+        }
+
+        /**
+         * Ramps the pitch of this music buffer to a target value.
+         *
+         * @param pitch     The target pitch multiplier in the range [0.5, 2.0]
+         * @param seconds   The length of the ramp in seconds
+         * @param curve     The shape of the ramp (null for linear)
+         * @param listener  The listener to notify when the ramp ends (may be null)
+         *
+         * @return the active ramp
+         */
+        @Override
+        public AudioRamp rampPitch(float pitch, float seconds,
+                                   AudioRamp.Curve curve, AudioRamp.Listener listener) {
+            return startRamp( new ParameterRamp( RAMP_PITCH, this, -1, 0, getPitch(), pitch,
+                                                 seconds, curve, listener ) );
+        }
+
+        /**
+         * Ramps the pan of this music buffer to a target value.
+         *
+         * @param pan       The target pan value -1 (left) to 1 (right)
+         * @param seconds   The length of the ramp in seconds
+         * @param curve     The shape of the ramp (null for linear)
+         * @param listener  The listener to notify when the ramp ends (may be null)
+         *
+         * @return the active ramp
+         */
+        @Override
+        public AudioRamp rampPan(float pan, float seconds,
+                                 AudioRamp.Curve curve, AudioRamp.Listener listener) {
+            return startRamp( new ParameterRamp( RAMP_PAN, this, -1, 0, getPan(), pan,
+                                                 seconds, curve, listener ) );
+        }
+
+        /**
+         * Starts the play back of this music buffer, fading in from silence.
+         *
+         * @param seconds   The length of the fade in seconds
+         *
+         * @return the active ramp
+         */
+        @Override
+        public AudioRamp fadeIn(float seconds) {
+            float target = getVolume();
+            setVolume( 0 );
+            play();
+            return startRamp( new ParameterRamp( RAMP_GAIN, this, -1, 0, 0, target,
+                                                 seconds, AudioRamp.Curve.SCURVE, null ) );
+        }
+
+        /**
+         * Fades out this music buffer, and stops it at the end of the fade.
+         *
+         * When the fade completes, the volume is restored to its value before the fade.
+         *
+         * @param seconds   The length of the fade in seconds
+         *
+         * @return the active ramp
+         */
+        @Override
+        public AudioRamp stopWithFade(float seconds) {
+            float current = getVolume();
+            ParameterRamp ramp = new ParameterRamp( RAMP_GAIN, this, -1, 0, current, 0,
+                                                    seconds, AudioRamp.Curve.SCURVE, null );
+            ramp.stopAtEnd = true;
+            ramp.restore = current;
+            return startRamp( ramp );
+        }
+
         // #mark Music Buffer API
         /** 
          * Registers a callback invoked as the music queue is processed.
@@ -2441,6 +5649,10 @@ public class GDXAudio implements AudioEngine {
             }
             samples.set(pos,source);
             streams.set(pos,source.getStream());
+            if (regions.get(pos) != null) {
+                regions.get(pos).dispose();
+                regions.set(pos,null);
+            }
         }
 
         /**
@@ -2463,6 +5675,8 @@ public class GDXAudio implements AudioEngine {
             }
             samples.add(source);
             streams.add(source.getStream());
+            regions.add(null);
+            fades.add(0);
         }
 
         /**
@@ -2486,6 +5700,8 @@ public class GDXAudio implements AudioEngine {
             }
             samples.insert(pos,source);
             streams.insert(pos,source.getStream());
+            regions.insert(pos,null);
+            fades.insert(pos,0);
             if (pos < position) {
                 position++;
             }
@@ -2511,6 +5727,11 @@ public class GDXAudio implements AudioEngine {
                 orphaned = samples.get(pos);
             }
             streams.removeIndex(pos);
+            LoopRegion region = regions.removeIndex(pos);
+            if (region != null) {
+                region.dispose();
+            }
+            fades.removeIndex(pos);
             return samples.removeIndex( pos );
         }
 
@@ -2524,6 +5745,14 @@ public class GDXAudio implements AudioEngine {
         public synchronized void clearSources() {
             streams.clear();
             samples.clear();
+            for(LoopRegion region : regions) {
+                if (region != null) {
+                    region.dispose();
+                }
+            }
+            regions.clear();
+            fades.clear();
+            cancelFade( false );
         }
 
         /**
@@ -2566,12 +5795,13 @@ public class GDXAudio implements AudioEngine {
             if (sourceId != -1) {
                 wasPlaying = isPlaying;
                 isPlaying = false;
-                AL10.alSourceStop( sourceId );
+                haltSource( sourceId );
                 unqueueBuffers();
             }
+            cancelFade( true );
             
             if (steps == 0 && position >= 0 && position < streams.size) {
-                streams.get(position).reset();
+                resetStream( position );
             } else {
                 if (position >= 0 && position < streams.size) {
                     orphaned = samples.get(position);
@@ -2600,74 +5830,262 @@ public class GDXAudio implements AudioEngine {
                 }
         
                 if (wasPlaying) {
-                    AL10.alSourcePlay( sourceId );
+                    playSource( sourceId );
+                    isPlaying = true;
+                }
+            }
+        }
+
+        /**
+         * Jumps to the given source in the music buffer queue
+         *
+         * If there is no audio source at the given position, it will stop 
+         * playback. If there is an attached transition listener, it will be 
+         * notified of the transition.
+         *
+         * @param pos   The position in the source queue
+         */
+        @Override
+        public synchronized void jumpToSource(int pos) {
+            if (pos < 0) {
+                pos = 0;
+            } else if (pos >= streams.size) {
+                pos = streams.size;
+            }
+            
+            boolean wasPlaying = false;
+            boolean filled = false;
+            if (sourceId != -1) {
+                wasPlaying = isPlaying;
+                isPlaying = false;
+                haltSource( sourceId );
+                unqueueBuffers();
+            }
+            
+            reset();
+            position = pos;
+            
+            if (sourceId != -1) {
+                filled = initBuffers( );
+                // Position is not there?  We are at end.
+                if (!filled) {
+                    stop();
+                    if (onCompletionListener != null) {
+                        onCompletionListener.onCompletion( this );
+                    }
+                    if (onTransitionListener != null) {
+                        onTransitionListener.onCompletion( this, samples.get( position ) );
+                    }
+                    return;
+                }
+                
+                if (wasPlaying) {
+                    playSource( sourceId );
                     isPlaying = true;
                 }
             }
         }
 
         /**
-         * Jumps to the given source in the music buffer queue
+         * Resets the music buffer to very beginning of the stream.
+         *
+         * The stream will return to the very beginning of the first source
+         * in the buffer queue.
+         */
+        @Override
+        public synchronized void reset() {
+            for(AudioStream stream : streams) {
+                stream.reset();
+            }
+            pendingStream = null;
+            pending = null;
+            cancelFade( false );
+            position = streams.size > 0 ? 0 : -1;
+        }
+
+        // #mark Loop Regions
+        /**
+         * Sets the loop region for the source at the given queue position.
+         *
+         * A loop region is defined by a start and end marker, measured in sample frames
+         * (samples per channel). When the source loops in place, playback wraps from the
+         * end marker to the start marker instead of from the end of the source to its
+         * beginning. Any audio before the start marker is played only once, so this can
+         * be used for music with an intro. A negative end marker loops at the end of the
+         * source.
+         *
+         * A source loops in place when this buffer is looping and either the loop behavior
+         * is local or the buffer has only one source.  The audio at the start marker is
+         * cached, so wrapping around never needs to reopen the file.
+         *
+         * @param pos   The position in the source queue
+         * @param start The loop start in sample frames
+         * @param end   The loop end in sample frames (or -1 for the end of the source)
+         *
+         * @throws IllegalArgumentException if the markers do not define a valid region
+         */
+        @Override
+        public synchronized void setLoopRegion(int pos, long start, long end) {
+            LoopRegion region = new LoopRegion( samples.get( pos ), start, end );
+            clearLoopRegion( pos );
+            regions.set( pos, region );
+        }
+
+        /**
+         * Removes the loop region for the source at the given queue position.
+         *
+         * The source will loop from the end of the source to its beginning.
+         *
+         * @param pos   The position in the source queue
+         */
+        @Override
+        public synchronized void clearLoopRegion(int pos) {
+            LoopRegion region = regions.get( pos );
+            if (region != null) {
+                region.dispose();
+                regions.set( pos, null );
+            }
+        }
+
+        /**
+         * Returns the loop start (in sample frames) for the given queue position.
+         *
+         * This method returns -1 if the source has no loop region.
+         *
+         * @param pos   The position in the source queue
+         *
+         * @return the loop start (in sample frames) for the given queue position.
+         */
+        @Override
+        public synchronized long getLoopStart(int pos) {
+            LoopRegion region = regions.get( pos );
+            return region == null ? -1 : region.getStartFrame();
+        }
+
+        /**
+         * Returns the loop end (in sample frames) for the given queue position.
+         *
+         * This method returns -1 if the source has no loop region, or if the region
+         * loops at the end of the source.
+         *
+         * @param pos   The position in the source queue
+         *
+         * @return the loop end (in sample frames) for the given queue position.
+         */
+        @Override
+        public synchronized long getLoopEnd(int pos) {
+            LoopRegion region = regions.get( pos );
+            return region == null ? -1 : region.getEndFrame();
+        }
+
+        // #mark Crossfades
+        /**
+         * Sets the crossfade length for the transition out of the given queue position.
+         *
+         * When the source at this position is about to end, the music buffer starts the
+         * next source early and mixes the two together, fading out the old source while
+         * fading in the new one. This is done in software, so the crossfade still uses
+         * only one OpenAL source. The transition listener is notified at the midpoint
+         * of the crossfade.
+         *
+         * There is no crossfade if the source loops in place. A length of 0 (the default)
+         * is a gapless transition.
+         *
+         * @param pos       The position in the source queue
+         * @param seconds   The crossfade length in seconds
+         */
+        @Override
+        public synchronized void setCrossfade(int pos, float seconds) {
+            fades.set( pos, Math.max( 0, seconds ) );
+        }
+
+        /**
+         * Returns the crossfade length for the transition out of the given queue position.
+         *
+         * @param pos   The position in the source queue
+         *
+         * @return the crossfade length (in seconds) for the given queue position.
+         */
+        @Override
+        public synchronized float getCrossfade(int pos) {
+            return fades.get( pos );
+        }
+
+        // #mark Buffer Depth
+        /**
+         * Sets the range for the number of buffers queued ahead of playback.
+         *
+         * Every underrun grows the queue by one buffer, up to the given maximum. If
+         * the music plays for a while without underruns, the queue shrinks again, down
+         * to the given minimum. If the minimum and maximum are the same, the depth of
+         * the queue is fixed.
+         *
+         * @param minimum   The minimum number of buffers (at least 2)
+         * @param maximum   The maximum number of buffers (at most 16)
+         *
+         * @throws IllegalArgumentException if the range is not valid
+         */
+        @Override
+        public synchronized void setBufferDepth(int minimum, int maximum) {
+            if (minimum < 2 || maximum < minimum || maximum > MAXIMUM_DEPTH) {
+                throw new IllegalArgumentException( "Invalid buffer depth ["+minimum+","+maximum+"]" );
+            }
+            minDepth = minimum;
+            maxDepth = maximum;
+            bufferDepth = Math.max( minimum, Math.min( bufferDepth, maximum ) );
+            stableBytes = 0;
+        }
+
+        /**
+         * Returns the number of buffers currently queued ahead of playback.
          *
-         * If there is no audio source at the given position, it will stop 
-         * playback. If there is an attached transition listener, it will be 
-         * notified of the transition.
+         * This value changes over time as underruns occur.
          *
-         * @param pos   The position in the source queue
+         * @return the number of buffers currently queued ahead of playback.
          */
         @Override
-        public synchronized void jumpToSource(int pos) {
-            if (pos < 0) {
-                pos = 0;
-            } else if (pos >= streams.size) {
-                pos = streams.size;
-            }
-            
-            boolean wasPlaying = false;
-            boolean filled = false;
-            if (sourceId != -1) {
-                wasPlaying = isPlaying;
-                isPlaying = false;
-                AL10.alSourceStop( sourceId );
-                unqueueBuffers();
-            }
-            
-            reset();
-            position = pos;
-            
-            if (sourceId != -1) {
-                filled = initBuffers( );
-                // Position is not there?  We are at end.
-                if (!filled) {
-                    stop();
-                    if (onCompletionListener != null) {
-                        onCompletionListener.onCompletion( this );
-                    }
-                    if (onTransitionListener != null) {
-                        onTransitionListener.onCompletion( this, samples.get( position ) );
-                    }
-                    return;
-                }
-                
-                if (wasPlaying) {
-                    AL10.alSourcePlay( sourceId );
-                    isPlaying = true;
-                }
-            }
+        public synchronized int getBufferDepth() {
+            return bufferDepth;
         }
 
         /**
-         * Resets the music buffer to very beginning of the stream.
+         * Returns the minimum number of buffers queued ahead of playback.
          *
-         * The stream will return to the very beginning of the first source
-         * in the buffer queue.
+         * @return the minimum number of buffers queued ahead of playback.
          */
         @Override
-        public synchronized void reset() {
-            for(AudioStream stream : streams) {
-                stream.reset();
-            }
-            position = streams.size > 0 ? 0 : -1;
+        public synchronized int getMinimumBufferDepth() {
+            return minDepth;
+        }
+
+        /**
+         * Returns the maximum number of buffers queued ahead of playback.
+         *
+         * @return the maximum number of buffers queued ahead of playback.
+         */
+        @Override
+        public synchronized int getMaximumBufferDepth() {
+            return maxDepth;
+        }
+
+        /**
+         * Returns the number of underruns since this music buffer was created.
+         *
+         * @return the number of underruns since this music buffer was created.
+         */
+        @Override
+        public synchronized int getUnderrunCount() {
+            return underruns;
+        }
+
+        /**
+         * Returns the amount of audio (in seconds) queued ahead of playback.
+         *
+         * @return the amount of audio (in seconds) queued ahead of playback.
+         */
+        @Override
+        public synchronized float getLatency() {
+            return (float)(bufferDepth*bufferSize)/(sampleRate*getChannels()*bytesPerSample);
         }
 
         // #mark OpenAL Buffer API
@@ -2684,7 +6102,11 @@ public class GDXAudio implements AudioEngine {
          * @param sourceId  The OpenAL source
          */
         public synchronized void update(int sourceId) {
-            if (sourceId != -1) {
+            if (sourceId != -1 && scheduled >= 0) {
+                if (isDue( scheduled )) {
+                    startScheduled();
+                }
+            } else if (sourceId != -1) {
                 boolean end = false;
                 int buffers = AL10.alGetSourcei( sourceId, AL10.AL_BUFFERS_PROCESSED );
                 while (buffers-- > 0) {
@@ -2696,27 +6118,44 @@ public class GDXAudio implements AudioEngine {
                     
                     int offset = bufferId-bufferStart;
                     renderedBytes = byteoffs[offset];
-                    usedBuffers.put( bufferId, 0 );
-                    bufferAvail++;
-                    
-                    if (!end) {
-                        if (fill( bufferId )) {
-                            AL10.alSourceQueueBuffers( sourceId, bufferId );
-                            if (onTransitionListener != null) {
-                                if (arriving[offset] != null) {
-                                    if (leaving[offset] != null) {
-                                        onTransitionListener.onTransition( this, leaving[offset], arriving[offset] );
-                                    } else {
-                                        onTransitionListener.onLoopback( this, arriving[offset] );
-                                    }
-                                }
-                            }
-                        } else {
-                            end = true;
-                        }
-                    }
+                    stableBytes += AL10.alGetBufferi( bufferId, AL10.AL_SIZE );
+                    releaseBuffer( bufferId );
                     leaving[offset]  = null;
                     arriving[offset] = null;
+                    
+                    // Do not refill if the queue is shrinking
+                    if (!end && bufferUsed < bufferDepth) {
+                        usedBuffers.put( bufferId, 1 );
+                        bufferUsed++;
+                        end = !refill( bufferId );
+                    }
+                }
+                
+                // A buffer underflow will cause the source to stop.
+                boolean starved = isPlaying && !globalPause &&
+                                  AL10.alGetSourcei( sourceId, AL10.AL_SOURCE_STATE ) != AL10.AL_PLAYING;
+                if (starved && !end) {
+                    underruns++;
+                    stableBytes = 0;
+                    bufferDepth = Math.min( bufferDepth+1, maxDepth );
+                } else if (bufferDepth > minDepth && stableBytes >= STABLE_TIME*sampleRate*getChannels()*bytesPerSample) {
+                    stableBytes = 0;
+                    bufferDepth--;
+                }
+                
+                // Grow the queue if necessary
+                while (!end && bufferUsed < bufferDepth) {
+                    int bufferId = obtainBuffer();
+                    if (bufferId == -1) {
+                        break;
+                    }
+                    end = !refill( bufferId );
+                }
+
+                // Get ready for the next wrap-around
+                LoopRegion region = loopRegion();
+                if (region != null) {
+                    region.prepare( 2 );
                 }
                 
                 if (end && AL10.alGetSourcei( sourceId, AL_BUFFERS_QUEUED ) == 0) {
@@ -2727,13 +6166,41 @@ public class GDXAudio implements AudioEngine {
                     if (onCompletionListener != null) {
                         onCompletionListener.onCompletion( this );
                     }
-                } else if (isPlaying && AL10.alGetSourcei( sourceId, AL10.AL_SOURCE_STATE ) != AL10.AL_PLAYING) {
-                    if (!globalPause) {
-                        // A buffer underflow will cause the source to stop.
-                        AL10.alSourcePlay( sourceId );
+                } else if (starved) {
+                    playSource( sourceId );
+                }
+            }
+        }
+
+        /**
+         * Fills the given (locked) buffer and queues it on the OpenAL source.
+         *
+         * If this buffer contains a transition, this method notifies the transition
+         * listener. If there is no more data to play, this method releases the buffer
+         * and returns false.
+         *
+         * @param bufferId  The OpenAL buffer
+         *
+         * @return true if the buffer was queued
+         */
+        private boolean refill(int bufferId) {
+            if (!fill( bufferId )) {
+                releaseBuffer( bufferId );
+                return false;
+            }
+            
+            AL10.alSourceQueueBuffers( sourceId, bufferId );
+            int offset = bufferId-bufferStart;
+            if (onTransitionListener != null) {
+                if (arriving[offset] != null) {
+                    if (leaving[offset] != null) {
+                        onTransitionListener.onTransition( this, leaving[offset], arriving[offset] );
+                    } else {
+                        onTransitionListener.onLoopback( this, arriving[offset] );
                     }
                 }
             }
+            return true;
         }
 
         /**
@@ -2783,26 +6250,30 @@ public class GDXAudio implements AudioEngine {
         public synchronized int read(byte[] buffer) {
             int length = 0;
             if (position >= 0 && position < streams.size) {
-                length = streams.get(position).read( tempBytes );
+                length = readEntry();
                 int previous = position;
                 if (length <= 0 && isLooping && loopLocal) {
-                    streams.get(position).reset();
-                    length =  streams.get(position).read( tempBytes );
+                    resetStream( position );
+                    length =  readStream();
                 }
                 while (length <= 0 && position < streams.size-1) {
                     position++;
-                    length = streams.get(position).read( tempBytes );
+                    length = readStream();
                 }
                 if (length <= 0 && isLooping) {
                     reset();
                     position = -1;
                     while (length <= 0 && position <= previous) {
                         position++;
-                        length = streams.get(position).read( tempBytes );
+                        length = readStream();
                     }
                 }
             }
             
+            if (length > 0) {
+                length = Math.min( length, buffer.length );
+                System.arraycopy( tempBytes, 0, buffer, 0, length );
+            }
             return length;
         }
 
@@ -2850,20 +6321,29 @@ public class GDXAudio implements AudioEngine {
                 orphaned = null;
             }
             
-            if (position >= 0 && position < streams.size) {
-                length = streams.get(position).read( tempBytes );
+            if (fadeStream != null && position >= 0 && position < streams.size) {
+                length = readFade( bufferID );
+            } else if (position >= 0 && position < streams.size) {
+                length = readEntry();
+                if (length > 0 && beginFade( length )) {
+                    length = readFade( bufferID );
+                }
                 int previous = position;
+                if (wrapped) {
+                    leaving[bufferID-bufferStart]  = null;
+                    arriving[bufferID-bufferStart] = samples.get( position );
+                }
                 if (length <= 0 && isLooping && loopLocal) {
-                    streams.get(position).reset();
+                    resetStream( position );
                     leaving[bufferID-bufferStart]  = null;
                     arriving[bufferID-bufferStart] = samples.get( position );
-                    length =  streams.get(position).read( tempBytes );
+                    length =  readStream();
                 }
                 while (length <= 0 && position < streams.size-1) {
                     position++;
                     leaving[bufferID-bufferStart]  = samples.get( previous );
                     arriving[bufferID-bufferStart] = samples.get( position );
-                    length = streams.get(position).read( tempBytes );
+                    length = readStream();
                 }
                 if (length <= 0 && isLooping) {
                     reset();
@@ -2872,51 +6352,422 @@ public class GDXAudio implements AudioEngine {
                         position++;
                         leaving[bufferID-bufferStart]  = null;
                         arriving[bufferID-bufferStart] = samples.get( position );
-                        length = streams.get(position).read( tempBytes );
+                        length = readStream();
+                    }
+                }
+            }
+
+            if (length <= 0) {
+                leaving[bufferID-bufferStart] = null;
+                arriving[bufferID-bufferStart] = null;
+                return false;
+            }
+            
+            long totalbytes = 0;
+            for (int ii = 0; ii < position; ii++) {
+                totalbytes += streams.get(ii).getByteSize();
+            }
+            byteoffs[bufferID-bufferStart] = totalbytes + streamOffset();
+
+            tempBuffer.put( tempBytes, 0, length ).flip();
+            AL10.alBufferData( bufferID, format, tempBuffer, sampleRate );
+            return true;
+        }
+
+        /**
+         * Returns the next empty and available OpenAL buffer for writing.
+         *
+         * This method uses a ring buffer pointer to make sure we are not trashing the
+         * same buffer over and over.  The buffer returned is locked and cannot be
+         * used again until OpenAL releases it.
+         *
+         * @return the next empty and available OpenAL buffer for writing.
+         */
+        private int obtainBuffer() {
+            if (bufferUsed >= bufferDepth) {
+                return -1;
+            }
+            for(int ii = 0; ii < MAXIMUM_DEPTH; ii++) {
+                int pos = (nextBuffer+ii) % MAXIMUM_DEPTH;
+                int bufferId = allBuffers.get(pos);
+                if (usedBuffers.get(bufferId,1) == 0) {
+                    usedBuffers.put(bufferId,1);
+                    nextBuffer = (pos+1) % MAXIMUM_DEPTH;
+                    bufferUsed++;
+                    return bufferId;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns a buffer previously acquired by {@link #obtainBuffer} to the pool.
+         *
+         * The buffer must no longer be queued on the OpenAL source.
+         *
+         * @param bufferId  The OpenAL buffer
+         */
+        private void releaseBuffer(int bufferId) {
+            if (usedBuffers.get( bufferId, 0 ) != 0) {
+                usedBuffers.put( bufferId, 0 );
+                bufferUsed--;
+            }
+        }
+
+        /**
+         * Returns all buffers to the pool.
+         *
+         * This method should only be called once the buffers have been detached from
+         * the OpenAL source.
+         */
+        private void releaseBuffers() {
+            for(int ii = 0; ii < MAXIMUM_DEPTH; ii++) {
+                usedBuffers.put( allBuffers.get(ii), 0 );
+            }
+            for(int ii = 0; ii < leaving.length; ii++) {
+                leaving[ii]  = null;
+                arriving[ii] = null;
+            }
+            bufferUsed = 0;
+        }
+        
+        /**
+         * Reads the next chunk of the current stream into tempBytes.
+         *
+         * If the current stream is at its beginning and its source is in the preroll
+         * cache, this method serves the cached data instead of decoding.  While doing
+         * so, the stream decodes in the background (at most two chunks per refill) so
+         * that it has caught up by the time the cached data runs out.  No decoding
+         * takes place while priming the initial buffers.  The same mechanism is used
+         * to play the cached head of a loop region.
+         *
+         * @return the number of bytes read (<= 0 at the end of the stream)
+         */
+        private int readStream() {
+            AudioStream stream = streams.get( position );
+            if (pendingStream != stream && stream.getByteOffset() == 0) {
+                PrerollCache cache = prerolls;
+                ByteBuffer data = cache == null ? null : cache.get( samples.get( position ) );
+                if (data != null) {
+                    pendingStream = stream;
+                    pending = data;
+                    pendingBase = 0;
+                }
+            }
+            if (pendingStream != stream) {
+                return stream.read( tempBytes );
+            }
+
+            long target = pendingBase+pending.limit();
+            if (pending.hasRemaining()) {
+                // Catch up without passing the end of the cached data
+                for(int ii = 0; ii < 2 && !priming; ii++) {
+                    if (stream.getByteOffset()+tempBytes.length > target || stream.read( tempBytes ) <= 0) {
+                        break;
+                    }
+                }
+                int length = Math.min( pending.remaining(), tempBytes.length );
+                pending.get( tempBytes, 0, length );
+                return length;
+            }
+
+            // Finish catching up and resume the stream
+            pendingStream = null;
+            pending = null;
+            long offset = stream.getByteOffset();
+            if (offset > target) {
+                // The stream is past the cached data (the loop region changed)
+                stream.reset();
+                offset = 0;
+            }
+            int length = 0;
+            while (offset < target) {
+                length = stream.read( tempBytes );
+                if (length <= 0) {
+                    return length;
+                }
+                offset += length;
+            }
+            if (offset == target) {
+                return stream.read( tempBytes );
+            }
+            int extra = (int)(offset-target);
+            System.arraycopy( tempBytes, length-extra, tempBytes, 0, extra );
+            return extra;
+        }
+
+        /**
+         * Returns the byte offset of the current stream, taking preroll into account.
+         *
+         * @return the byte offset of the current stream
+         */
+        private long streamOffset() {
+            AudioStream stream = streams.get( position );
+            if (pendingStream == stream) {
+                return pendingBase+pending.position();
+            }
+            return stream.getByteOffset();
+        }
+
+        /**
+         * Returns the active loop region for the current source (or null for none)
+         *
+         * A loop region is only active if the current source loops in place.
+         *
+         * @return the active loop region for the current source
+         */
+        private LoopRegion loopRegion() {
+            if (!isLooping || position < 0 || position >= streams.size) {
+                return null;
+            } else if (!loopLocal && streams.size > 1) {
+                return null;
+            }
+            return regions.get( position );
+        }
+
+        /**
+         * Reads the next chunk of the current source into tempBytes.
+         *
+         * This method is the same as {@link #readStream} except that it honors the
+         * active loop region (if any).  Reads are clipped at the loop end, and when
+         * the loop end is reached, reading continues at the loop start.  In that case
+         * the attribute wrapped is set to true.
+         *
+         * @return the number of bytes read (<= 0 at the end of the source)
+         */
+        private int readEntry() {
+            wrapped = false;
+            LoopRegion region = loopRegion();
+            if (region == null) {
+                return readStream();
+            }
+
+            int length = 0;
+            for(int ii = 0; ii < 2 && length <= 0; ii++) {
+                long before = streamOffset();
+                if (before >= region.getEnd()) {
+                    if (wrapped || !wrapLoop( region )) {
+                        return 0;
+                    }
+                    before = streamOffset();
+                }
+                length = readStream();
+                if (length > 0 && before+length > region.getEnd()) {
+                    length = (int)(region.getEnd()-before);
+                }
+                if (length <= 0 && !wrapped) {
+                    // The source ended before the loop end
+                    if (!wrapLoop( region )) {
+                        return length;
+                    }
+                    length = 0;
+                }
+            }
+            return length;
+        }
+
+        /**
+         * Wraps the current source around to the start of the given loop region.
+         *
+         * Whenever possible, this swaps in the spare stream of the loop region, which
+         * is already positioned after the cached loop head.  Otherwise, it rewinds the
+         * current stream and lets it catch up while the loop head plays.  This method
+         * returns false if the loop head could not be decoded at all.
+         *
+         * @param region    The loop region
+         *
+         * @return true if the wrap-around was successful
+         */
+        private boolean wrapLoop(LoopRegion region) {
+            if (!region.isReady()) {
+                region.prepare( Integer.MAX_VALUE );
+            }
+            ByteBuffer head = region.getHead();
+            if (head == null) {
+                Gdx.app.error( "OpenAL", "Could not cache loop region for "+samples.get( position ) );
+                return false;
+            }
+
+            AudioStream stream = streams.get( position );
+            if (!region.isCached()) {
+                AudioStream spare = region.swap( stream );
+                if (spare != null) {
+                    streams.set( position, spare );
+                    stream = spare;
+                } else {
+                    stream.reset();
+                }
+            }
+            pendingStream = stream;
+            pending = head;
+            pendingBase = region.getStart();
+            wrapped = true;
+            return true;
+        }
+
+        /**
+         * Resets the stream at the given queue position to its beginning.
+         *
+         * This method also discards any preroll in progress for that stream.
+         *
+         * @param pos   The position in the source queue
+         */
+        private void resetStream(int pos) {
+            AudioStream stream = streams.get( pos );
+            if (pendingStream == stream) {
+                pendingStream = null;
+                pending = null;
+            }
+            if (fadeStream == stream) {
+                cancelFade( false );
+            }
+            stream.reset();
+        }
+
+        /**
+         * Starts a crossfade if the last read reached the tail of the current source.
+         *
+         * The data just read (in tempBytes) becomes the start of the outgoing audio, and
+         * the position advances to the incoming source.  The crossfade starts on a read
+         * boundary, so it may start slightly early.  The crossfade is never longer than
+         * the incoming source.  Any outgoing audio left after the crossfade is complete
+         * is discarded, as it would be silent anyway.
+         *
+         * @param length    The number of bytes just read from the current source
+         *
+         * @return true if a crossfade has started
+         */
+        private boolean beginFade(int length) {
+            float seconds = fades.get( position );
+            AudioStream stream = streams.get( position );
+            if (seconds <= 0 || pendingStream == stream || loopRegion() != null) {
+                return false;
+            }
+
+            int next;
+            if (isLooping && loopLocal) {
+                return false;
+            } else if (position < streams.size-1) {
+                next = position+1;
+            } else if (isLooping && streams.size > 1) {
+                next = 0;
+            } else {
+                return false;
+            }
+
+            int frame = getChannels()*bytesPerSample;
+            long total = ((long)(seconds*sampleRate))*frame;
+            if (total <= 0 || stream.getByteOffset() <= stream.getByteSize()-total) {
+                return false;
+            }
+            // The crossfade cannot outlast the incoming source
+            total = Math.min( total, streams.get( next ).getByteSize()/frame*frame );
+            if (total <= 0) {
+                return false;
+            }
+
+            if (next == 0) {
+                for(int ii = 0; ii < streams.size; ii++) {
+                    if (ii != position) {
+                        resetStream( ii );
                     }
                 }
             }
+            if (fadeBytes == null) {
+                fadeBytes = new byte[2*bufferSize];
+                fadeChunk = new byte[bufferSize];
+            }
+            System.arraycopy( tempBytes, 0, fadeBytes, 0, length );
+            fadeCount = length;
+            fadeStream = stream;
+            fadeSource = samples.get( position );
+            fadeTotal = total;
+            fadeDone = 0;
+            fadeEnded = false;
+            fadeNotified = false;
+            position = next;
+            return true;
+        }
+
+        /**
+         * Reads the next chunk of the crossfade in progress into tempBytes.
+         *
+         * This reads the incoming source as normal, and mixes in the outgoing audio with
+         * an equal power curve.  The given buffer is tagged for the transition listener
+         * when it contains the midpoint of the crossfade.
+         *
+         * @param bufferID  The OpenAL buffer being filled
+         *
+         * @return the number of bytes read
+         */
+        private int readFade(int bufferID) {
+            int length = readEntry();
+            if (length <= 0) {
+                // The incoming source is shorter than the crossfade
+                length = (int)Math.min( tempBytes.length, fadeTotal-fadeDone );
+                Arrays.fill( tempBytes, 0, length, (byte)0 );
+            }
+            while (fadeCount < length && !fadeEnded) {
+                int amount = fadeStream.read( fadeChunk );
+                if (amount <= 0) {
+                    fadeEnded = true;
+                } else {
+                    System.arraycopy( fadeChunk, 0, fadeBytes, fadeCount, amount );
+                    fadeCount += amount;
+                }
+            }
 
-            if (length <= 0) {
-                leaving[bufferID-bufferStart] = null;
-                arriving[bufferID-bufferStart] = null;
-                return false;
+            int frame = getChannels()*bytesPerSample;
+            int span  = (int)Math.min( length, fadeTotal-fadeDone );
+            double scale = Math.PI/(2.0*fadeTotal);
+            for(int ii = 0; ii+frame <= span; ii += frame) {
+                double angle = (fadeDone+ii)*scale;
+                float gainIn  = (float)Math.sin( angle );
+                float gainOut = (float)Math.cos( angle );
+                for(int jj = ii; jj < ii+frame; jj += 2) {
+                    int in  = (tempBytes[jj] & 0xff) | (tempBytes[jj+1] << 8);
+                    int out = jj < fadeCount ? (fadeBytes[jj] & 0xff) | (fadeBytes[jj+1] << 8) : 0;
+                    int mix = (int)(in*gainIn+out*gainOut);
+                    mix = Math.max( Short.MIN_VALUE, Math.min( mix, Short.MAX_VALUE ) );
+                    tempBytes[jj]   = (byte)mix;
+                    tempBytes[jj+1] = (byte)(mix >> 8);
+                }
             }
-            
-            long totalbytes = 0;
-            for (int ii = 0; ii < position; ii++) {
-                totalbytes += streams.get(ii).getByteSize();
+
+            if (!fadeNotified && fadeDone+span >= fadeTotal/2) {
+                leaving[bufferID-bufferStart]  = fadeSource;
+                arriving[bufferID-bufferStart] = samples.get( position );
+                fadeNotified = true;
             }
-            byteoffs[bufferID-bufferStart] = totalbytes + streams.get(position).getByteOffset();
 
-            tempBuffer.put( tempBytes, 0, length ).flip();
-            AL10.alBufferData( bufferID, format, tempBuffer, sampleRate );
-            return true;
+            int used = Math.min( span, fadeCount );
+            System.arraycopy( fadeBytes, used, fadeBytes, 0, fadeCount-used );
+            fadeCount -= used;
+            fadeDone += span;
+            if (fadeDone >= fadeTotal) {
+                cancelFade( true );
+            }
+            return length;
         }
 
         /**
-         * Returns the next empty and available OpenAL buffer for writing.
+         * Stops the crossfade in progress (if any), discarding the outgoing audio.
          *
-         * This method uses a ring buffer pointer to make sure we are not trashing the
-         * same buffer over and over.  The buffer returned is locked and cannot be
-         * used again until OpenAL releases it.
+         * The outgoing stream is left at (or near) its end by a crossfade. Unless the
+         * caller resets it anyway, it must be rewound so that it plays again the next
+         * time the queue loops.
          *
-         * @return the next empty and available OpenAL buffer for writing.
+         * @param rewind    Whether to reset the outgoing stream to its beginning
          */
-        private int obtainBuffer() {
-            int endBuffer = (nextBuffer+bufferCount-1) % bufferCount;
-            for(int ii = nextBuffer; ii != endBuffer; ii = ((ii+1) % bufferCount)) {
-                int bufferId = allBuffers.get(ii);
-                if (usedBuffers.get(bufferId,1) == 0) {
-                    usedBuffers.put(bufferId,1);
-                    nextBuffer = (ii+1) % bufferCount;
-                    bufferAvail--;
-                    return bufferId;
-                }
+        private void cancelFade(boolean rewind) {
+            if (rewind && fadeStream != null && streams.contains( fadeStream, true )) {
+                fadeStream.reset();
             }
-            return -1;
+            fadeStream = null;
+            fadeSource = null;
+            fadeCount = 0;
         }
-        
+
         /**
          * Recovers any available buffers
          */
@@ -2930,8 +6781,7 @@ public class GDXAudio implements AudioEngine {
                 }
                 int offset = bufferId-bufferStart;
                 renderedBytes = byteoffs[offset];
-                usedBuffers.put( bufferId, 0 );
-                bufferAvail++;
+                releaseBuffer( bufferId );
             }
         }
     }
@@ -2965,6 +6815,8 @@ public class GDXAudio implements AudioEngine {
         
         /** The OpenAL buffers for implementing the audio queue */
         private IntBuffer allBuffers;
+        /** The registration to reclaim the OpenAL buffers if this is never disposed */
+        private ResourceRegistry.Handle handle;
         /** The OpenAL buffers actively in use at this time */
         private IntIntMap usedBuffers;
         /** The number of buffers available (to determine blocking) */
@@ -2994,6 +6846,33 @@ public class GDXAudio implements AudioEngine {
         /** The number of seconds to render a single audio buffer */
         float secondsPerBuffer = 0;
 
+        /** The samples written to this device, but not yet sent to OpenAL */
+        private final SampleRing ring;
+        /** The number of bytes queued in OpenAL buffers */
+        private volatile int queuedBytes;
+
+        /** The amount of time (in seconds) without an underrun before the queue shrinks */
+        private static final float STABLE_TIME = 10.0f;
+        /** The number of buffers that may be queued at this time (adjusted on underruns) */
+        private volatile int depth;
+        /** The minimum number of buffers to queue */
+        private final int minDepth;
+        /** The number of buffer underruns since this device was created */
+        private int underruns;
+        /** The number of bytes played since the last underrun or depth change */
+        private long stableBytes;
+        /** Whether the source has been started since the device last stopped */
+        private boolean started;
+        /** The sample offset and output latency reported by AL_SOFT_source_latency */
+        private final long[] latencyData = new long[2];
+
+        /** The producer to pull samples from (null if this device is written to) */
+        private AudioProducer producer;
+        /** The samples pulled from the producer */
+        private float[] pulled;
+        /** Whether the producer has finished */
+        private boolean exhausted;
+
         /**
          * Creates a new audio device with the given parameters.
          *
@@ -3004,6 +6883,26 @@ public class GDXAudio implements AudioEngine {
          * @param bufferCount   The number of OpenAL buffers to use
          */
         private Device(boolean isMono, int sampleRate, int bufferSize, int bufferCount) {
+            this( isMono, sampleRate, bufferSize, bufferCount, bufferCount );
+        }
+
+        /**
+         * Creates a new audio device with an adaptive queue depth.
+         *
+         * The device starts by queueing the minimum number of buffers, and grows the
+         * queue on underruns (up to the buffer count). The ring buffer only needs to
+         * hold the minimum depth, as the unplayed data never exceeds the current depth.
+         *
+         * @param sampleRate    The sampling rate in Hz
+         * @param isMono        Whether the device should be mono or stereo
+         * @param bufferSize    The number of bytes per OpenAL buffer
+         * @param bufferCount   The number of OpenAL buffers to use
+         * @param minDepth      The minimum number of buffers to queue
+         */
+        private Device(boolean isMono, int sampleRate, int bufferSize, int bufferCount, int minDepth) {
+            if (minDepth < 2 || minDepth > bufferCount) {
+                throw new IllegalArgumentException( "Invalid buffer depth range ["+minDepth+","+bufferCount+"]" );
+            }
             int channels = isMono ? 1 : 2;
             this.bufferSize = bufferSize;
             this.bufferCount = bufferCount;
@@ -3012,9 +6911,30 @@ public class GDXAudio implements AudioEngine {
             this.sampleRate = sampleRate;
             secondsPerBuffer = (float)bufferSize / bytesPerSample / channels / sampleRate;
             tempBuffer = BufferUtils.createByteBuffer(bufferSize);
+            ring = new SampleRing( bufferSize*minDepth );
+            this.depth = minDepth;
+            this.minDepth = minDepth;
             allocBuffers();
         }
 
+        /**
+         * Creates a new audio device that pulls its samples from the given producer.
+         *
+         * The device starts playing immediately.
+         *
+         * @param isMono        Whether the device is mono or stereo
+         * @param sampleRate    The sample rate
+         * @param bufferSize    The size of each OpenAL buffer in bytes
+         * @param bufferCount   The number of OpenAL buffers
+         * @param producer      The producer to generate the samples
+         */
+        private Device(boolean isMono, int sampleRate, int bufferSize, int bufferCount, AudioProducer producer) {
+            this( isMono, sampleRate, bufferSize, bufferCount );
+            this.producer = producer;
+            pulled = new float[bufferSize/bytesPerSample];
+            startPull();
+        }
+
         /**
          * Allocates the OpenAL buffers to use for this device
          */
@@ -3027,6 +6947,7 @@ public class GDXAudio implements AudioEngine {
                 if (errorCode != AL10.AL_NO_ERROR) {
                     throw new GdxRuntimeException( "Unable to allocate audio buffers. AL Error: " + errorCode );
                 }
+                handle = registry.register( this, ResourceRegistry.BUFFERS, allBuffers );
                 for(int ii = 0; ii < bufferCount; ii++) {
                     usedBuffers.put(allBuffers.get(ii),0);
                 }
@@ -3062,14 +6983,17 @@ public class GDXAudio implements AudioEngine {
                 sourceId = -1;
             }
             AL10.alDeleteBuffers( allBuffers );
+            registry.release( handle );
+            handle = null;
             allBuffers = null;
         }
 
         /** 
          * Writes the array of 16-bit signed PCM samples to the audio device.
          *
-         * Stereo data should have its samples interleaved. This method blocks until 
-         * all samples have been processed.
+         * Stereo data should have its samples interleaved. The samples are copied to a
+         * ring buffer, and this method returns as soon as they all fit. It only blocks
+         * if the ring is full (see {@link #tryWrite(short[], int, int)}).
          *
          * Calling this method while the parent audio engine is paused is dangerous.
          * This will block because it is unable to clear the queue. Unless you are 
@@ -3081,23 +7005,21 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void writeSamples(short[] samples, int offset, int numSamples) {
-            if (bytes == null || bytes.length < numSamples * 2) bytes = new byte[numSamples * 2];
-            int end = Math.min( offset + numSamples, samples.length );
-            for (int i = offset, ii = 0; i < end; i++) {
-                short sample = samples[i];
-                bytes[ii++] = (byte) (sample & 0xFF);
-                bytes[ii++] = (byte) ((sample >> 8) & 0xFF);
+            if (producer != null) {
+                throw new GdxRuntimeException( "Cannot write to an audio device with a producer" );
             }
+            toBytes( samples, offset, numSamples );
             writeBytes( bytes, 0, numSamples * 2 );
         }
 
         /** 
          * Writes the array of float values PCM samples to the audio device.
          *
-         * Stereo data should have its samples interleaved. This method blocks until 
-         * all samples have been processed.
+         * Stereo data should have its samples interleaved. The samples are copied to a
+         * ring buffer, and this method returns as soon as they all fit. It only blocks
+         * if the ring is full (see {@link #tryWrite(float[], int, int)}).
          *
-           * Calling this method while the parent audio engine is paused is dangerous.
+         * Calling this method while the parent audio engine is paused is dangerous.
          * This will block because it is unable to clear the queue. Unless you are 
          * using this device in a multithreaded context, this can lead to a deadlock.
          * 
@@ -3107,15 +7029,10 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public void writeSamples(float[] samples, int offset, int numSamples) {
-            if (bytes == null || bytes.length < numSamples * 2) bytes = new byte[numSamples * 2];
-            int end = Math.min( offset + numSamples, samples.length );
-            for (int i = offset, ii = 0; i < end; i++) {
-                float floatSample = samples[i];
-                floatSample = MathUtils.clamp( floatSample, -1f, 1f );
-                int intSample = (int) (floatSample * 32767);
-                bytes[ii++] = (byte) (intSample & 0xFF);
-                bytes[ii++] = (byte) ((intSample >> 8) & 0xFF);
+            if (producer != null) {
+                throw new GdxRuntimeException( "Cannot write to an audio device with a producer" );
             }
+            toBytes( samples, offset, numSamples );
             writeBytes( bytes, 0, numSamples * 2 );
         }
 
@@ -3146,8 +7063,10 @@ public class GDXAudio implements AudioEngine {
          * Returns the device latency in number of samples
          *
          * This is the number of samples that must be processed before the currently
-         * written batch can be processed.  It exists because an audio devices does
-         * a lot of internal buffering.
+         * written batch can be processed.  It is the audio waiting in the ring buffer,
+         * plus the audio queued in OpenAL that has not yet been played. If the context
+         * supports AL_SOFT_source_latency, it also includes the output latency of the
+         * audio device (see {@link #getOutputLatency}).
          * 
          * This value is NOT samples per channel. If the device is stereo, then it is
          * multiplied times two.
@@ -3156,10 +7075,20 @@ public class GDXAudio implements AudioEngine {
          */
         @Override
         public int getLatency() {
-            // The original OpenAL device read the spec VERY wrong.
-            // There a quite a few spec bugs like this in the audio code (see pausing music)
-            int bufferLatency = bufferSize / bytesPerSample;
-            return bufferLatency * bufferCount;
+            synchronized (this) {
+                int pending = ring.available()+queuedBytes;
+                if (sourceId != -1) {
+                    if (latencySupported) {
+                        int frame = bytesPerSample*getChannels();
+                        SOFTSourceLatency.alGetSourcei64vSOFT( sourceId, SOFTSourceLatency.AL_SAMPLE_OFFSET_LATENCY_SOFT, latencyData );
+                        pending -= (int)(latencyData[0] >> 32)*frame;
+                        pending += (int)(latencyData[1]*sampleRate/1000000000L)*frame;
+                    } else {
+                        pending -= AL10.alGetSourcei( sourceId, AL11.AL_BYTE_OFFSET );
+                    }
+                }
+                return Math.max( pending, 0 )/bytesPerSample;
+            }
         }
 
         // #mark OpenAL Buffer API
@@ -3175,6 +7104,13 @@ public class GDXAudio implements AudioEngine {
                     renderedBytes = 0;
                     isPlaying = false;
                 }
+                ring.clear();
+                for(int ii = 0; ii < bufferCount; ii++) {
+                    usedBuffers.put( allBuffers.get( ii ), 0 );
+                }
+                bufferAvail = bufferCount;
+                queuedBytes = 0;
+                started = false;
             }
         }
 
@@ -3195,6 +7131,10 @@ public class GDXAudio implements AudioEngine {
         @Override
         public void resume() {
             synchronized (this) {
+                if (producer != null && sourceId == -1) {
+                    startPull();
+                    return;
+                }
                 resumeSource(sourceId);
                 isPlaying = true;
             }
@@ -3228,9 +7168,40 @@ public class GDXAudio implements AudioEngine {
                             return;
                         }
                         renderedBytes += byteoffs[bufferId-bufferStart];
+                        queuedBytes -= byteoffs[bufferId-bufferStart];
+                        stableBytes += byteoffs[bufferId-bufferStart];
                         usedBuffers.put( bufferId, 0 );
                         bufferAvail++;
                     }
+                    if (depth > minDepth && stableBytes >= STABLE_TIME*sampleRate*getChannels()*bytesPerSample) {
+                        depth--;
+                        stableBytes = 0;
+                    }
+                    if (producer != null && isPlaying && !globalPause) {
+                        if (exhausted) {
+                            if (bufferAvail == bufferCount) {
+                                stop();
+                            }
+                            return;
+                        }
+                        pull();
+                    } else if (producer == null) {
+                        drainRing();
+                    }
+
+                    // A buffer underflow will cause the source to stop.
+                    if (isPlaying && !globalPause && bufferAvail < bufferCount) {
+                        int state = AL10.alGetSourcei( sourceId, AL10.AL_SOURCE_STATE );
+                        if (state != AL10.AL_PLAYING) {
+                            if (started && state == AL10.AL_STOPPED) {
+                                underruns++;
+                                stableBytes = 0;
+                                depth = Math.min( depth+1, bufferCount );
+                            }
+                            playSource( sourceId );
+                            started = true;
+                        }
+                    }
                 }
             }
         }
@@ -3335,6 +7306,9 @@ public class GDXAudio implements AudioEngine {
          * @param length    The number of bytes to write to the device
          */
         public void writeBytes(byte[] data, int offset, int length) {
+            if (producer != null) {
+                throw new GdxRuntimeException( "Cannot write to an audio device with a producer" );
+            }
             if (length < 0) {
                 throw new IllegalArgumentException( "length cannot be < 0." );
             }
@@ -3343,49 +7317,118 @@ public class GDXAudio implements AudioEngine {
                 Gdx.app.log("OpenAL", "Writing samples to a paused audio sytem [potential deadlock]");
             }
             
-            // If I cared, I would make this more thread-efficent.
-            // But this is OpenAL, and there is only so much lipstick this pig will take
-            synchronized (this) {
-                if (sourceId == -1) {
-                
-                    sourceId = obtainSource( this );
-                    if (sourceId == -1) return;
-                
-                    AL10.alSourcei( sourceId, AL10.AL_LOOPING, AL10.AL_FALSE );
-                    AL10.alSourcef( sourceId, AL10.AL_GAIN, volume );
-                
-                    // Fill and queue some the initial buffers
-                    int written = fill(data, offset, length);
-                    length -= written;
-                    offset += written;
-                
-                    if (globalPause) {
-                        paused[sourceToIndex.get(sourceId, -1)] = true;
-                    } else {
-                        AL10.alSourcePlay( sourceId );
+            while (length > 0) {
+                int written = ring.write( data, offset, Math.min( length, budget() ) );
+                length -= written;
+                offset += written;
+                pump();
+                if (length > 0 && written == 0) {
+                    // Wait for buffer to be free (without holding the lock)
+                    try {
+                        Thread.sleep( Math.max( 1, (long)(500 * secondsPerBuffer) ) );
+                    } catch (InterruptedException ignored) {
                     }
-                    isPlaying = true;
                 }
-            
-                while (length > 0) {
-                    drain();
-                    int written = fill( data, offset, length );
-                    length -= written;
-                    offset += written;
-                
-                    // A buffer underflow will cause the source to stop.
-                    if (!isPlaying || getSourceState( sourceId ) != AL10.AL_PLAYING) {
-                        if (globalPause) {
-                            paused[sourceToIndex.get(sourceId, -1)] = true;
-                        } else {
-                            AL10.alSourcePlay( sourceId );
-                        }
-                        isPlaying = true;
-                    }
+            }
+        }
+
+        /**
+         * Returns the output latency of the audio device in seconds.
+         *
+         * This is the time between OpenAL mixing a sample and that sample reaching the
+         * speakers. It requires AL_SOFT_source_latency, and is 0 if that is not
+         * supported or this device is not playing.
+         *
+         * @return the output latency of the audio device in seconds.
+         */
+        public float getOutputLatency() {
+            synchronized (this) {
+                if (sourceId == -1 || !latencySupported) {
+                    return 0;
                 }
+                SOFTSourceLatency.alGetSourcei64vSOFT( sourceId, SOFTSourceLatency.AL_SAMPLE_OFFSET_LATENCY_SOFT, latencyData );
+                return latencyData[1]/1.0e9f;
+            }
+        }
+
+        /**
+         * Returns the number of buffers that may be queued at this time.
+         *
+         * For a low-latency device, this value changes over time as underruns occur.
+         *
+         * @return the number of buffers that may be queued at this time.
+         */
+        public int getBufferDepth() {
+            synchronized (this) {
+                return depth;
             }
         }
 
+        /**
+         * Returns the number of underruns since this device was created.
+         *
+         * An underrun happens when the device stops because it ran out of queued audio.
+         *
+         * @return the number of underruns since this device was created.
+         */
+        public int getUnderrunCount() {
+            synchronized (this) {
+                return underruns;
+            }
+        }
+
+        /**
+         * Writes as many of the 16-bit signed PCM samples as fit without blocking.
+         *
+         * Stereo data should have its samples interleaved. Only whole audio frames are
+         * written, so for a stereo device the value returned is always even. This
+         * method returns 0 if the device already holds its full queue depth.
+         *
+         * @param samples       The samples.
+         * @param offset        The offset into the samples array
+         * @param numSamples    The number of samples to write to the device
+         *
+         * @return the number of samples written
+         */
+        public int tryWrite(short[] samples, int offset, int numSamples) {
+            if (producer != null) {
+                throw new GdxRuntimeException( "Cannot write to an audio device with a producer" );
+            }
+            int amount = Math.min( numSamples, room() );
+            if (amount > 0) {
+                toBytes( samples, offset, amount );
+                ring.write( bytes, 0, amount * 2 );
+                pump();
+            }
+            return amount;
+        }
+
+        /**
+         * Writes as many of the float PCM samples as fit without blocking.
+         *
+         * Stereo data should have its samples interleaved. Only whole audio frames are
+         * written, so for a stereo device the value returned is always even. This
+         * method returns 0 if the device already holds its full queue depth.
+         *
+         * @param samples       The samples.
+         * @param offset        The offset into the samples array
+         * @param numSamples    The number of samples to write to the device
+         *
+         * @return the number of samples written
+         */
+        public int tryWrite(float[] samples, int offset, int numSamples) {
+            if (producer != null) {
+                throw new GdxRuntimeException( "Cannot write to an audio device with a producer" );
+            }
+            int amount = Math.min( numSamples, room() );
+            if (amount > 0) {
+                toBytes( samples, offset, amount );
+                ring.write( bytes, 0, amount * 2 );
+                pump();
+            }
+            return amount;
+        }
+
         // #mark Internal Methods
         /**
          * Returns the number of channels (1 for mono, 2 for stereo) of this audio device
@@ -3406,8 +7449,8 @@ public class GDXAudio implements AudioEngine {
          * @return the next empty and available OpenAL buffer for writing.
          */
         private int obtainBuffer() {
-            int endBuffer = (nextBuffer+bufferCount-1) % bufferCount;
-            for(int ii = nextBuffer; ii != endBuffer; ii = ((ii+1) % bufferCount)) {
+            for(int jj = 0; jj < bufferCount; jj++) {
+                int ii = (nextBuffer+jj) % bufferCount;
                 int bufferId = allBuffers.get(ii);
                 if (usedBuffers.get(bufferId,1) == 0) {
                     usedBuffers.put(bufferId,1);
@@ -3435,7 +7478,7 @@ public class GDXAudio implements AudioEngine {
         private int fill(byte[] data, int offset, int length) {
             int written = 0;
             while (written < length) {
-                if (bufferAvail == 0) {
+                if (bufferCount-bufferAvail >= depth) {
                     return written;
                 }
                 int bufferId = obtainBuffer();
@@ -3444,6 +7487,8 @@ public class GDXAudio implements AudioEngine {
                 tempBuffer.put(data, offset, amount).flip();
                 AL10.alBufferData(bufferId, format, tempBuffer, sampleRate);
                 AL10.alSourceQueueBuffers(sourceId, bufferId);
+                byteoffs[bufferId-bufferStart] = amount;
+                queuedBytes += amount;
                 written += amount;
                 offset  += amount;
             }
@@ -3451,21 +7496,166 @@ public class GDXAudio implements AudioEngine {
         }
         
         /**
-         * Blocks until an OpenAL buffer is available for use.
+         * Converts the float samples to bytes, storing them in {@link #bytes}
+         *
+         * @param samples       The samples.
+         * @param offset        The offset into the samples array
+         * @param numSamples    The number of samples to convert
+         */
+        private void toBytes(float[] samples, int offset, int numSamples) {
+            if (bytes == null || bytes.length < numSamples * 2) bytes = new byte[numSamples * 2];
+            int end = Math.min( offset + numSamples, samples.length );
+            for (int i = offset, ii = 0; i < end; i++) {
+                float floatSample = samples[i];
+                floatSample = MathUtils.clamp( floatSample, -1f, 1f );
+                int intSample = (int) (floatSample * 32767);
+                bytes[ii++] = (byte) (intSample & 0xFF);
+                bytes[ii++] = (byte) ((intSample >> 8) & 0xFF);
+            }
+        }
+
+        /**
+         * Starts play back of a device with a producer.
+         *
+         * This obtains a source, fills all available buffers from the producer, and
+         * starts the source.  This method does nothing if the device already has a source.
          */
-        private void drain() {
-            while (bufferAvail == 0) {
-                update(sourceId);
-                
-                if (bufferAvail == 0) {
-                    // Wait for buffer to be free.
-                    try {
-                        Thread.sleep( (long) (1000 * secondsPerBuffer) );
-                    } catch (InterruptedException ignored) {
+        private void startPull() {
+            synchronized (this) {
+                if (sourceId != -1) {
+                    return;
+                }
+                sourceId = obtainSource( this );
+                if (sourceId == -1) {
+                    Gdx.app.error( "OpenAL", "Unable to obtain a source for audio device" );
+                    return;
+                }
+                setSourceLoop( sourceId, false );
+                setSourceGain( sourceId, volume );
+                exhausted = false;
+                pull();
+                if (globalPause) {
+                    paused[sourceToIndex.get(sourceId, -1)] = true;
+                } else {
+                    playSource( sourceId );
+                }
+                isPlaying = true;
+            }
+        }
+
+        /**
+         * Fills every available buffer with samples from the producer.
+         *
+         * Short reads are padded with silence. If the producer finishes, no more buffers
+         * are filled, and the device stops once its queue is empty.
+         */
+        private void pull() {
+            int numSamples = pulled.length;
+            while (bufferCount-bufferAvail < depth && !exhausted) {
+                int amount = producer.produce( pulled, 0, numSamples );
+                if (amount < 0) {
+                    exhausted = true;
+                    return;
+                }
+                if (amount < numSamples) {
+                    Arrays.fill( pulled, Math.max( amount, 0 ), numSamples, 0 );
+                }
+                toBytes( pulled, 0, numSamples );
+                fill( bytes, 0, numSamples * 2 );
+            }
+        }
+
+        /**
+         * Sends as much data as possible from the ring buffer to OpenAL.
+         *
+         * This method never blocks. It makes this thread the consumer of the ring, and
+         * so it must only be called while holding the lock on this device.
+         */
+        private void drainRing() {
+            int frame = bytesPerSample*getChannels();
+            while (bufferCount-bufferAvail < depth) {
+                int amount = Math.min( bufferSize, ring.available() )/frame*frame;
+                if (amount == 0) {
+                    return;
+                }
+                int bufferId = obtainBuffer();
+                tempBuffer.clear();
+                ring.read( tempBuffer, amount );
+                tempBuffer.flip();
+                AL10.alBufferData(bufferId, format, tempBuffer, sampleRate);
+                AL10.alSourceQueueBuffers(sourceId, bufferId);
+                byteoffs[bufferId-bufferStart] = amount;
+                queuedBytes += amount;
+            }
+        }
+
+        /**
+         * Moves written data from the ring buffer to OpenAL, starting play back if needed.
+         *
+         * This is called by the writing thread after every write. It holds the lock on
+         * this device only long enough to queue the free OpenAL buffers, and never sleeps.
+         */
+        private void pump() {
+            synchronized (this) {
+                if (sourceId == -1) {
+                    sourceId = obtainSource( this );
+                    if (sourceId == -1) {
+                        return;
                     }
+                    setSourceLoop( sourceId, false );
+                    setSourceGain( sourceId, volume );
+                }
+                isPlaying = true;
+                update( sourceId );
+                if (globalPause) {
+                    paused[sourceToIndex.get(sourceId, -1)] = true;
                 }
             }
         }
 
+        /**
+         * Returns the number of samples that can be written to the ring without blocking.
+         *
+         * This value is always a whole number of audio frames.
+         *
+         * @return the number of samples that can be written to the ring without blocking.
+         */
+        private int room() {
+            return budget()/bytesPerSample;
+        }
+
+        /**
+         * Returns the number of bytes that can be written to the ring without blocking.
+         *
+         * The bytes in the ring plus the bytes queued in OpenAL never exceed the current
+         * queue depth. Otherwise a writer would stay ahead of playback by the whole ring,
+         * and the depth adaptation would have no effect on latency. This value is always
+         * a whole number of audio frames.
+         *
+         * @return the number of bytes that can be written to the ring without blocking.
+         */
+        private int budget() {
+            int frame = bytesPerSample*getChannels();
+            int limit = depth*bufferSize-ring.available()-queuedBytes;
+            return Math.max( Math.min( ring.free(), limit ), 0 )/frame*frame;
+        }
+
+        /**
+         * Converts the short samples to bytes, storing them in {@link #bytes}
+         *
+         * @param samples       The samples.
+         * @param offset        The offset into the samples array
+         * @param numSamples    The number of samples to convert
+         */
+        private void toBytes(short[] samples, int offset, int numSamples) {
+            if (bytes == null || bytes.length < numSamples * 2) bytes = new byte[numSamples * 2];
+            int end = Math.min( offset + numSamples, samples.length );
+            for (int i = offset, ii = 0; i < end; i++) {
+                short sample = samples[i];
+                bytes[ii++] = (byte) (sample & 0xFF);
+                bytes[ii++] = (byte) ((sample >> 8) & 0xFF);
+            }
+        }
+
     }
 }
\ No newline at end of file
@@ -0,0 +1,227 @@
+/*
+ * ResourceRegistry.java
+ *
+ * This class reclaims the native OpenAL resources of audio objects that were never
+ * disposed.  It replaces finalizers, which delay collection and run on a thread that
+ * does not have the OpenAL context.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.backend;
+
+import com.badlogic.gdx.utils.ObjectSet;
+import edu.cornell.gdiac.audio.AudioStats;
+import org.lwjgl.openal.AL10;
+import org.lwjgl.openal.EXTEfx;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.IntBuffer;
+
+/**
+ * This class tracks the OpenAL resources owned by audio objects.
+ *
+ * An object registers its resources (buffers, sources, or effects) when it creates
+ * them, and releases the registration when it is disposed.  If an object becomes
+ * unreachable without being disposed, the garbage collector enqueues its registration.
+ * The engine then deletes the resources on its own thread (where the OpenAL context
+ * is current) the next time it calls {@link #drain}, and counts them as leaks in its
+ * {@link AudioStats}.
+ *
+ * The registrations are phantom references, so they never delay collection of the
+ * owner. They only store the resource ids, and never refer back to the owner.
+ */
+public class ResourceRegistry {
+    /** The resource type for OpenAL buffers */
+    public static final int BUFFERS = 0;
+    /** The resource type for OpenAL sources */
+    public static final int SOURCES = 1;
+    /** The resource type for EFX effects */
+    public static final int EFFECTS = 2;
+    /** The resource type for shared sound buffers (identified by cache serial number) */
+    public static final int SAMPLES = 3;
+    /** The resource type for EFX filters */
+    public static final int FILTERS = 4;
+
+    /**
+     * This class is the registration for the resources of a single owner.
+     */
+    public static class Handle extends PhantomReference<Object> {
+        /** The resource type */
+        private final int type;
+        /** The OpenAL ids of the resources */
+        private final int[] ids;
+
+        /**
+         * Creates a registration for the given owner
+         *
+         * @param owner The object owning the resources
+         * @param queue The queue to notify when the owner is unreachable
+         * @param type  The resource type
+         * @param ids   The OpenAL ids of the resources
+         */
+        private Handle(Object owner, ReferenceQueue<Object> queue, int type, int[] ids) {
+            super( owner, queue );
+            this.type = type;
+            this.ids  = ids;
+        }
+    }
+
+    /** The engine that owns the resources */
+    private final GDXAudio engine;
+    /** The statistics to update on a leak */
+    private final AudioStats stats;
+    /** The queue of registrations whose owners are unreachable */
+    private final ReferenceQueue<Object> queue;
+    /** The active registrations (which must stay reachable until processed) */
+    private final ObjectSet<Handle> active;
+
+    /**
+     * Creates a new registry for the given engine
+     *
+     * @param engine    The engine that owns the resources
+     * @param stats     The statistics to update on a leak
+     */
+    public ResourceRegistry(GDXAudio engine, AudioStats stats) {
+        this.engine = engine;
+        this.stats  = stats;
+        queue  = new ReferenceQueue<Object>();
+        active = new ObjectSet<Handle>();
+    }
+
+    /**
+     * Registers the resources of the given owner.
+     *
+     * The resources will be deleted by {@link #drain} if the owner becomes unreachable
+     * before the registration is released.  The ids are copied.
+     *
+     * @param owner The object owning the resources
+     * @param type  The resource type
+     * @param ids   The OpenAL ids of the resources
+     *
+     * @return the registration for the resources
+     */
+    public synchronized Handle register(Object owner, int type, int... ids) {
+        Handle handle = new Handle( owner, queue, type, ids.clone() );
+        active.add( handle );
+        return handle;
+    }
+
+    /**
+     * Registers the resources of the given owner.
+     *
+     * The resources will be deleted by {@link #drain} if the owner becomes unreachable
+     * before the registration is released.  The ids are read from the buffer position
+     * to its limit, and the buffer position is unchanged.
+     *
+     * @param owner The object owning the resources
+     * @param type  The resource type
+     * @param ids   The OpenAL ids of the resources
+     *
+     * @return the registration for the resources
+     */
+    public Handle register(Object owner, int type, IntBuffer ids) {
+        int[] copy = new int[ids.remaining()];
+        ids.duplicate().get( copy );
+        return register( owner, type, copy );
+    }
+
+    /**
+     * Releases the given registration.
+     *
+     * This should be called when the owner is disposed (and has deleted its resources).
+     * This method does nothing if the handle is null or already released.
+     *
+     * @param handle    The registration to release
+     */
+    public synchronized void release(Handle handle) {
+        if (handle != null && active.remove( handle )) {
+            handle.clear();
+        }
+    }
+
+    /**
+     * Returns the number of active registrations
+     *
+     * @return the number of active registrations
+     */
+    public synchronized int size() {
+        return active.size;
+    }
+
+    /**
+     * Deletes the resources of all owners that were collected without being disposed.
+     *
+     * This method must be called on the thread with the OpenAL context. It does not
+     * block, and returns the number of registrations processed.
+     *
+     * @return the number of registrations processed
+     */
+    public int drain() {
+        int count = 0;
+        Handle handle = (Handle)queue.poll();
+        while (handle != null) {
+            boolean leaked;
+            synchronized (this) {
+                leaked = active.remove( handle );
+            }
+            if (leaked) {
+                reclaim( handle );
+                count++;
+            }
+            handle = (Handle)queue.poll();
+        }
+        return count;
+    }
+
+    /**
+     * Forgets all registrations without deleting any resources.
+     *
+     * This is used when the engine is disposed, as the OpenAL context is destroyed
+     * along with all of its resources.
+     */
+    public synchronized void clear() {
+        for(Handle handle : active) {
+            handle.clear();
+        }
+        active.clear();
+    }
+
+    /**
+     * Deletes the resources of the given registration
+     *
+     * @param handle    The registration to reclaim
+     */
+    private void reclaim(Handle handle) {
+        switch (handle.type) {
+            case BUFFERS:
+                AL10.alDeleteBuffers( handle.ids );
+                stats.leakedBuffers += handle.ids.length;
+                break;
+            case SOURCES:
+                for(int id : handle.ids) {
+                    AL10.alSourceStop( id );
+                }
+                AL10.alDeleteSources( handle.ids );
+                stats.leakedSources += handle.ids.length;
+                break;
+            case EFFECTS:
+                for(int id : handle.ids) {
+                    engine.reclaimEffect( id );
+                }
+                stats.leakedEffects += handle.ids.length;
+                break;
+            case SAMPLES:
+                for(int id : handle.ids) {
+                    engine.reclaimSample( id );
+                }
+                stats.leakedBuffers += handle.ids.length;
+                break;
+            case FILTERS:
+                EXTEfx.alDeleteFilters( handle.ids );
+                stats.leakedEffects += handle.ids.length;
+                break;
+        }
+    }
+}
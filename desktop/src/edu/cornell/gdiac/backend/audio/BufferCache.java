@@ -0,0 +1,546 @@
+/*
+ * BufferCache.java
+ *
+ * This is a shared cache of the OpenAL buffers for sound effects. It allows several
+ * sound effects for the same audio file to share a single decoded buffer, which is
+ * deleted when the last of them is disposed. It also keeps the resident sound data
+ * within a memory budget by evicting buffers that have not been played recently.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.backend.audio;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.IntSet;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.StreamUtils;
+import com.badlogic.gdx.utils.async.AsyncExecutor;
+import com.badlogic.gdx.utils.async.AsyncTask;
+import edu.cornell.gdiac.audio.AudioSource;
+import edu.cornell.gdiac.audio.AudioStats;
+import org.lwjgl.openal.AL10;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.zip.CRC32;
+
+/**
+ * This class is a reference-counted cache of OpenAL buffers for sound effects.
+ *
+ * Buffers are keyed by the path of the source file together with a CRC32 hash of
+ * its contents. So two sources for the same file share a buffer (even if they were
+ * created from different asset keys), while a file that has changed on disk does not
+ * reuse a stale buffer. Sources that are not backed by a file are never shared. The
+ * hash of each file is remembered, and only computed again if the size or the
+ * modification time of the file changes.
+ *
+ * Each call to {@link #acquire} must be balanced by a call to {@link #release}. The
+ * buffer is deleted when its last reference is released.  Entries are identified by
+ * a serial number that never changes, so that references may be tracked without
+ * holding on to the entry.
+ *
+ * If the cache has a memory budget, {@link #trim} evicts the least recently played
+ * buffers until the resident data fits within the budget. An evicted entry keeps its
+ * references, and is decoded again from its {@link AudioSource} the next time that
+ * it is played with {@link #touch}. To hide this cost, an entry may be decoded ahead
+ * of time on a background thread with {@link #prewarm}; the decoded data is uploaded
+ * to OpenAL at the next call to {@link #flush}.
+ */
+public class BufferCache {
+    /** The size of the read buffer when hashing files */
+    private static final int READ_SIZE = 16384;
+
+    /**
+     * This class is a single (possibly shared) OpenAL buffer.
+     */
+    public static class Entry {
+        /** The cache key (or null if this buffer is not shared) */
+        private final String key;
+        /** The serial number identifying this entry */
+        private final int serial;
+        /** The audio source that provided the data */
+        private final AudioSource source;
+        /** The OpenAL buffer */
+        private int bufferId;
+        /** The size of the buffer data in bytes */
+        private int bytes;
+        /** The number of sound effects using this buffer */
+        private int refs;
+        /** The last time (in cache ticks) that this buffer was played */
+        private long lastUsed;
+        /** Data decoded by a pre-warm hint, waiting to be uploaded */
+        private ByteBuffer pending;
+        /** Whether this entry is being decoded by a pre-warm hint */
+        private boolean warming;
+
+        /**
+         * Creates a new cache entry
+         *
+         * @param key       The cache key (or null if this buffer is not shared)
+         * @param serial    The serial number identifying this entry
+         * @param source    The audio source that provided the data
+         */
+        private Entry(String key, int serial, AudioSource source) {
+            this.key = key;
+            this.serial = serial;
+            this.source = source;
+            this.bufferId = -1;
+        }
+
+        /**
+         * Returns the serial number identifying this entry
+         *
+         * @return the serial number identifying this entry
+         */
+        public int getSerial() {
+            return serial;
+        }
+
+        /**
+         * Returns the OpenAL buffer for this entry
+         *
+         * @return the OpenAL buffer for this entry
+         */
+        public int getBuffer() {
+            return bufferId;
+        }
+
+        /**
+         * Returns true if the buffer data is resident in OpenAL memory
+         *
+         * @return true if the buffer data is resident in OpenAL memory
+         */
+        public boolean isResident() {
+            return bufferId != -1;
+        }
+
+        /**
+         * Returns the size of the buffer data in bytes
+         *
+         * @return the size of the buffer data in bytes
+         */
+        public int getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Returns the audio source that provided the data
+         *
+         * @return the audio source that provided the data
+         */
+        public AudioSource getSource() {
+            return source;
+        }
+    }
+
+    /**
+     * This class is the remembered hash of a source file.
+     */
+    private static class FileHash {
+        /** The size of the file when it was hashed */
+        long length;
+        /** The modification time of the file when it was hashed */
+        long modified;
+        /** The cache key for the file */
+        String key;
+    }
+
+    /** The shared entries by key */
+    private final ObjectMap<String,Entry> shared;
+    /** All entries by serial number */
+    private final IntMap<Entry> entries;
+    /** The remembered file hashes by path */
+    private final ObjectMap<String,FileHash> hashes;
+    /** The next serial number to assign */
+    private int nextSerial;
+    /** The statistics to update */
+    private final AudioStats stats;
+    /** The maximum number of resident bytes (0 for no limit) */
+    private int budget;
+    /** The current number of resident bytes */
+    private long resident;
+    /** The cache clock for recording use */
+    private long clock;
+    /** The entries decoded by a pre-warm hint, waiting to be uploaded */
+    private final Array<Entry> warmed;
+    /** The background thread for pre-warm hints (allocated on first use) */
+    private AsyncExecutor executor;
+
+    /** Sorts entries from least to most recently used */
+    private static final Comparator<Entry> LEAST_RECENT = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry a, Entry b) {
+            return a.lastUsed < b.lastUsed ? -1 : (a.lastUsed > b.lastUsed ? 1 : 0);
+        }
+    };
+
+    /**
+     * Creates a new, empty buffer cache with no memory budget
+     *
+     * @param stats The statistics to update
+     */
+    public BufferCache(AudioStats stats) {
+        this.stats = stats;
+        shared  = new ObjectMap<String,Entry>();
+        entries = new IntMap<Entry>();
+        hashes  = new ObjectMap<String,FileHash>();
+        warmed  = new Array<Entry>();
+        nextSerial = 1;
+    }
+
+    // #mark Budget
+    /**
+     * Returns the maximum number of resident bytes (0 for no limit)
+     *
+     * @return the maximum number of resident bytes (0 for no limit)
+     */
+    public synchronized int getBudget() {
+        return budget;
+    }
+
+    /**
+     * Sets the maximum number of resident bytes (0 for no limit)
+     *
+     * The budget is enforced by the next call to {@link #trim}.
+     *
+     * @param bytes The maximum number of resident bytes (0 for no limit)
+     */
+    public synchronized void setBudget(int bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException( "Sound budget cannot be negative" );
+        }
+        budget = bytes;
+    }
+
+    /**
+     * Returns the current number of resident bytes
+     *
+     * @return the current number of resident bytes
+     */
+    public synchronized long getResidentBytes() {
+        return resident;
+    }
+
+    /**
+     * Returns true if the resident data exceeds the memory budget
+     *
+     * @return true if the resident data exceeds the memory budget
+     */
+    public synchronized boolean isOverBudget() {
+        return budget > 0 && resident > budget;
+    }
+
+    /**
+     * Returns a reference to an OpenAL buffer with the data of the given source.
+     *
+     * If there is already a buffer for the same file, this method increments its
+     * reference count. Otherwise, it decodes the source into a new buffer. This
+     * method must be called on a thread with the OpenAL context.
+     *
+     * @param source    The audio source
+     *
+     * @throws GdxRuntimeException if the buffer could not be created
+     * @return a reference to an OpenAL buffer with the data of the given source.
+     */
+    public synchronized Entry acquire(AudioSource source) {
+        String key = keyOf( source );
+        Entry entry = key == null ? null : shared.get( key );
+        if (entry == null) {
+            entry = new Entry( key, nextSerial++, source );
+            load( entry );
+            entry.lastUsed = ++clock;
+            entries.put( entry.serial, entry );
+            if (key != null) {
+                shared.put( key, entry );
+            }
+        }
+        entry.refs++;
+        return entry;
+    }
+
+    /**
+     * Releases a reference to the given entry.
+     *
+     * The OpenAL buffer is deleted once the last reference is released. The buffer
+     * must not be attached to any OpenAL source at that time.  This method does
+     * nothing if the entry is not in this cache.
+     *
+     * @param serial    The serial number identifying the entry
+     *
+     * @return true if the OpenAL buffer was deleted
+     */
+    public synchronized boolean release(int serial) {
+        Entry entry = entries.get( serial );
+        if (entry == null) {
+            return false;
+        }
+        entry.refs--;
+        if (entry.refs > 0) {
+            return false;
+        }
+        entries.remove( serial );
+        if (entry.key != null) {
+            shared.remove( entry.key );
+        }
+        if (entry.bufferId != -1) {
+            AL10.alDeleteBuffers( entry.bufferId );
+            entry.bufferId = -1;
+            resident -= entry.bytes;
+            stats.residentBytes = resident;
+        }
+        entry.pending = null;
+        return true;
+    }
+
+    /**
+     * Returns the OpenAL buffer for the given entry, marking it as recently played.
+     *
+     * If the entry was evicted, this method decodes its source again (counted as a
+     * miss). Otherwise it is counted as a hit. This method must be called on a
+     * thread with the OpenAL context.
+     *
+     * @param entry The cache entry
+     *
+     * @throws GdxRuntimeException if the buffer could not be created
+     * @return the OpenAL buffer for the given entry
+     */
+    public synchronized int touch(Entry entry) {
+        if (entry.bufferId == -1) {
+            load( entry );
+            stats.soundMisses++;
+        } else {
+            stats.soundHits++;
+        }
+        entry.lastUsed = ++clock;
+        return entry.bufferId;
+    }
+
+    /**
+     * Evicts the least recently played buffers until the cache is within budget.
+     *
+     * Buffers in the given set are attached to an OpenAL source and cannot be
+     * evicted. This method must be called on a thread with the OpenAL context.
+     *
+     * @param busy  The OpenAL buffers that are currently in use
+     *
+     * @return the number of buffers evicted
+     */
+    public synchronized int trim(IntSet busy) {
+        if (budget <= 0 || resident <= budget) {
+            return 0;
+        }
+
+        Array<Entry> candidates = new Array<Entry>();
+        for(Entry entry : entries.values()) {
+            if (entry.bufferId != -1 && !busy.contains( entry.bufferId )) {
+                candidates.add( entry );
+            }
+        }
+        candidates.sort( LEAST_RECENT );
+
+        int count = 0;
+        for(int ii = 0; ii < candidates.size && resident > budget; ii++) {
+            Entry entry = candidates.get( ii );
+            AL10.alDeleteBuffers( entry.bufferId );
+            entry.bufferId = -1;
+            resident -= entry.bytes;
+            stats.soundEvictions++;
+            count++;
+        }
+        stats.residentBytes = resident;
+        return count;
+    }
+
+    // #mark Pre-warming
+    /**
+     * Decodes the given entry on a background thread, if it is not resident.
+     *
+     * This is a hint that the sound will be played soon. The decoded data is uploaded
+     * to OpenAL at the next call to {@link #flush}.  This method returns false if the
+     * entry is already resident or being decoded.
+     *
+     * @param entry The cache entry
+     *
+     * @return true if the entry will be decoded
+     */
+    public synchronized boolean prewarm(final Entry entry) {
+        if (entry.bufferId != -1 || entry.warming || entry.pending != null || entry.refs <= 0) {
+            return false;
+        }
+        if (executor == null) {
+            executor = new AsyncExecutor( 1, "SoundPrewarm" );
+        }
+        entry.warming = true;
+        executor.submit( new AsyncTask<Void>() {
+            @Override
+            public Void call() {
+                ByteBuffer data = null;
+                try {
+                    synchronized (entry.source) {
+                        data = entry.source.getData();
+                    }
+                } catch (Exception ex) {
+                    Gdx.app.error( "OpenAL", "Unable to pre-warm "+entry.source+": "+ex.getMessage() );
+                }
+                synchronized (BufferCache.this) {
+                    entry.warming = false;
+                    if (data != null && entry.bufferId == -1 && entry.refs > 0) {
+                        entry.pending = data;
+                        warmed.add( entry );
+                    }
+                }
+                return null;
+            }
+        } );
+        return true;
+    }
+
+    /**
+     * Uploads the data decoded by pre-warm hints to OpenAL.
+     *
+     * This method must be called on a thread with the OpenAL context.
+     *
+     * @return the number of buffers uploaded
+     */
+    public synchronized int flush() {
+        int count = 0;
+        for(int ii = 0; ii < warmed.size; ii++) {
+            Entry entry = warmed.get( ii );
+            if (entry.pending != null && entry.bufferId == -1 && entry.refs > 0) {
+                load( entry );
+                entry.lastUsed = ++clock;
+                stats.soundPrewarms++;
+                count++;
+            }
+            entry.pending = null;
+        }
+        warmed.clear();
+        return count;
+    }
+
+    /**
+     * Returns the number of OpenAL buffers in this cache
+     *
+     * @return the number of OpenAL buffers in this cache
+     */
+    public synchronized int size() {
+        return entries.size;
+    }
+
+    /**
+     * Forgets all entries without deleting any OpenAL buffers.
+     *
+     * This is used when the engine is disposed, as the OpenAL context is destroyed
+     * along with all of its resources. It also stops the pre-warm thread.
+     */
+    public synchronized void clear() {
+        for(Entry entry : entries.values()) {
+            entry.bufferId = -1;
+            entry.pending = null;
+            entry.refs = 0;
+        }
+        shared.clear();
+        entries.clear();
+        hashes.clear();
+        warmed.clear();
+        resident = 0;
+        stats.residentBytes = 0;
+        if (executor != null) {
+            executor.dispose();
+            executor = null;
+        }
+    }
+
+    /**
+     * Decodes the source of the given entry into a new OpenAL buffer
+     *
+     * If the entry has data from a pre-warm hint, that data is used instead.
+     *
+     * @param entry The cache entry
+     *
+     * @throws GdxRuntimeException if the buffer could not be created
+     */
+    private void load(Entry entry) {
+        AudioSource source = entry.source;
+        ByteBuffer data = entry.pending;
+        entry.pending = null;
+        if (data == null) {
+            synchronized (source) {
+                data = source.getData();
+            }
+        }
+        if (data == null) {
+            throw new GdxRuntimeException( "Unable to decode "+source );
+        }
+        int format = source.getChannels() > 1 ? AL10.AL_FORMAT_STEREO16 : AL10.AL_FORMAT_MONO16;
+        int bufferId = AL10.alGenBuffers();
+        AL10.alBufferData( bufferId, format, data.asShortBuffer(), source.getSampleRate() );
+        int errorCode = AL10.alGetError();
+        if (errorCode != AL10.AL_NO_ERROR) {
+            AL10.alDeleteBuffers( bufferId );
+            throw new GdxRuntimeException( "Unable to allocate sound buffer. AL Error: " + errorCode );
+        }
+        entry.bufferId = bufferId;
+        entry.bytes = data.limit();
+        resident += entry.bytes;
+        stats.residentBytes = resident;
+    }
+
+    /**
+     * Returns the cache key for the given source.
+     *
+     * The key is the path of the source file, together with the hash of its contents.
+     * The file is only read if it has not been hashed before, or if its size or
+     * modification time has changed since. This method returns null if the source is
+     * not backed by a readable file.
+     *
+     * @param source    The audio source
+     *
+     * @return the cache key for the given source.
+     */
+    private String keyOf(AudioSource source) {
+        FileHandle file = source.getFile();
+        if (file == null || file.isDirectory() || !file.exists()) {
+            return null;
+        }
+
+        String path = file.type()+":"+file.path();
+        long length = file.length();
+        long modified = file.lastModified();
+        FileHash hash = hashes.get( path );
+        if (hash != null && hash.length == length && hash.modified == modified) {
+            return hash.key;
+        }
+
+        CRC32 crc = new CRC32();
+        byte[] bytes = new byte[READ_SIZE];
+        InputStream input = null;
+        try {
+            input = file.read();
+            int amt = input.read( bytes );
+            while (amt != -1) {
+                crc.update( bytes, 0, amt );
+                amt = input.read( bytes );
+            }
+        } catch (Exception ex) {
+            Gdx.app.error( "OpenAL", "Unable to hash "+file+": "+ex.getMessage() );
+            return null;
+        } finally {
+            StreamUtils.closeQuietly( input );
+        }
+        if (hash == null) {
+            hash = new FileHash();
+            hashes.put( path, hash );
+        }
+        hash.length = length;
+        hash.modified = modified;
+        hash.key = path+"#"+Long.toHexString( crc.getValue() );
+        return hash.key;
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * LoopRegion.java
+ *
+ * This class represents a loop region in a music queue entry.  It caches the decoded
+ * audio at the start of the loop, and keeps a spare stream parked just after that
+ * cached audio.  That way, wrapping around to the loop start only copies memory; it
+ * never has to reopen the file or restart the decoder at the time of the loop.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.backend.audio;
+
+import edu.cornell.gdiac.audio.AudioSource;
+import edu.cornell.gdiac.audio.AudioStream;
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class is a loop region for an {@link AudioSource} in a music queue.
+ *
+ * The region is defined by a start and end marker, measured in sample frames (samples
+ * per channel). When playback reaches the end marker, it should continue at the start
+ * marker. To support this, the region caches the head of the loop (the decoded data
+ * at the start marker) and maintains a spare {@link AudioStream} positioned exactly at
+ * the end of the cached head.
+ *
+ * On a wrap-around, the music queue plays the cached head and swaps its stream for the
+ * spare with {@link #swap}. The stream that was swapped out becomes the new spare, and
+ * is repositioned incrementally over several calls to {@link #prepare}. This work is
+ * done long before the next wrap-around, so the wrap-around itself is just a memory
+ * copy.
+ */
+public class LoopRegion {
+    /** The size of the read buffer (mandated by the simple MP3 decoder) */
+    private static final int READ_SIZE = 16384;
+    /** The minimum amount of data (in bytes) to cache at the loop start */
+    private static final int HEAD_SIZE = 2*READ_SIZE;
+
+    /** The audio source for this loop region */
+    private final AudioSource source;
+    /** The loop start in sample frames */
+    private final long startFrame;
+    /** The loop end in sample frames (or -1 for the end of the source) */
+    private final long endFrame;
+    /** The loop start in bytes */
+    private final long start;
+    /** The loop end in bytes */
+    private long end;
+
+    /** The decoded audio at the loop start (null if not yet cached) */
+    private ByteBuffer head;
+    /** Whether the head has been completely cached */
+    private boolean captured;
+    /** The stream position at the end of the cached head */
+    private long headEnd;
+    /** The spare stream for continuing after the cached head */
+    private AudioStream spare;
+    /** Whether the spare stream is positioned at the end of the cached head */
+    private boolean ready;
+    /** Whether the spare stream must be reset before it is repositioned */
+    private boolean rewind;
+    /** Whether the spare stream could not be positioned exactly */
+    private boolean failed;
+    /** A buffer for decoding the spare stream */
+    private byte[] scratch;
+
+    /**
+     * Creates a new loop region for the given audio source.
+     *
+     * The markers are measured in sample frames (samples per channel).  If the end
+     * marker is negative, the loop ends at the end of the source.  No decoding takes
+     * place until the first call to {@link #prepare}.
+     *
+     * @param source    The audio source to loop
+     * @param start     The loop start in sample frames
+     * @param end       The loop end in sample frames (or -1 for the source end)
+     *
+     * @throws IllegalArgumentException if the markers do not define a valid region
+     */
+    public LoopRegion(AudioSource source, long start, long end) {
+        int frame = 2*source.getChannels();
+        long size = ((long)(source.getDuration()*source.getSampleRate()))*frame;
+        if (start < 0 || (end >= 0 && end <= start) || start*frame >= size) {
+            throw new IllegalArgumentException( "Invalid loop region ["+start+","+end+"] for "+source );
+        }
+        this.source = source;
+        this.startFrame = start;
+        this.endFrame = end;
+        this.start = start*frame;
+        this.end = end < 0 ? size : Math.min( end*frame, size );
+    }
+
+    /**
+     * Returns the audio source for this loop region
+     *
+     * @return the audio source for this loop region
+     */
+    public AudioSource getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the loop start in sample frames
+     *
+     * @return the loop start in sample frames
+     */
+    public long getStartFrame() {
+        return startFrame;
+    }
+
+    /**
+     * Returns the loop end in sample frames (or -1 for the source end)
+     *
+     * @return the loop end in sample frames (or -1 for the source end)
+     */
+    public long getEndFrame() {
+        return endFrame;
+    }
+
+    /**
+     * Returns the loop start in bytes
+     *
+     * @return the loop start in bytes
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the loop end in bytes
+     *
+     * @return the loop end in bytes
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns a view of the cached audio at the loop start.
+     *
+     * The view is positioned at the start of the data and has its own position, so it
+     * may be consumed freely.  This method returns null if the head has not been cached
+     * yet.
+     *
+     * @return a view of the cached audio at the loop start.
+     */
+    public ByteBuffer getHead() {
+        return captured ? head.duplicate() : null;
+    }
+
+    /**
+     * Returns true if the cached head covers the entire loop region
+     *
+     * In that case, the loop never needs to read from a stream after a wrap-around.
+     *
+     * @return true if the cached head covers the entire loop region
+     */
+    public boolean isCached() {
+        return captured && headEnd >= end;
+    }
+
+    /**
+     * Returns true if the spare stream is ready for a wrap-around
+     *
+     * @return true if the spare stream is ready for a wrap-around
+     */
+    public boolean isReady() {
+        return captured && (ready || isCached());
+    }
+
+    /**
+     * Performs a bounded amount of work to prepare this region for a wrap-around.
+     *
+     * The first time this is called, it decodes the audio up to the loop start and
+     * caches the head of the loop.  Afterwards, it resets and repositions the spare
+     * stream after each swap.  No more than the given number of chunks are decoded in
+     * a single call (resetting the stream counts as one).  This method returns true if
+     * the region is ready for a wrap-around.
+     *
+     * @param reads The maximum number of chunks to decode
+     *
+     * @return true if the region is ready for a wrap-around
+     */
+    public boolean prepare(int reads) {
+        if (isReady() || failed) {
+            return isReady();
+        }
+        if (scratch == null) {
+            scratch = new byte[READ_SIZE];
+        }
+        if (spare == null) {
+            spare = source.getStream();
+        } else if (rewind && reads > 0) {
+            // This may reopen the file, so it is kept out of the swap
+            spare.reset();
+            rewind = false;
+            reads--;
+        }
+
+        while (reads-- > 0 && !isReady() && !failed) {
+            long offset = spare.getByteOffset();
+            int length = spare.read( scratch );
+            if (length <= 0) {
+                // The source ended early
+                if (captured || head == null) {
+                    failed = true;
+                } else {
+                    end = headEnd;
+                    captured = true;
+                    head.flip();
+                }
+                break;
+            }
+            if (!captured) {
+                capture( offset, length );
+            } else if (offset+length >= headEnd) {
+                ready = offset+length == headEnd;
+                failed = !ready;
+            }
+        }
+        return isReady();
+    }
+
+    /**
+     * Swaps out the given stream for the spare stream.
+     *
+     * The spare stream is positioned at the end of the cached head.  The stream given
+     * becomes the new spare, and will be reset and repositioned by later calls to
+     * {@link #prepare}.  This method only exchanges the streams, and does no I/O.
+     * This method returns null (and keeps the given stream) if the region is not ready
+     * or if the region is fully cached.
+     *
+     * @param stream    The stream that reached the loop end
+     *
+     * @return the stream to continue playback after the cached head
+     */
+    public AudioStream swap(AudioStream stream) {
+        if (!ready || isCached()) {
+            return null;
+        }
+        AudioStream result = spare;
+        spare = stream;
+        rewind = true;
+        ready = false;
+        return result;
+    }
+
+    /**
+     * Returns the stream position at the end of the cached head.
+     *
+     * @return the stream position at the end of the cached head.
+     */
+    public long getHeadEnd() {
+        return headEnd;
+    }
+
+    /**
+     * Releases the spare stream and cached data of this region.
+     */
+    public void dispose() {
+        if (spare != null) {
+            spare.reset();
+            spare = null;
+        }
+        rewind = false;
+        head = null;
+        scratch = null;
+        captured = false;
+        ready = false;
+    }
+
+    /**
+     * Copies the loop portion of a chunk of decoded data into the cached head.
+     *
+     * The head always ends on a chunk boundary (or at the loop end), so that a fresh
+     * stream decoding with the same chunk size will stop exactly at the end of it.
+     *
+     * @param offset    The stream position of the chunk
+     * @param length    The number of bytes in the chunk
+     */
+    private void capture(long offset, int length) {
+        long last = offset+length;
+        if (last <= start) {
+            return;
+        }
+        if (head == null) {
+            long size = Math.min( end-start, HEAD_SIZE+READ_SIZE );
+            head = BufferUtils.createByteBuffer( (int)size );
+        }
+
+        int from = (int)Math.max( 0, start-offset );
+        int amount = (int)Math.min( length-from, end-offset-from );
+        head.put( scratch, from, amount );
+        headEnd = offset+from+amount;
+        if (head.position() >= HEAD_SIZE || headEnd >= end) {
+            // The spare stream is now exactly where the cached head ends
+            head.flip();
+            captured = true;
+            ready = true;
+        }
+    }
+}
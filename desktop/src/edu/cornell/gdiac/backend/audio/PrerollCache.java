@@ -0,0 +1,200 @@
+/*
+ * PrerollCache.java
+ *
+ * This is a shared cache of decoded PCM data for the head of each music source. It
+ * allows a music buffer to start playback without decoding anything on the calling
+ * thread. The cache is bounded in size and discards the least recently used entries
+ * when it is full.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.backend.audio;
+
+import edu.cornell.gdiac.audio.AudioSource;
+import edu.cornell.gdiac.audio.AudioStream;
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class is a size-bounded cache of the first milliseconds of an audio source.
+ *
+ * The data is stored in native (off-heap) buffers in the same byte format that is
+ * produced by {@link AudioStream#read(byte[])}, so it can be sent directly to OpenAL.
+ * Sources must be registered explicitly with {@link #add}, as decoding the head of a
+ * source is the very work that this cache is designed to move off the critical path.
+ * It is safe to register sources on an asset loading thread.
+ *
+ * Entries are accessed with {@link #get}, which returns a private view of the cached
+ * data. When the total size of the cache would exceed its capacity, the least recently
+ * used entries are discarded.
+ */
+public class PrerollCache {
+    /** The size of the read buffer (mandated by the simple MP3 decoder) */
+    private static final int READ_SIZE = 16384;
+
+    /** The amount of audio cached for each source in milliseconds */
+    private final int millis;
+    /** The maximum number of bytes in this cache */
+    private final int capacity;
+    /** The current number of bytes in this cache */
+    private int size;
+    /** The cached data in access order (least recently used first) */
+    private final LinkedHashMap<AudioSource,ByteBuffer> entries;
+
+    /**
+     * Creates a new preroll cache with the given settings.
+     *
+     * @param millis    The amount of audio to cache for each source in milliseconds
+     * @param capacity  The maximum number of bytes in this cache
+     */
+    public PrerollCache(int millis, int capacity) {
+        if (millis <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException( "Preroll cache settings must be positive" );
+        }
+        this.millis = millis;
+        this.capacity = capacity;
+        entries = new LinkedHashMap<AudioSource,ByteBuffer>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the amount of audio cached for each source in milliseconds
+     *
+     * @return the amount of audio cached for each source in milliseconds
+     */
+    public int getMillis() {
+        return millis;
+    }
+
+    /**
+     * Returns the maximum number of bytes in this cache
+     *
+     * @return the maximum number of bytes in this cache
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the current number of bytes in this cache
+     *
+     * @return the current number of bytes in this cache
+     */
+    public synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     * Decodes the head of the given source and adds it to this cache.
+     *
+     * The decoding happens on the calling thread, using a stream that is independent
+     * of any music buffer. If the source is already cached, this method does nothing.
+     * If the data does not fit in the cache, this method will discard the least
+     * recently used entries until it does. It returns false if the data could not be
+     * cached at all.
+     *
+     * @param source    The audio source to cache
+     *
+     * @return true if the source is now cached
+     */
+    public boolean add(AudioSource source) {
+        synchronized (this) {
+            if (entries.containsKey( source )) {
+                return true;
+            }
+        }
+
+        int frame = 2*source.getChannels();
+        long amount = ((long)source.getSampleRate()*millis/1000)*frame;
+        if (amount <= 0 || amount > capacity) {
+            return false;
+        }
+
+        // Decode outside of the lock
+        ByteBuffer data = BufferUtils.createByteBuffer( (int)amount );
+        AudioStream stream = source.getStream();
+        byte[] bytes = new byte[READ_SIZE];
+        int length = 1;
+        while (data.hasRemaining() && length > 0) {
+            length = stream.read( bytes );
+            if (length > 0) {
+                data.put( bytes, 0, Math.min( length, data.remaining() ) );
+            }
+        }
+        stream.reset();
+        data.flip();
+        if (data.limit() == 0) {
+            return false;
+        }
+
+        synchronized (this) {
+            if (entries.containsKey( source )) {
+                return true;
+            }
+            Iterator<Map.Entry<AudioSource,ByteBuffer>> it = entries.entrySet().iterator();
+            while (size+data.limit() > capacity && it.hasNext()) {
+                size -= it.next().getValue().limit();
+                it.remove();
+            }
+            entries.put( source, data );
+            size += data.limit();
+        }
+        return true;
+    }
+
+    /**
+     * Returns a view of the cached data for the given source.
+     *
+     * The view is positioned at the start of the data, and its limit is the number
+     * of bytes cached. It shares its content with the cache but has its own position,
+     * so several music buffers may read the same entry at once. This method returns
+     * null if the source is not cached.
+     *
+     * @param source    The audio source to query
+     *
+     * @return a view of the cached data for the given source.
+     */
+    public synchronized ByteBuffer get(AudioSource source) {
+        ByteBuffer data = entries.get( source );
+        return data == null ? null : data.duplicate();
+    }
+
+    /**
+     * Returns true if the given source is cached.
+     *
+     * Unlike {@link #get}, this method does not affect the eviction order.
+     *
+     * @param source    The audio source to query
+     *
+     * @return true if the given source is cached.
+     */
+    public synchronized boolean contains(AudioSource source) {
+        return entries.containsKey( source );
+    }
+
+    /**
+     * Removes the given source from this cache.
+     *
+     * Any views previously returned by {@link #get} remain valid.
+     *
+     * @param source    The audio source to remove
+     */
+    public synchronized void remove(AudioSource source) {
+        ByteBuffer data = entries.remove( source );
+        if (data != null) {
+            size -= data.limit();
+        }
+    }
+
+    /**
+     * Removes all sources from this cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+}
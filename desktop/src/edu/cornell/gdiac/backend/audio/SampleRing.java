@@ -0,0 +1,155 @@
+/*
+ * SampleRing.java
+ *
+ * This is a lock-free ring buffer of PCM data. It decouples the thread writing to an
+ * audio device from the thread that sends the data to OpenAL, so that neither has to
+ * wait on the other except when the ring is full or empty.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.backend.audio;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This class is a single-producer, single-consumer ring buffer of bytes.
+ *
+ * The data is stored in a native (off-heap) buffer, so it can be copied directly into
+ * the native buffer sent to OpenAL. Exactly one thread may call {@link #write} at a
+ * time (the producer), and exactly one thread may call {@link #read} or {@link #clear}
+ * at a time (the consumer). The two threads synchronize only through two volatile
+ * counters, so no method of this class ever blocks.
+ *
+ * The counters are the total number of bytes written and read. They never wrap in
+ * practice (a long holds centuries of audio).
+ */
+public class SampleRing {
+    /** The ring storage */
+    private final ByteBuffer data;
+    /** The view of the storage used by the producer */
+    private final ByteBuffer writeView;
+    /** The view of the storage used by the consumer */
+    private final ByteBuffer readView;
+    /** The capacity of the ring in bytes */
+    private final int capacity;
+
+    /** The total number of bytes written (only modified by the producer) */
+    private volatile long head;
+    /** The total number of bytes read (only modified by the consumer) */
+    private volatile long tail;
+
+    /**
+     * Creates a new ring buffer with the given capacity.
+     *
+     * @param capacity  The capacity of the ring in bytes
+     */
+    public SampleRing(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException( "Ring capacity must be positive" );
+        }
+        this.capacity = capacity;
+        data = BufferUtils.createByteBuffer( capacity );
+        writeView = data.duplicate();
+        readView  = data.duplicate();
+    }
+
+    /**
+     * Returns the capacity of the ring in bytes.
+     *
+     * @return the capacity of the ring in bytes.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of bytes available to read.
+     *
+     * This value is exact for the consumer. For any other thread, it is a snapshot.
+     *
+     * @return the number of bytes available to read.
+     */
+    public int available() {
+        return (int)(head-tail);
+    }
+
+    /**
+     * Returns the number of bytes that may be written without overwriting data.
+     *
+     * This value is exact for the producer. For any other thread, it is a snapshot.
+     *
+     * @return the number of bytes that may be written without overwriting data.
+     */
+    public int free() {
+        return capacity-(int)(head-tail);
+    }
+
+    /**
+     * Writes as many bytes as fit in the ring, returning the amount written.
+     *
+     * This method never blocks. It must only be called by the producer.
+     *
+     * @param src       The bytes to write
+     * @param offset    The offset into the source array
+     * @param length    The number of bytes to write
+     *
+     * @return the number of bytes written
+     */
+    public int write(byte[] src, int offset, int length) {
+        long start = head;
+        int amount = Math.min( length, capacity-(int)(start-tail) );
+        int pos = (int)(start % capacity);
+        int first = Math.min( amount, capacity-pos );
+        writeView.clear();
+        writeView.position( pos );
+        writeView.put( src, offset, first );
+        if (first < amount) {
+            writeView.clear();
+            writeView.put( src, offset+first, amount-first );
+        }
+        head = start+amount;
+        return amount;
+    }
+
+    /**
+     * Reads up to the given number of bytes into the destination buffer.
+     *
+     * The bytes are put at the position of the destination buffer, which is advanced.
+     * This method never blocks. It must only be called by the consumer.
+     *
+     * @param dst       The buffer to receive the bytes
+     * @param length    The maximum number of bytes to read
+     *
+     * @return the number of bytes read
+     */
+    public int read(ByteBuffer dst, int length) {
+        long start = tail;
+        int amount = Math.min( Math.min( length, dst.remaining() ), (int)(head-start) );
+        int pos = (int)(start % capacity);
+        int first = Math.min( amount, capacity-pos );
+        readView.clear();
+        readView.position( pos );
+        readView.limit( pos+first );
+        dst.put( readView );
+        if (first < amount) {
+            readView.clear();
+            readView.limit( amount-first );
+            dst.put( readView );
+        }
+        tail = start+amount;
+        return amount;
+    }
+
+    /**
+     * Discards all of the bytes available to read.
+     *
+     * Bytes written concurrently with this call may or may not be discarded. This
+     * method must only be called by the consumer.
+     */
+    public void clear() {
+        tail = head;
+    }
+}
@@ -0,0 +1,639 @@
+/*
+ * StemSource.java
+ *
+ * This is the desktop implementation of a layered music source.  It decodes all of its
+ * stems together and mixes them in software with per-layer volume ramps, so that the
+ * result can be streamed through a single OpenAL source.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.backend.audio;
+
+import com.badlogic.gdx.files.FileHandle;
+import edu.cornell.gdiac.audio.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * This class is an implementation of {@link LayeredSource} for desktop platforms.
+ *
+ * The layers are decoded in lockstep. Because decoders produce data in pages that do
+ * not line up with one another, each stream keeps a small amount of decoded data for
+ * each layer, and mixes only the frames that every layer has decoded (or that are
+ * past the end of a shorter layer).
+ *
+ * Volume changes are applied by the streams as they mix.  Each stream keeps its own
+ * ramp state, so that a spare stream (such as the one used by a loop region) does not
+ * advance the ramps of the stream that is playing.
+ */
+public class StemSource implements LayeredSource {
+    /** The size of the read buffer (mandated by the simple MP3 decoder) */
+    private static final int READ_SIZE = 16384;
+
+    /** The audio source for each layer */
+    private AudioSource[] layers;
+    /** The number of channels (1 for mono, 2 for stereo) */
+    private int channels;
+    /** The number of audio samples (per channel) per second */
+    private int sampleRate;
+    /** The duration of the longest layer in seconds */
+    private float duration;
+
+    /** The target volume of each layer */
+    private final float[] targets;
+    /** The length of the most recent ramp (in sample frames) for each layer */
+    private final long[] ramps;
+    /** A counter for each layer, incremented whenever its volume changes */
+    private final int[] versions;
+
+    /**
+     * Creates a layered source from the given audio sources.
+     *
+     * All layers start at full volume.
+     *
+     * @param layers    The audio source for each layer
+     *
+     * @throws IllegalArgumentException if the layers do not have the same format
+     */
+    public StemSource(AudioSource... layers) {
+        if (layers == null || layers.length == 0) {
+            throw new IllegalArgumentException( "A layered source must have at least one layer" );
+        }
+        this.layers = layers.clone();
+        channels = layers[0].getChannels();
+        sampleRate = layers[0].getSampleRate();
+        for(AudioSource layer : layers) {
+            if (layer.getChannels() != channels || layer.getSampleRate() != sampleRate) {
+                throw new IllegalArgumentException( "Layer "+layer+" does not match the format of "+layers[0] );
+            }
+            duration = Math.max( duration, layer.getDuration() );
+        }
+        targets  = new float[layers.length];
+        ramps    = new long[layers.length];
+        versions = new int[layers.length];
+        for(int ii = 0; ii < layers.length; ii++) {
+            targets[ii] = 1.0f;
+        }
+    }
+
+    /**
+     * Deletes this layered source, releasing its reference to the layers.
+     *
+     * The layers themselves are not disposed.
+     */
+    @Override
+    public void dispose() {
+        layers = new AudioSource[0];
+        channels = 0;
+        sampleRate = 0;
+        duration = 0;
+    }
+
+    /**
+     * Returns the file that generated the first layer.
+     *
+     * @return the file that generated the first layer.
+     */
+    @Override
+    public FileHandle getFile() {
+        return layers.length == 0 ? null : layers[0].getFile();
+    }
+
+    /**
+     * Returns the number of audio channels in this source.
+     *
+     * @return the number of audio channels in this source.
+     */
+    @Override
+    public int getChannels() {
+        return channels;
+    }
+
+    /**
+     * Returns the sample rate of this audio asset
+     *
+     * @return the sample rate of this audio asset
+     */
+    @Override
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Returns the duration of the longest layer in seconds
+     *
+     * @return the duration of the longest layer in seconds
+     */
+    @Override
+    public float getDuration() {
+        return duration;
+    }
+
+    /**
+     * Returns a new {@link AudioStream} to stream the mixed layers.
+     *
+     * @return a new {@link AudioStream} to stream the mixed layers.
+     */
+    @Override
+    public AudioStream getStream() {
+        return new Stream();
+    }
+
+    /**
+     * Returns a byte buffer encapsulating the mixed layers
+     *
+     * This decodes and mixes the entire source at the current layer volumes, so you
+     * should avoid this method for any long piece of music.
+     *
+     * @return a byte buffer encapsulating the mixed layers
+     */
+    @Override
+    public ByteBuffer getData() {
+        Stream stream = new Stream();
+        ByteBuffer result = ByteBuffer.allocateDirect( (int)stream.getByteSize() );
+        result.order( ByteOrder.nativeOrder() );
+        byte[] bytes = new byte[READ_SIZE];
+        int length = stream.read( bytes );
+        while (length > 0 && result.hasRemaining()) {
+            result.put( bytes, 0, Math.min( length, result.remaining() ) );
+            length = stream.read( bytes );
+        }
+        result.flip();
+        return result;
+    }
+
+    /**
+     * Returns the number of layers in this source.
+     *
+     * @return the number of layers in this source.
+     */
+    @Override
+    public int getLayerCount() {
+        return layers.length;
+    }
+
+    /**
+     * Returns the audio source for the given layer.
+     *
+     * @param layer The layer index
+     *
+     * @return the audio source for the given layer.
+     */
+    @Override
+    public AudioSource getLayer(int layer) {
+        return layers[layer];
+    }
+
+    /**
+     * Sets the volume of the given layer immediately.
+     *
+     * @param layer     The layer index
+     * @param volume    The layer volume in the range [0,1]
+     */
+    @Override
+    public void setLayerVolume(int layer, float volume) {
+        setLayerVolume( layer, volume, 0 );
+    }
+
+    /**
+     * Ramps the volume of the given layer over the given amount of time.
+     *
+     * The ramp is linear and starts from the volume of the layer at the time the
+     * ramp begins to be mixed.  A ramp of 0 seconds sets the volume immediately.
+     *
+     * @param layer     The layer index
+     * @param volume    The layer volume in the range [0,1]
+     * @param seconds   The length of the ramp in seconds
+     */
+    @Override
+    public synchronized void setLayerVolume(int layer, float volume, float seconds) {
+        targets[layer] = Math.max( 0, Math.min( volume, 1 ) );
+        ramps[layer] = Math.max( 0, (long)(seconds*sampleRate) );
+        versions[layer]++;
+    }
+
+    /**
+     * Returns the target volume of the given layer.
+     *
+     * @param layer The layer index
+     *
+     * @return the target volume of the given layer.
+     */
+    @Override
+    public synchronized float getLayerVolume(int layer) {
+        return targets[layer];
+    }
+
+    /**
+     * Returns a string representation of this audio source (for debugging)
+     *
+     * @return a string representation of this audio source (for debugging)
+     */
+    @Override
+    public String toString() {
+        return "'"+layers.length+" layers ["+String.format("@%x", hashCode())+"]'";
+    }
+
+    // #mark -
+    /**
+     * This class is an {@link AudioStream} that mixes the layers of a {@link StemSource}.
+     */
+    public class Stream implements AudioStream {
+        /** The decoder stream for each layer */
+        private final AudioStream[] streams;
+        /** The decoded data of each layer that has not been mixed yet */
+        private final byte[][] pages;
+        /** The number of bytes in each page */
+        private final int[] counts;
+        /** Whether each layer has run out of data */
+        private final boolean[] ended;
+        /** The current volume of each layer */
+        private final float[] gains;
+        /** The volume at the end of the current ramp of each layer */
+        private final float[] goals;
+        /** The change in volume per frame for each layer */
+        private final float[] steps;
+        /** The number of frames left in the current ramp of each layer */
+        private final long[] remaining;
+        /** The last volume change seen for each layer */
+        private final int[] seen;
+        /** A byte array for reading from the layer streams */
+        private final byte[] chunk;
+        /** The mix accumulator */
+        private float[] accum;
+        /** The current byte position in the stream */
+        private long byteOffs;
+        /** The total number of bytes in the stream */
+        private long byteSize;
+        /** A byte array for grabbing data for sample queries */
+        private byte[] tempBytes;
+
+        /**
+         * Creates a new layered stream
+         */
+        public Stream() {
+            int size = layers.length;
+            streams = new AudioStream[size];
+            pages  = new byte[size][];
+            counts = new int[size];
+            ended  = new boolean[size];
+            gains  = new float[size];
+            goals  = new float[size];
+            steps  = new float[size];
+            remaining = new long[size];
+            seen   = new int[size];
+            chunk  = new byte[READ_SIZE];
+            for(int ii = 0; ii < size; ii++) {
+                streams[ii] = layers[ii].getStream();
+                byteSize = Math.max( byteSize, streams[ii].getByteSize() );
+            }
+            synchronized (StemSource.this) {
+                for(int ii = 0; ii < size; ii++) {
+                    gains[ii] = targets[ii];
+                    goals[ii] = targets[ii];
+                    seen[ii]  = versions[ii];
+                }
+            }
+        }
+
+        /**
+         * Returns the {@link AudioSource} that generated this stream.
+         *
+         * @return the {@link AudioSource} that generated this stream.
+         */
+        @Override
+        public AudioSource getSource() {
+            return StemSource.this;
+        }
+
+        /**
+         * Returns the total number of bytes in this stream.
+         *
+         * @return the total number of bytes in this stream.
+         */
+        @Override
+        public long getByteSize() {
+            return byteSize;
+        }
+
+        /**
+         * Returns the current byte position in this stream.
+         *
+         * @return the current byte position in this stream.
+         */
+        @Override
+        public long getByteOffset() {
+            return byteOffs;
+        }
+
+        /**
+         * Returns the total number of audio samples in this stream.
+         *
+         * @return the total number of audio samples in this stream.
+         */
+        @Override
+        public long getSampleSize() {
+            return byteSize/2;
+        }
+
+        /**
+         * Returns the current audio sample in this stream.
+         *
+         * @return the current audio samples in this stream.
+         */
+        @Override
+        public long getSampleOffset() {
+            return byteOffs/2;
+        }
+
+        /**
+         * Reads the next page of mixed bytes into the given buffer.
+         *
+         * This method reads whole audio frames only. It decodes each layer until it has
+         * enough data to fill the buffer (or the layer ends), and mixes the layers at
+         * their current volumes.
+         *
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of bytes read
+         */
+        @Override
+        public int read(byte[] buffer) {
+            int frame = 2*channels;
+            int want = buffer.length-(buffer.length % frame);
+            if (want <= 0) {
+                return 0;
+            }
+
+            int length = 0;
+            for(int ii = 0; ii < streams.length; ii++) {
+                if (pages[ii] == null || pages[ii].length < want+READ_SIZE) {
+                    byte[] page = new byte[want+READ_SIZE];
+                    if (pages[ii] != null) {
+                        System.arraycopy( pages[ii], 0, page, 0, counts[ii] );
+                    }
+                    pages[ii] = page;
+                }
+                while (counts[ii] < want && !ended[ii]) {
+                    int amount = streams[ii].read( chunk );
+                    if (amount <= 0) {
+                        ended[ii] = true;
+                    } else {
+                        System.arraycopy( chunk, 0, pages[ii], counts[ii], amount );
+                        counts[ii] += amount;
+                    }
+                }
+                length = Math.max( length, Math.min( counts[ii], want ) );
+            }
+            length -= length % frame;
+            if (length == 0) {
+                return 0;
+            }
+
+            syncVolumes();
+            int samples = length/2;
+            if (accum == null || accum.length < samples) {
+                accum = new float[samples];
+            }
+            for(int ii = 0; ii < samples; ii++) {
+                accum[ii] = 0;
+            }
+            for(int ii = 0; ii < streams.length; ii++) {
+                mixLayer( ii, Math.min( counts[ii], length ) );
+            }
+            for(int ii = 0; ii < samples; ii++) {
+                int value = (int)accum[ii];
+                value = Math.max( Short.MIN_VALUE, Math.min( value, Short.MAX_VALUE ) );
+                buffer[2*ii  ] = (byte)value;
+                buffer[2*ii+1] = (byte)(value >> 8);
+            }
+
+            byteOffs += length;
+            return length;
+        }
+
+        /**
+         * Reads the next page of audio samples into the given buffer.
+         *
+         * The audio sample values will be between Short.MIN_VALUE and Short.MAX_VALUE.
+         *
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of audio samples read
+         */
+        @Override
+        public int read(short[] buffer) {
+            if (tempBytes == null || tempBytes.length < 2*buffer.length) {
+                tempBytes = new byte[2*buffer.length];
+            }
+            int length = read(tempBytes);
+            for(int ii = 0; ii < length/2; ii++) {
+                int lower = (int)(tempBytes[2*ii  ]) & 0xFF;
+                int upper = (int)(tempBytes[2*ii+1]) & 0xFF;
+                buffer[ii] = (short)((upper << 8) | lower);
+            }
+            return length/2;
+        }
+
+        /**
+         * Reads the next page of audio samples into the given buffer.
+         *
+         * The audio sample values will be between -1 and 1.
+         *
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of audio samples read
+         */
+        @Override
+        public int read(float[] buffer) {
+            if (tempBytes == null || tempBytes.length < 2*buffer.length) {
+                tempBytes = new byte[2*buffer.length];
+            }
+            int length = read(tempBytes);
+            for(int ii = 0; ii < length/2; ii++) {
+                int lower = (int)(tempBytes[2*ii  ]) & 0xFF;
+                int upper = (int)(tempBytes[2*ii+1]) & 0xFF;
+                short value = (short)((upper << 8) | lower);
+                buffer[ii] = value/32767.0f;
+            }
+            return length/2;
+        }
+
+        /**
+         * Seeks to the given byte position, reading the results into the provided buffer
+         *
+         * The data at the given position is written to the very beginning of the buffer.
+         * The value returned is the number of bytes written to buffer. So a value of 0
+         * means that the seek failed.  Seeking backwards restarts all of the layers.
+         *
+         * @param pos       The position to seek to
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of bytes read
+         */
+        @Override
+        public int seek(long pos, byte[] buffer) {
+            if (pos < 0 || buffer.length <= 1) {
+                throw new IllegalArgumentException( "Illegal seek parameters" );
+            }
+            if (pos < byteOffs) {
+                reset();
+            }
+            int length = 1;
+            while (length > 0) {
+                length = read( buffer );
+                if (byteOffs > pos) {
+                    int mark = (int)(length-(byteOffs-pos));
+                    System.arraycopy( buffer, mark, buffer, 0, length-mark );
+                    return length-mark;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Seeks to the given audio sample, reading the results into the provided buffer
+         *
+         * The audio sample values will be between Short.MIN_VALUE and Short.MAX_VALUE.
+         *
+         * @param pos       The position to seek to
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of audio samples read
+         */
+        @Override
+        public int seek(long pos, short[] buffer) {
+            if (tempBytes == null || tempBytes.length < 2*buffer.length) {
+                tempBytes = new byte[2*buffer.length];
+            }
+            int length = seek(2*pos, tempBytes);
+            for(int ii = 0; ii < length/2; ii++) {
+                int lower = (int)(tempBytes[2*ii  ]) & 0xFF;
+                int upper = (int)(tempBytes[2*ii+1]) & 0xFF;
+                buffer[ii] = (short)((upper << 8) | lower);
+            }
+            return length/2;
+        }
+
+        /**
+         * Seeks to the given audio sample, reading the results into the provided buffer
+         *
+         * The audio sample values will be between -1 and 1.
+         *
+         * @param pos       The position to seek to
+         * @param buffer    The buffer store the audio data
+         *
+         * @return the number of audio samples read
+         */
+        @Override
+        public int seek(long pos, float[] buffer) {
+            if (tempBytes == null || tempBytes.length < 2*buffer.length) {
+                tempBytes = new byte[2*buffer.length];
+            }
+            int length = seek(2*pos, tempBytes);
+            for(int ii = 0; ii < length/2; ii++) {
+                int lower = (int)(tempBytes[2*ii  ]) & 0xFF;
+                int upper = (int)(tempBytes[2*ii+1]) & 0xFF;
+                short value = (short)((upper << 8) | lower);
+                buffer[ii] = value/32767.0f;
+            }
+            return length/2;
+        }
+
+        /**
+         * Resets this audio stream rewinding it to the beginning.
+         *
+         * Any ramp in progress is completed immediately.
+         */
+        @Override
+        public void reset() {
+            for(int ii = 0; ii < streams.length; ii++) {
+                streams[ii].reset();
+                counts[ii] = 0;
+                ended[ii] = false;
+            }
+            restart();
+        }
+
+        /**
+         * Resets this audio stream rewinding it to the beginning.
+         *
+         * Any ramp in progress is completed immediately.
+         */
+        @Override
+        public void loop() {
+            for(int ii = 0; ii < streams.length; ii++) {
+                streams[ii].loop();
+                counts[ii] = 0;
+                ended[ii] = false;
+            }
+            restart();
+        }
+
+        /**
+         * Restores the stream state after a reset
+         */
+        private void restart() {
+            byteOffs = 0;
+            syncVolumes();
+            for(int ii = 0; ii < streams.length; ii++) {
+                gains[ii] = goals[ii];
+                remaining[ii] = 0;
+            }
+        }
+
+        /**
+         * Starts a ramp for any layer whose volume has changed since the last read.
+         */
+        private void syncVolumes() {
+            synchronized (StemSource.this) {
+                for(int ii = 0; ii < streams.length; ii++) {
+                    if (seen[ii] != versions[ii]) {
+                        seen[ii]  = versions[ii];
+                        goals[ii] = targets[ii];
+                        remaining[ii] = ramps[ii];
+                        if (ramps[ii] == 0) {
+                            gains[ii] = goals[ii];
+                        } else {
+                            steps[ii] = (goals[ii]-gains[ii])/ramps[ii];
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds the given number of bytes of a layer to the mix accumulator.
+         *
+         * The mixed data is removed from the page of the layer.
+         *
+         * @param layer     The layer index
+         * @param length    The number of bytes to mix
+         */
+        private void mixLayer(int layer, int length) {
+            byte[] page = pages[layer];
+            int frame = 2*channels;
+            float gain = gains[layer];
+            for(int ii = 0; ii+frame <= length; ii += frame) {
+                if (remaining[layer] > 0) {
+                    gain += steps[layer];
+                    if (--remaining[layer] == 0) {
+                        gain = goals[layer];
+                    }
+                }
+                if (gain > 0) {
+                    for(int jj = ii; jj < ii+frame; jj += 2) {
+                        int value = (page[jj] & 0xff) | (page[jj+1] << 8);
+                        accum[jj/2] += value*gain;
+                    }
+                }
+            }
+            gains[layer] = gain;
+
+            System.arraycopy( page, length, page, 0, counts[layer]-length );
+            counts[layer] -= length;
+        }
+    }
+}
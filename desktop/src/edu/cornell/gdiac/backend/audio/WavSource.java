@@ -167,6 +167,7 @@ public class WavSource implements AudioSource {
             result = null;
         } finally {
             StreamUtils.closeQuietly( input );
+            input = null;
         }
         return result;
     }
@@ -0,0 +1,207 @@
+/*
+ * SampleRingTest.java
+ *
+ * Unit tests for the lock-free sample ring in front of audio devices.
+ *
+ * @author agent
+ * @date   10/19/26
+ */
+package edu.cornell.gdiac.backend.audio;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link SampleRing}.
+ */
+public class SampleRingTest {
+
+    /**
+     * Returns an array of the given length counting up from the given value
+     *
+     * @param start     The first value
+     * @param length    The number of bytes
+     *
+     * @return an array of the given length counting up from the given value
+     */
+    private static byte[] sequence(int start, int length) {
+        byte[] result = new byte[length];
+        for(int ii = 0; ii < length; ii++) {
+            result[ii] = (byte)(start+ii);
+        }
+        return result;
+    }
+
+    /**
+     * Reads up to the given number of bytes from the ring into a new array
+     *
+     * @param ring      The ring to read
+     * @param length    The maximum number of bytes
+     *
+     * @return the bytes read
+     */
+    private static byte[] drain(SampleRing ring, int length) {
+        ByteBuffer dst = ByteBuffer.allocate( length );
+        int amount = ring.read( dst, length );
+        assertEquals( amount, dst.position() );
+        byte[] result = new byte[amount];
+        dst.flip();
+        dst.get( result );
+        return result;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptyCapacity() {
+        new SampleRing( 0 );
+    }
+
+    @Test
+    public void startsEmpty() {
+        SampleRing ring = new SampleRing( 16 );
+        assertEquals( 16, ring.capacity() );
+        assertEquals( 0, ring.available() );
+        assertEquals( 16, ring.free() );
+        assertEquals( 0, drain( ring, 8 ).length );
+    }
+
+    @Test
+    public void readsBackWhatWasWritten() {
+        SampleRing ring = new SampleRing( 16 );
+        assertEquals( 10, ring.write( sequence( 0, 10 ), 0, 10 ) );
+        assertEquals( 10, ring.available() );
+        assertEquals( 6, ring.free() );
+        assertArrayEquals( sequence( 0, 10 ), drain( ring, 16 ) );
+        assertEquals( 0, ring.available() );
+        assertEquals( 16, ring.free() );
+    }
+
+    @Test
+    public void honorsSourceOffset() {
+        SampleRing ring = new SampleRing( 16 );
+        assertEquals( 4, ring.write( sequence( 0, 10 ), 3, 4 ) );
+        assertArrayEquals( sequence( 3, 4 ), drain( ring, 16 ) );
+    }
+
+    @Test
+    public void writesOnlyWhatFits() {
+        SampleRing ring = new SampleRing( 8 );
+        assertEquals( 8, ring.write( sequence( 0, 12 ), 0, 12 ) );
+        assertEquals( 0, ring.free() );
+        assertEquals( 0, ring.write( sequence( 0, 4 ), 0, 4 ) );
+        assertArrayEquals( sequence( 0, 8 ), drain( ring, 8 ) );
+    }
+
+    @Test
+    public void readIsLimitedByDestination() {
+        SampleRing ring = new SampleRing( 16 );
+        ring.write( sequence( 0, 12 ), 0, 12 );
+        ByteBuffer dst = ByteBuffer.allocate( 5 );
+        assertEquals( 5, ring.read( dst, 100 ) );
+        assertEquals( 7, ring.available() );
+        assertArrayEquals( sequence( 5, 7 ), drain( ring, 16 ) );
+    }
+
+    @Test
+    public void wrapsAroundTheEnd() {
+        SampleRing ring = new SampleRing( 10 );
+        ring.write( sequence( 0, 7 ), 0, 7 );
+        drain( ring, 7 );
+
+        // Only 3 bytes remain before the end of the storage (capacity-pos)
+        assertEquals( 8, ring.write( sequence( 20, 8 ), 0, 8 ) );
+        assertEquals( 8, ring.available() );
+        assertArrayEquals( sequence( 20, 8 ), drain( ring, 10 ) );
+    }
+
+    @Test
+    public void partialReadsAcrossTheWrap() {
+        SampleRing ring = new SampleRing( 10 );
+        ring.write( sequence( 0, 9 ), 0, 9 );
+        drain( ring, 9 );
+        ring.write( sequence( 50, 6 ), 0, 6 );
+
+        // The first read ends exactly at the end of the storage
+        assertArrayEquals( sequence( 50, 1 ), drain( ring, 1 ) );
+        assertArrayEquals( sequence( 51, 3 ), drain( ring, 3 ) );
+        assertArrayEquals( sequence( 54, 2 ), drain( ring, 10 ) );
+    }
+
+    @Test
+    public void fillsExactlyAtTheWrap() {
+        SampleRing ring = new SampleRing( 8 );
+        ring.write( sequence( 0, 5 ), 0, 5 );
+        drain( ring, 5 );
+        assertEquals( 8, ring.write( sequence( 30, 8 ), 0, 8 ) );
+        assertEquals( 0, ring.free() );
+        assertEquals( 0, ring.write( sequence( 0, 1 ), 0, 1 ) );
+        assertArrayEquals( sequence( 30, 8 ), drain( ring, 8 ) );
+    }
+
+    @Test
+    public void clearDiscardsAvailableData() {
+        SampleRing ring = new SampleRing( 8 );
+        ring.write( sequence( 0, 6 ), 0, 6 );
+        ring.clear();
+        assertEquals( 0, ring.available() );
+        assertEquals( 8, ring.free() );
+        ring.write( sequence( 40, 5 ), 0, 5 );
+        assertArrayEquals( sequence( 40, 5 ), drain( ring, 8 ) );
+    }
+
+    @Test
+    public void keepsOrderBetweenThreads() throws InterruptedException {
+        final SampleRing ring = new SampleRing( 61 );
+        final int total = 200000;
+        final Throwable[] failure = new Throwable[1];
+        Thread producer = new Thread( new Runnable() {
+            @Override
+            public void run() {
+                byte[] chunk = new byte[37];
+                int written = 0;
+                while (written < total) {
+                    int length = Math.min( chunk.length, total-written );
+                    for(int ii = 0; ii < length; ii++) {
+                        chunk[ii] = (byte)(written+ii);
+                    }
+                    int offset = 0;
+                    while (offset < length) {
+                        offset += ring.write( chunk, offset, length-offset );
+                        if (offset < length) {
+                            Thread.yield();
+                        }
+                    }
+                    written += length;
+                }
+            }
+        } );
+        producer.start();
+
+        ByteBuffer dst = ByteBuffer.allocate( 23 );
+        int read = 0;
+        long deadline = System.currentTimeMillis()+10000;
+        while (read < total && System.currentTimeMillis() < deadline) {
+            dst.clear();
+            int amount = ring.read( dst, dst.capacity() );
+            for(int ii = 0; ii < amount; ii++) {
+                if (dst.get( ii ) != (byte)(read+ii)) {
+                    failure[0] = new AssertionError( "Byte "+(read+ii)+" out of order" );
+                    break;
+                }
+            }
+            if (failure[0] != null) {
+                break;
+            }
+            read += amount;
+            if (amount == 0) {
+                Thread.yield();
+            }
+        }
+        producer.join( 10000 );
+        assertNull( failure[0] );
+        assertEquals( total, read );
+        assertEquals( 0, ring.available() );
+    }
+}